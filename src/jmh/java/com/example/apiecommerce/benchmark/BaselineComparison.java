@@ -0,0 +1,79 @@
+package com.example.apiecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class BaselineComparison {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Path.of(args[0]);
+        Path resultFile = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline found at " + baselineFile + ", skipping comparison");
+            return;
+        }
+        Map<String, Result> baseline = read(baselineFile);
+        Map<String, Result> current = read(resultFile);
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-90s %22s %22s %12s %12s%n", "Benchmark", "ops/s base", "ops/s now", "B/op base", "B/op now");
+        current.forEach((key, result) -> {
+            Result base = baseline.get(key);
+            if (base == null) {
+                System.out.printf("%-90s %22s %22s %12s %12.0f%n", key, "-", result.formattedThroughput(), "-", result.allocation());
+                return;
+            }
+            System.out.printf("%-90s %22s %22s %12.0f %12.0f%n", key, base.formattedThroughput(), result.formattedThroughput(),
+                    base.allocation(), result.allocation());
+            if (result.allocation() > base.allocation() * (1 + tolerance)
+                    && result.allocation() - base.allocation() > ALLOCATION_NOISE_BYTES) {
+                regressions.add("%s allocation grew from %.0f to %.0f B/op".formatted(key, base.allocation(), result.allocation()));
+            }
+        });
+        if (!regressions.isEmpty()) {
+            regressions.forEach(regression -> System.out.println("REGRESSION: " + regression));
+            System.exit(1);
+        }
+        System.out.println("No allocation regressions beyond " + Math.round(tolerance * 100) + "% of the baseline");
+    }
+
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = params.isEmpty() ? run.path("benchmark").asText() : run.path("benchmark").asText() + params;
+            double allocation = Double.NaN;
+            var secondaryMetrics = run.path("secondaryMetrics").fields();
+            while (secondaryMetrics.hasNext()) {
+                var metric = secondaryMetrics.next();
+                if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().path("score").asDouble();
+                }
+            }
+            JsonNode primaryMetric = run.path("primaryMetric");
+            results.put(key, new Result(primaryMetric.path("score").asDouble(), primaryMetric.path("scoreError").asDouble(), allocation));
+        }
+        return results;
+    }
+
+    private record Result(double throughput, double throughputError, double allocation) {
+        String formattedThroughput() {
+            return Double.isNaN(throughputError) ? "%.0f".formatted(throughput) : "%.0f +- %.0f".formatted(throughput, throughputError);
+        }
+    }
+}
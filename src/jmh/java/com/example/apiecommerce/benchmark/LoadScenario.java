@@ -0,0 +1,240 @@
+package com.example.apiecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public final class LoadScenario {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String[] SEARCH_TERMS = {"piwo", "wino ciemne", "whisky dymne", "wanilii", "chmielu", "rum", "gin owocowe"};
+    private static final int BROWSE_PAGES = 50;
+    private static final int ADMIN_PAGES = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final long DELIVERY_ID = 1;
+    private static final int LOGIN_PARALLELISM = 4;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final EndpointStats total = new EndpointStats();
+    private final String baseUrl;
+    private long[] productIds;
+
+    private LoadScenario(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int concurrency = Integer.parseInt(args[1]);
+        Duration duration = Duration.parse(args[2]);
+        int loadUsers = Integer.parseInt(args[3]);
+        String userPassword = args[4];
+        String adminUser = args[5];
+        String adminPassword = args[6];
+        LoadScenario scenario = new LoadScenario(baseUrl);
+        String adminToken = scenario.login(adminUser, adminPassword);
+        scenario.loadProductIds(adminToken);
+        SplittableRandom[] randoms = new SplittableRandom[concurrency];
+        String[] tokens = new String[concurrency];
+        try (ExecutorService loginExecutor = Executors.newFixedThreadPool(LOGIN_PARALLELISM)) {
+            List<Future<?>> logins = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                int virtualUser = i;
+                logins.add(loginExecutor.submit(() -> {
+                    randoms[virtualUser] = new SplittableRandom(virtualUser);
+                    String user = "user" + (1 + randoms[virtualUser].nextInt(loadUsers)) + "@load.test";
+                    tokens[virtualUser] = scenario.login(user, userPassword);
+                    return null;
+                }));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+        }
+        scenario.stats.clear();
+        scenario.total.clear();
+        long deadline = System.nanoTime() + duration.toNanos();
+        System.out.printf("Running %d virtual users against %s for %s with %d products%n", concurrency, baseUrl, duration,
+                scenario.productIds.length);
+        List<Future<?>> virtualUsers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int virtualUser = i;
+                virtualUsers.add(executor.submit(() -> {
+                    scenario.run(randoms[virtualUser], tokens[virtualUser], adminToken, deadline);
+                    return null;
+                }));
+            }
+        }
+        scenario.report(duration);
+        for (Future<?> virtualUser : virtualUsers) {
+            virtualUser.get();
+        }
+    }
+
+    private void run(SplittableRandom random, String token, String adminToken, long deadline) throws IOException, InterruptedException {
+        Long addressId = null;
+        while (System.nanoTime() < deadline) {
+            int action = random.nextInt(100);
+            if (action < 40) {
+                get("browse", "/api/v1/products/page/" + (1 + random.nextInt(BROWSE_PAGES)) + "?pageSize=" + PAGE_SIZE, token);
+            } else if (action < 55) {
+                get("product", "/api/v1/products/" + productIds[random.nextInt(productIds.length)], token);
+            } else if (action < 75) {
+                get("search", "/api/v1/products/search?pageSize=" + PAGE_SIZE + "&searchText="
+                        + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "+"), token);
+            } else if (action < 90) {
+                send("cart add", "POST", "/api/v1/cartItems", token, Map.of("productId", productIds[random.nextInt(productIds.length)]));
+                get("cart view", "/api/v1/carts", token);
+            } else if (action < 95) {
+                if (addressId == null) {
+                    JsonNode addresses = get("addresses", "/api/v1/users/addresses", token);
+                    addressId = addresses != null && !addresses.isEmpty() ? addresses.get(0).path("id").asLong() : null;
+                }
+                if (addressId != null) {
+                    send("checkout", "POST", "/api/v1/orders", token, Map.of("addressId", addressId, "deliveryId", DELIVERY_ID));
+                }
+            } else if (random.nextBoolean()) {
+                get("admin orders page", "/api/v1/orders/page?pageSize=" + PAGE_SIZE + "&page=" + (1 + random.nextInt(ADMIN_PAGES)), adminToken);
+            } else {
+                get("admin orders scroll", "/api/v1/orders/scroll?pageSize=" + PAGE_SIZE, adminToken);
+            }
+        }
+    }
+
+    private void loadProductIds(String adminToken) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/products/export"))
+                .header("Accept", "application/x-ndjson")
+                .header("Authorization", "Bearer " + adminToken)
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Could not export products, status " + response.statusCode());
+        }
+        try (Stream<String> lines = response.body()) {
+            productIds = lines.filter(line -> !line.isBlank())
+                    .mapToLong(LoadScenario::readId)
+                    .toArray();
+        }
+        if (productIds.length == 0) {
+            throw new IllegalStateException("There are no products to load test");
+        }
+    }
+
+    private static long readId(String line) {
+        try {
+            return OBJECT_MAPPER.readTree(line).path("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        JsonNode response = send("login", "POST", "/api/v1/auth/login", null, Map.of("username", username, "password", password));
+        if (response == null || !response.hasNonNull("token")) {
+            throw new IllegalStateException("Could not log in as " + username);
+        }
+        return response.get("token").asText();
+    }
+
+    private JsonNode get(String endpoint, String path, String token) throws IOException, InterruptedException {
+        return send(endpoint, "GET", path, token, null);
+    }
+
+    private JsonNode send(String endpoint, String method, String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body)));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (HttpTimeoutException e) {
+            long latency = System.nanoTime() - start;
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(latency, false);
+            total.record(latency, false);
+            return null;
+        }
+        boolean successful = response.statusCode() < 400;
+        long latency = System.nanoTime() - start;
+        stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(latency, successful);
+        total.record(latency, successful);
+        return successful && response.body().length > 0 ? OBJECT_MAPPER.readTree(response.body()) : null;
+    }
+
+    private void report(Duration duration) {
+        System.out.printf("%-22s %9s %8s %9s %9s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> reportRow(entry.getKey(), entry.getValue(), duration));
+        reportRow("all", total, duration);
+    }
+
+    private static void reportRow(String endpoint, EndpointStats endpointStats, Duration duration) {
+        long[] latencies = endpointStats.sortedLatencies();
+        System.out.printf("%-22s %9d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", endpoint, latencies.length,
+                endpointStats.errors.get(), latencies.length / (double) duration.toSeconds(),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.95)),
+                millis(percentile(latencies, 0.99)), millis(latencies[latencies.length - 1]));
+    }
+
+    private static long percentile(long[] sortedLatencies, double percentile) {
+        int rank = (int) Math.ceil(percentile * sortedLatencies.length);
+        return sortedLatencies[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class EndpointStats {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long latency, boolean successful) {
+            latencies.add(latency);
+            if (!successful) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized void clear() {
+            latencies.clear();
+            errors.set(0);
+        }
+
+        synchronized long[] sortedLatencies() {
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.apiecommerce.domain.cart;
+
+import com.example.apiecommerce.domain.cart.dto.CartDetailsDto;
+import com.example.apiecommerce.domain.cartItem.CartItem;
+import com.example.apiecommerce.domain.cartItem.CartItemFullDtoMapper;
+import com.example.apiecommerce.domain.category.Category;
+import com.example.apiecommerce.domain.product.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class CartDetailsDtoMapperBenchmark {
+    @Param({"1", "20"})
+    private int cartItems;
+
+    private CartDetailsDtoMapper cartDetailsDtoMapper;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        cartDetailsDtoMapper = new CartDetailsDtoMapper(new CartItemFullDtoMapper());
+        cart = new Cart();
+        cart.setId(1L);
+        Category category = new Category(1L, "Piwo");
+        Set<CartItem> items = new HashSet<>();
+        for (long i = 1; i <= cartItems; i++) {
+            CartItem cartItem = new CartItem();
+            cartItem.setId(i);
+            cartItem.setCartItemQuantity(2L);
+            cartItem.setCart(cart);
+            cartItem.setProduct(new Product(i, "Produkt " + i, 8.60, "Opis", LocalDateTime.of(2024, 2, 12, 12, 30), 20L, category));
+            items.add(cartItem);
+        }
+        cart.setCartItems(items);
+    }
+
+    @Benchmark
+    public CartDetailsDto map() {
+        return cartDetailsDtoMapper.map(cart);
+    }
+}
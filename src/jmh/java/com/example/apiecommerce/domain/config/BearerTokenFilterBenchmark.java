@@ -0,0 +1,44 @@
+package com.example.apiecommerce.domain.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class BearerTokenFilterBenchmark {
+    private static final String SHARED_KEY = "bdc6e4de-a1b9-49d4-bdec-39c2f0c62261";
+
+    @Param({"0", "10000"})
+    private long cacheSize;
+
+    private BearerTokenFilter bearerTokenFilter;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(SHARED_KEY);
+        bearerTokenFilter = new BearerTokenFilter(new VerifiedTokenCache(jwtService, cacheSize, Duration.ofMinutes(15)));
+        request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.addHeader("Authorization", "Bearer " + jwtService.createSignedJwt("user@mail.com", List.of("ROLE_USER")));
+    }
+
+    @Benchmark
+    public Object filterAuthenticatedRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bearerTokenFilter.doFilter(request, response, new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.apiecommerce.domain.config;
+
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private static final String SHARED_KEY = "bdc6e4de-a1b9-49d4-bdec-39c2f0c62261";
+    private static final List<String> AUTHORITIES = List.of("ROLE_USER");
+
+    private JwtService jwtService;
+    private SignedJWT signedJwt;
+
+    @Setup
+    public void setUp() throws ParseException {
+        jwtService = new JwtService(SHARED_KEY);
+        signedJwt = SignedJWT.parse(jwtService.createSignedJwt("user@mail.com", AUTHORITIES));
+    }
+
+    @Benchmark
+    public String createSignedJwt() {
+        return jwtService.createSignedJwt("user@mail.com", AUTHORITIES);
+    }
+
+    @Benchmark
+    public SignedJWT verifySignature() {
+        jwtService.verifySignature(signedJwt);
+        return signedJwt;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.apiecommerce.domain.inventory;
+
+import com.example.apiecommerce.ApiEcommerceApplication;
+import com.example.apiecommerce.domain.cart.Cart;
+import com.example.apiecommerce.domain.cart.CartRepository;
+import com.example.apiecommerce.domain.cartItem.CartItem;
+import com.example.apiecommerce.domain.cartItem.CartItemRepository;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.product.Product;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Threads(64)
+@Fork(1)
+public class HotProductStockBenchmark {
+    private static final long HOT_PRODUCT_QUANTITY = Long.MAX_VALUE / 2;
+
+    @Param({"database", "striped"})
+    public String engine;
+
+    private ConfigurableApplicationContext applicationContext;
+    private StockReservationService stockReservationService;
+    private CartRepository cartRepository;
+    private CartItemRepository cartItemRepository;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        applicationContext = new SpringApplicationBuilder(ApiEcommerceApplication.class).run(
+                "--spring.profiles.active=dev",
+                "--spring.datasource.url=jdbc:h2:mem:hot-product-stock-" + engine + ";LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.hikari.maximum-pool-size=64",
+                "--server.port=0",
+                "--inventory.engine=" + engine,
+                "--logging.level.root=WARN");
+        stockReservationService = applicationContext.getBean(StockReservationService.class);
+        cartRepository = applicationContext.getBean(CartRepository.class);
+        cartItemRepository = applicationContext.getBean(CartItemRepository.class);
+        CategoryRepository categoryRepository = applicationContext.getBean(CategoryRepository.class);
+        product = applicationContext.getBean(ProductRepository.class).save(new Product(null, "Hot SKU", 9.99,
+                "Benchmark product", LocalDateTime.now(), HOT_PRODUCT_QUANTITY, categoryRepository.findById(1L).orElseThrow()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public void reserveAndSell(CartState cartState) {
+        stockReservationService.adjustReservation(cartState.cartId, product.getId(), 0);
+        stockReservationService.checkout(cartState.cartId, Map.of(product.getId(), 1L));
+    }
+
+    @State(Scope.Thread)
+    public static class CartState {
+        private long cartId;
+
+        @Setup
+        public void setUp(HotProductStockBenchmark benchmark) {
+            Cart cart = new Cart();
+            cart.setCreationDate(LocalDateTime.now());
+            Cart savedCart = benchmark.cartRepository.save(cart);
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(savedCart);
+            cartItem.setProduct(benchmark.product);
+            cartItem.setCartItemQuantity(1L);
+            benchmark.cartItemRepository.save(cartItem);
+            cartId = savedCart.getId();
+        }
+    }
+}
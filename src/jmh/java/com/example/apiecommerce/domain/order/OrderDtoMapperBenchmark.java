@@ -0,0 +1,77 @@
+package com.example.apiecommerce.domain.order;
+
+import com.example.apiecommerce.domain.address.Address;
+import com.example.apiecommerce.domain.category.Category;
+import com.example.apiecommerce.domain.order.dto.OrderFullDto;
+import com.example.apiecommerce.domain.order.dto.OrderMainInfoDto;
+import com.example.apiecommerce.domain.orderItem.OrderItem;
+import com.example.apiecommerce.domain.orderItem.OrderItemDtoMapper;
+import com.example.apiecommerce.domain.product.Product;
+import com.example.apiecommerce.domain.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class OrderDtoMapperBenchmark {
+    @Param({"1", "20"})
+    private int orderItems;
+
+    private OrderDtoMapper orderDtoMapper;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        orderDtoMapper = new OrderDtoMapper(new OrderItemDtoMapper());
+        User user = new User();
+        user.setId(1L);
+        user.setFirstName("Janek");
+        user.setLastName("Janecki");
+        user.setEmail("user@mail.com");
+        user.setPhoneNumber("506111222");
+        Address address = new Address();
+        address.setId(1L);
+        address.setStreetName("Długa");
+        address.setBuildingNumber("1");
+        address.setApartmentNumber("2");
+        address.setZipCode("00-001");
+        address.setCity("Warszawa");
+        order = new Order();
+        order.setId(1L);
+        order.setTotalPrice(129.0);
+        order.setOrderDate(LocalDateTime.of(2024, 2, 12, 12, 30));
+        order.setPaymentStatus(PaymentStatus.PENDING);
+        order.setOrderStatus(OrderStatus.NEW);
+        order.setUser(user);
+        order.setAddress(address);
+        Category category = new Category(1L, "Piwo");
+        Set<OrderItem> items = new HashSet<>();
+        for (long i = 1; i <= orderItems; i++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setId(i);
+            orderItem.setOrderItemQuantity(2L);
+            orderItem.setOrder(order);
+            orderItem.setProduct(new Product(i, "Produkt " + i, 8.60, "Opis", LocalDateTime.of(2024, 2, 12, 12, 30), 20L, category));
+            items.add(orderItem);
+        }
+        order.setOrderItems(items);
+    }
+
+    @Benchmark
+    public OrderFullDto map() {
+        return orderDtoMapper.map(order);
+    }
+
+    @Benchmark
+    public OrderMainInfoDto mapToMainInfo() {
+        return orderDtoMapper.mapToMainInfo(order);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.DateTimeProvider;
+import com.example.apiecommerce.domain.category.Category;
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ProductDtoMapperBenchmark {
+    private ProductDtoMapper productDtoMapper;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        productDtoMapper = new ProductDtoMapper(null, new DateTimeProvider());
+        product = new Product(1L, "Pilsner", 8.60, "Klasyczne czeskie piwo", LocalDateTime.of(2024, 2, 12, 12, 30),
+                20L, new Category(1L, "Piwo"));
+    }
+
+    @Benchmark
+    public ProductDto map() {
+        return productDtoMapper.map(product);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ProductLinkBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private final ItemLinkFactory itemLinkFactory = new ItemLinkFactory();
+    private List<ProductDto> products;
+
+    @Setup
+    public void setUp() {
+        products = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            ProductDto productDto = new ProductDto();
+            productDto.setId(id);
+            products.add(productDto);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                new MockHttpServletRequest("GET", "/api/v1/products/page/1")));
+    }
+
+    @Benchmark
+    public List<EntityModel<ProductDto>> methodOnLinks() {
+        return products.stream()
+                .map(productDto -> EntityModel.of(productDto,
+                        linkTo(methodOn(ProductController.class).getProductById(productDto.getId(), null)).withSelfRel()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<EntityModel<ProductDto>> itemLinkFactory() {
+        return itemLinkFactory.toModels(products, ProductController.class, ProductDto::getId);
+    }
+}
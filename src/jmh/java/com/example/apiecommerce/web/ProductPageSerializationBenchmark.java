@@ -0,0 +1,65 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ProductPageSerializationBenchmark {
+    private static final String PRODUCTS_URL = "http://localhost:8080/api/v1/products";
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PagedModel<EntityModel<ProductDto>> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new Jackson2HalModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        List<EntityModel<ProductDto>> products = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            ProductDto productDto = new ProductDto();
+            productDto.setId(id);
+            productDto.setProductName("Produkt " + id);
+            productDto.setProductPrice(8.60);
+            productDto.setDescription("Klasyczne czeskie piwo");
+            productDto.setCreationDate(LocalDateTime.of(2024, 2, 12, 12, 30));
+            productDto.setProductQuantity(20L);
+            productDto.setCategoryId(1L);
+            productDto.setCategoryName("Piwo");
+            products.add(EntityModel.of(productDto, Link.of(PRODUCTS_URL + "/" + id)));
+        }
+        page = PagedModel.of(products, new PagedModel.PageMetadata(pageSize, 1, 200),
+                Link.of(PRODUCTS_URL + "/page/1"), Link.of(PRODUCTS_URL + "/page/2").withRel("next"));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
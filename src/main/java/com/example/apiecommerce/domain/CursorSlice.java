@@ -0,0 +1,19 @@
+package com.example.apiecommerce.domain;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+public class CursorSlice<T> extends SliceImpl<T> {
+    private final String nextCursor;
+
+    public CursorSlice(List<T> content, int pageSize, String nextCursor) {
+        super(content, PageRequest.ofSize(pageSize), nextCursor != null);
+        this.nextCursor = nextCursor;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
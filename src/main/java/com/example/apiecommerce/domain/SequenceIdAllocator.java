@@ -0,0 +1,59 @@
+package com.example.apiecommerce.domain;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+public class SequenceIdAllocator {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean tableSequences;
+
+    public SequenceIdAllocator(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public long[] allocate(String sequenceName, int count) {
+        long[] ids = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            long lastId = nextBlock(sequenceName);
+            for (long id = lastId - ALLOCATION_SIZE + 1; id <= lastId && allocated < count; id++) {
+                ids[allocated++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private long nextBlock(String sequenceName) {
+        if (!usesTableSequences()) {
+            Long lastId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequenceName, Long.class);
+            if (lastId == null) {
+                throw new IllegalStateException("Sequence " + sequenceName + " returned no value");
+            }
+            return lastId;
+        }
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE " + sequenceName + " SET next_val = LAST_INSERT_ID(next_val + " + ALLOCATION_SIZE + ")");
+                try (ResultSet resultSet = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    resultSet.next();
+                    return resultSet.getLong(1) - ALLOCATION_SIZE;
+                }
+            }
+        });
+    }
+
+    private boolean usesTableSequences() {
+        if (tableSequences == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            tableSequences = "MySQL".equals(database);
+        }
+        return tableSequences;
+    }
+}
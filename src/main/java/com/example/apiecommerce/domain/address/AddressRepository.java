@@ -1,9 +1,13 @@
 package com.example.apiecommerce.domain.address;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
 
 public interface AddressRepository extends CrudRepository<Address, Long> {
     List<Address> findAllByUserId(long userId);
+
+    @Query("SELECT a FROM Address a WHERE a.user.id = :userId AND a.isActive = :active ORDER BY a.id")
+    List<Address> findAllByUserIdAndActive(long userId, boolean active);
 }
@@ -2,8 +2,9 @@ package com.example.apiecommerce.domain.address;
 
 import com.example.apiecommerce.domain.address.dto.AddressDto;
 import com.example.apiecommerce.domain.address.dto.AddressUpdateDto;
-import com.example.apiecommerce.domain.user.User;
-import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.config.ReadFromPrimary;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,12 +15,12 @@ import java.util.Optional;
 public class AddressService {
     private final AddressRepository addressRepository;
     private final AddressDtoMapper addressDtoMapper;
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
 
-    public AddressService(AddressRepository addressRepository, AddressDtoMapper addressDtoMapper, UserRepository userRepository) {
+    public AddressService(AddressRepository addressRepository, AddressDtoMapper addressDtoMapper, UserIdentityService userIdentityService) {
         this.addressRepository = addressRepository;
         this.addressDtoMapper = addressDtoMapper;
-        this.userRepository = userRepository;
+        this.userIdentityService = userIdentityService;
     }
 
     @Transactional
@@ -34,10 +35,10 @@ public class AddressService {
         Address address = addressRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Address not found"));
 
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        if (!address.getUser().equals(user)) {
+        if (!address.getUser().getId().equals(userIdentity.userId())) {
             throw new IllegalArgumentException("Address belongs to other user");
         }
         address.setActive(false);
@@ -47,10 +48,10 @@ public class AddressService {
     public void updateAddress(long addressId, AddressUpdateDto addressUpdateDto, String userMail){
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new EntityNotFoundException("Address not found"));
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        if (!address.getUser().equals(user)) {
+        if (!address.getUser().getId().equals(userIdentity.userId())) {
             throw new IllegalArgumentException("Address belongs to other user, you can not update it");
         }
         if (addressUpdateDto.getStreetName() != null){
@@ -70,12 +71,14 @@ public class AddressService {
         }
     }
 
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public Optional<AddressDto> findAddressById(long addressId, String userMail){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new EntityNotFoundException("Address not found"));
-        if (!address.getUser().equals(user)) {
+        if (!address.getUser().getId().equals(userIdentity.userId())) {
             throw new IllegalArgumentException("Address belongs to other user, you can not get it");
         }
         return Optional.of(addressDtoMapper.map(address));
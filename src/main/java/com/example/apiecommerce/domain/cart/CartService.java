@@ -4,7 +4,12 @@ import com.example.apiecommerce.domain.DateTimeProvider;
 import com.example.apiecommerce.domain.cart.dto.CartDetailsDto;
 import com.example.apiecommerce.domain.cart.dto.CartDto;
 import com.example.apiecommerce.domain.cartItem.CartItemRepository;
+import com.example.apiecommerce.domain.config.ReadFromPrimary;
+import com.example.apiecommerce.domain.config.RetryOnLockFailure;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
 import com.example.apiecommerce.domain.user.User;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import com.example.apiecommerce.domain.user.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
@@ -20,77 +25,91 @@ public class CartService {
     private final CartDetailsDtoMapper cartDetailsDtoMapper;
     private final CartItemRepository cartItemRepository;
     private final DateTimeProvider dateTimeProvider;
+    private final UserIdentityService userIdentityService;
+    private final StockReservationService stockReservationService;
 
 
-    public CartService(CartRepository cartRepository, CartDtoMapper cartDtoMapper, UserRepository userRepository, CartDetailsDtoMapper cartDetailsDtoMapper, CartItemRepository cartItemRepository, DateTimeProvider dateTimeProvider) {
+    public CartService(CartRepository cartRepository, CartDtoMapper cartDtoMapper, UserRepository userRepository, CartDetailsDtoMapper cartDetailsDtoMapper, CartItemRepository cartItemRepository, DateTimeProvider dateTimeProvider, UserIdentityService userIdentityService, StockReservationService stockReservationService) {
         this.cartRepository = cartRepository;
         this.cartDtoMapper = cartDtoMapper;
         this.userRepository = userRepository;
         this.cartDetailsDtoMapper = cartDetailsDtoMapper;
         this.cartItemRepository = cartItemRepository;
         this.dateTimeProvider = dateTimeProvider;
+        this.userIdentityService = userIdentityService;
+        this.stockReservationService = stockReservationService;
     }
 
     @Transactional
     public CartDto createCart(String userMail){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        if (user.getCart() != null) {
+        if (userIdentity.hasCart()) {
             throw new IllegalStateException("User already has a cart");
         }
+        User user = userRepository.findById(userIdentity.userId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
         Cart cart = new Cart();
         cart.setCreationDate(dateTimeProvider.getCurrentTime());
         Cart savedCart = cartRepository.save(cart);
         user.setCart(savedCart);
+        userIdentityService.evict(userMail);
         return cartDtoMapper.map(savedCart);
     }
 
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public Optional<CartDetailsDto> findUserCart(String userMail) {
-        return userRepository.findByEmail(userMail)
-                .flatMap(user -> Optional.ofNullable(user.getCart()))
+        return userIdentityService.findByEmail(userMail)
+                .filter(UserIdentity::hasCart)
+                .flatMap(userIdentity -> cartRepository.findById(userIdentity.cartId()))
                 .map(cartDetailsDtoMapper::map);
     }
 
     @Transactional
     public void deleteCartWithoutIncreasingStock(String userMail){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-
-        if (user.getCart() == null) {
+        if (!userIdentity.hasCart()) {
             throw new EntityNotFoundException("User does not have a cart");
         }
-        Cart cart = cartRepository.findById(user.getCart().getId())
+        Cart cart = cartRepository.findById(userIdentity.cartId())
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
-
-        Optional<User> userOpt = userRepository.findByCartId(user.getCart().getId());
-        userOpt.ifPresent(
-                u -> {
-                    u.setCart(null);
-                    userRepository.save(u);
-                });
+        User user = userRepository.findById(userIdentity.userId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        user.setCart(null);
         cartRepository.delete(cart);
+        userIdentityService.evict(userMail);
     }
 
+    @RetryOnLockFailure
     @Transactional
     public void deleteCartWithIncreasingStock(String userMail){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        if (user.getCart() == null) {
+        if (!userIdentity.hasCart()) {
             throw new EntityNotFoundException("User does not have a cart");
         }
-        Cart cart = cartRepository.findById(user.getCart().getId())
+        stockReservationService.releaseCart(userIdentity.cartId());
+        Cart cart = cartRepository.findById(userIdentity.cartId())
                 .orElseThrow(EntityNotFoundException::new);
+        User user = userRepository.findById(userIdentity.userId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found"));
         cartItemRepository.deleteAll(cart.getCartItems());
         user.setCart(null);
         cartRepository.delete(cart);
+        userIdentityService.evict(userMail);
     }
 
+    @RetryOnLockFailure
     @Transactional
     public void clearCart(String userMail){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        Cart cart = Optional.ofNullable(user.getCart())
-                .orElseThrow(() -> new IllegalStateException("User does not have a cart"));
-        cartItemRepository.deleteAllByCart_Id(cart.getId());
+        if (!userIdentity.hasCart()) {
+            throw new IllegalStateException("User does not have a cart");
+        }
+        stockReservationService.releaseCart(userIdentity.cartId());
+        cartItemRepository.deleteAllByCart_Id(userIdentity.cartId());
     }
 }
@@ -0,0 +1,4 @@
+package com.example.apiecommerce.domain.cartItem;
+
+public record CartItemOwnership(long cartItemId, Long cartId, Long productId, long cartItemQuantity) {
+}
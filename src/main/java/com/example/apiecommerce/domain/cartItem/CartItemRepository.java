@@ -6,9 +6,33 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 public interface CartItemRepository extends CrudRepository<CartItem, Long> {
     @Modifying
     @Transactional
     @Query("DELETE FROM CartItem ci WHERE ci.cart.id = :cartId")
     void deleteAllByCart_Id(@Param("cartId") long cartId);
+
+    @Query("SELECT COALESCE(SUM(ci.cartItemQuantity), 0) FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.product.id = :productId")
+    long sumQuantityByCartIdAndProductId(@Param("cartId") long cartId, @Param("productId") long productId);
+
+    @Query("SELECT new com.example.apiecommerce.domain.cartItem.CartItemOwnership(ci.id, ci.cart.id, ci.product.id, ci.cartItemQuantity) " +
+            "FROM CartItem ci WHERE ci.id = :id")
+    Optional<CartItemOwnership> findOwnershipById(@Param("id") long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CartItem ci SET ci.cartItemQuantity = :quantity " +
+            "WHERE ci.id = :id AND ci.cartItemQuantity = :expectedQuantity")
+    int updateCartItemQuantity(@Param("id") long id, @Param("expectedQuantity") long expectedQuantity,
+                               @Param("quantity") long quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CartItem ci SET ci.cartItemQuantity = ci.cartItemQuantity + :change " +
+            "WHERE ci.id = :id AND ci.cartItemQuantity + :change >= 1")
+    int adjustCartItemQuantity(@Param("id") long id, @Param("change") long change);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem ci WHERE ci.id = :id")
+    int deleteCartItemById(@Param("id") long id);
 }
@@ -6,13 +6,15 @@ import com.example.apiecommerce.domain.cart.CartService;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemDto;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemFullDto;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemUpdateQuantityDto;
-import com.example.apiecommerce.domain.product.Product;
-import com.example.apiecommerce.domain.product.ProductRepository;
-import com.example.apiecommerce.domain.product.ProductService;
-import com.example.apiecommerce.domain.user.User;
-import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.config.ReadFromPrimary;
+import com.example.apiecommerce.domain.config.RetryOnLockFailure;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
@@ -21,110 +23,112 @@ import java.util.Optional;
 public class CartItemService {
     private final CartItemRepository cartItemRepository;
     private final CartItemDtoMapper cartItemDtoMapper;
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
     private final CartService cartService;
     private final CartRepository cartRepository;
     private final CartItemFullDtoMapper cartItemFullDtoMapper;
-    private final ProductService productService;
-    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
 
-    public CartItemService(CartItemRepository cartItemRepository, CartItemDtoMapper cartItemDtoMapper, UserRepository userRepository, CartService cartService, CartRepository cartRepository, CartItemFullDtoMapper cartItemFullDtoMapper, ProductService productService, ProductRepository productRepository) {
+    public CartItemService(CartItemRepository cartItemRepository, CartItemDtoMapper cartItemDtoMapper, UserIdentityService userIdentityService, CartService cartService, CartRepository cartRepository, CartItemFullDtoMapper cartItemFullDtoMapper, StockReservationService stockReservationService) {
         this.cartItemRepository = cartItemRepository;
         this.cartItemDtoMapper = cartItemDtoMapper;
-        this.userRepository = userRepository;
+        this.userIdentityService = userIdentityService;
         this.cartService = cartService;
         this.cartRepository = cartRepository;
         this.cartItemFullDtoMapper = cartItemFullDtoMapper;
-        this.productService = productService;
-        this.productRepository = productRepository;
+        this.stockReservationService = stockReservationService;
     }
 
-    @Transactional
+    @RetryOnLockFailure
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public CartItemFullDto addCartItemToCart(String userMail, CartItemDto cartItemDto){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        Long cartId = (user.getCart() != null)
-                ? user.getCart().getId()
+        Long cartId = userIdentity.hasCart()
+                ? userIdentity.cartId()
                 : cartService.createCart(userMail).getId();
         CartItem cartItemToSave = cartItemDtoMapper.map(cartItemDto);
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
-        productService.reduceProductQuantityInDbByOne(cartItemDto.getProductId());
+        stockReservationService.adjustReservation(cartId, cartItemDto.getProductId(), 1);
         cartItemToSave.setCart(cart);
         CartItem savedCartItem = cartItemRepository.save(cartItemToSave);
         return cartItemFullDtoMapper.map(savedCartItem);
     }
 
+    @RetryOnLockFailure
     @Transactional
     public void deleteCartItem(long cartItemId, String userMail){
-        checkIsCartItemFromUserCart(cartItemId, userMail);
-        if (!cartItemRepository.existsById(cartItemId)){
-            throw new EntityNotFoundException("CartItem not found");
-        }
-        Product product = productRepository.getProductByCartItemId(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        productService.updateProductQuantityInDb(product.getId(), -cartItemRepository.findById(cartItemId).orElseThrow().getCartItemQuantity());
-        cartItemRepository.deleteById(cartItemId);
+        CartItemOwnership cartItem = findUserCartItem(cartItemId, userMail);
+        stockReservationService.adjustReservation(cartItem.cartId(), productIdOf(cartItem), -cartItem.cartItemQuantity());
+        cartItemRepository.deleteCartItemById(cartItemId);
     }
 
-    private void checkIsCartItemFromUserCart(long cartItemId, String userMail) {
-        User user = userRepository.findByEmail(userMail)
+    private CartItemOwnership findUserCartItem(long cartItemId, String userMail) {
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        if (user.getCart() == null) {
+        if (!userIdentity.hasCart()) {
             throw new EntityNotFoundException("User does not have a cart");
         }
-        Cart cart = cartRepository.findById(user.getCart().getId())
-                .orElseThrow(() -> new EntityNotFoundException("User does not have a cart"));
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
+        CartItemOwnership cartItem = cartItemRepository.findOwnershipById(cartItemId)
                 .orElseThrow(() -> new EntityNotFoundException("Cart item not found"));
-        if (!cart.getCartItems().contains(cartItem)){
+        if (!userIdentity.cartId().equals(cartItem.cartId())){
             throw new IllegalArgumentException("This cart item does not belong to your cart");
         }
+        return cartItem;
     }
 
-    @Transactional
+    private static long productIdOf(CartItemOwnership cartItem) {
+        if (cartItem.productId() == null) {
+            throw new EntityNotFoundException("Product not found");
+        }
+        return cartItem.productId();
+    }
+
+    @RetryOnLockFailure
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void updateCartItemQuantity(long cartItemId, CartItemUpdateQuantityDto cartItemUpdateQuantityDto, String userMail){
-        checkIsCartItemFromUserCart(cartItemId, userMail);
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Cart item not found"));
-        Product product = productRepository.getProductByCartItemId(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        productService.updateProductQuantityInDb(product.getId(), (cartItemUpdateQuantityDto.getCartItemQuantity() - cartItem.getCartItemQuantity()));
-        if (cartItemUpdateQuantityDto.getCartItemQuantity() != null){
-            cartItem.setCartItemQuantity(cartItemUpdateQuantityDto.getCartItemQuantity());
+        CartItemOwnership cartItem = findUserCartItem(cartItemId, userMail);
+        Long quantity = cartItemUpdateQuantityDto.getCartItemQuantity();
+        if (quantity == null){
+            return;
+        }
+        long productId = productIdOf(cartItem);
+        stockReservationService.adjustReservation(cartItem.cartId(), productId, quantity - cartItem.cartItemQuantity());
+        if (cartItemRepository.updateCartItemQuantity(cartItemId, cartItem.cartItemQuantity(), quantity) == 1){
+            return;
+        }
+        long currentQuantity = cartItemRepository.findOwnershipById(cartItemId)
+                .orElseThrow(() -> new EntityNotFoundException("Cart item not found"))
+                .cartItemQuantity();
+        stockReservationService.adjustReservation(cartItem.cartId(), productId, cartItem.cartItemQuantity() - currentQuantity);
+        if (cartItemRepository.updateCartItemQuantity(cartItemId, currentQuantity, quantity) == 0){
+            throw new ConcurrencyFailureException("The cart item was modified concurrently, please try again");
         }
     }
 
-    @Transactional
+    @RetryOnLockFailure
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public void increaseCartItemQuantityByOne(long cartItemId, String userMail){
-        checkIsCartItemFromUserCart(cartItemId, userMail);
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Cart item not found"));
-        Product product = productRepository.getProductByCartItemId(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        productService.reduceProductQuantityInDbByOne(product.getId());
-        cartItem.setCartItemQuantity(cartItem.getCartItemQuantity() + 1);
+        CartItemOwnership cartItem = findUserCartItem(cartItemId, userMail);
+        stockReservationService.adjustReservation(cartItem.cartId(), productIdOf(cartItem), 1);
+        cartItemRepository.adjustCartItemQuantity(cartItemId, 1);
     }
 
+    @RetryOnLockFailure
     @Transactional
     public void reduceCartItemQuantityByOne(long cartItemId, String userMail){
-        checkIsCartItemFromUserCart(cartItemId, userMail);
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Cart item not found"));
-        Product product = productRepository.getProductByCartItemId(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        productService.increaseProductQuantityInDbByOne(product.getId());
-        cartItem.setCartItemQuantity(cartItem.getCartItemQuantity() - 1);
-        if (cartItem.getCartItemQuantity() <= 0){
+        CartItemOwnership cartItem = findUserCartItem(cartItemId, userMail);
+        stockReservationService.adjustReservation(cartItem.cartId(), productIdOf(cartItem), -1);
+        if (cartItemRepository.adjustCartItemQuantity(cartItemId, -1) == 0){
             throw new IllegalArgumentException("Quantity cannot be less than 1");
         }
     }
 
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public Optional<CartItemFullDto> findCartItemById(long cartItemId, String userMail){
-        checkIsCartItemFromUserCart(cartItemId, userMail);
-        if (!cartItemRepository.existsById(cartItemId)){
-            return Optional.empty();
-        }
+        findUserCartItem(cartItemId, userMail);
         return cartItemRepository.findById(cartItemId).map(cartItemFullDtoMapper::map);
     }
 }
@@ -1,6 +1,9 @@
 package com.example.apiecommerce.domain.category;
 
 import com.example.apiecommerce.domain.category.dto.CategoryDto;
+import com.example.apiecommerce.domain.product.CatalogCache;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.product.ProductSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,22 +15,30 @@ import java.util.stream.StreamSupport;
 @Service
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogCache catalogCache;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository, ProductSearchIndex productSearchIndex, CatalogCache catalogCache) {
         this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
     }
 
     @Transactional
     public CategoryDto addCategory(CategoryDto categoryDto){
         Category category = CategoryDtoMapper.map(categoryDto);
         Category savedCategory = categoryRepository.save(category);
+        catalogCache.evictCategories();
         return CategoryDtoMapper.map(savedCategory);
     }
 
     public List<CategoryDto> findAllCategories(){
-        return StreamSupport.stream(categoryRepository.findAll().spliterator(), false)
-                .map(CategoryDtoMapper::map)
-                .toList();
+        return catalogCache.query(CatalogCache.CatalogQuery.categories(), () ->
+                StreamSupport.stream(categoryRepository.findAll().spliterator(), false)
+                        .map(CategoryDtoMapper::map)
+                        .toList());
     }
 
     @Transactional
@@ -38,6 +49,9 @@ public class CategoryService {
         categoryDto.setId(categoryId);
         Category categoryToUpdate = CategoryDtoMapper.map(categoryDto);
         Category updatedCategory = categoryRepository.save(categoryToUpdate);
+        productRepository.incrementVersionByCategoryId(categoryId);
+        productSearchIndex.renameCategory(categoryId, updatedCategory.getCategoryName());
+        catalogCache.evictAll();
         return Optional.of(CategoryDtoMapper.map(updatedCategory));
     }
 
@@ -47,5 +61,7 @@ public class CategoryService {
             throw new EntityNotFoundException("Category not found");
         }
         categoryRepository.deleteById(categoryId);
+        productSearchIndex.deleteCategory(categoryId);
+        catalogCache.evictAll();
     }
 }
@@ -1,6 +1,5 @@
 package com.example.apiecommerce.domain.config;
 
-import com.nimbusds.jwt.SignedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
@@ -16,7 +15,6 @@ import org.springframework.security.web.authentication.AuthenticationFailureHand
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 
 import java.io.IOException;
-import java.text.ParseException;
 
 public class BearerTokenFilter extends HttpFilter {
     private final Logger logger = LoggerFactory.getLogger(BearerTokenFilter.class);
@@ -24,10 +22,10 @@ public class BearerTokenFilter extends HttpFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private final SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
     private final AuthenticationFailureHandler authenticationFailureHandler = new SimpleUrlAuthenticationFailureHandler();
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public BearerTokenFilter(JwtService jwtService) {
-        this.jwtService = jwtService;
+    public BearerTokenFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
@@ -38,17 +36,9 @@ public class BearerTokenFilter extends HttpFilter {
             chain.doFilter(request, response);
         } else {
             String compactJwt = authorizationHeader.substring(BEARER_PREFIX.length());
-            SignedJWT signedJWT;
             try {
-                signedJWT = SignedJWT.parse(compactJwt);
-                jwtService.verifySignature(signedJWT);
-                jwtService.verifyExpirationDate(signedJWT);
-                setSecurityContext(signedJWT);
+                setSecurityContext(verifiedTokenCache.authenticate(compactJwt));
                 chain.doFilter(request, response);
-            } catch (ParseException e) {
-                JwtAuthenticationException jwtAuthenticationException  = new JwtAuthenticationException("Bearer token could not be parsed");
-                logger.debug(e.getMessage());
-                authenticationFailureHandler.onAuthenticationFailure(request, response, jwtAuthenticationException);
             } catch (JwtAuthenticationException e){
                 logger.debug(e.getMessage());
                 authenticationFailureHandler.onAuthenticationFailure(request, response, e);
@@ -56,8 +46,7 @@ public class BearerTokenFilter extends HttpFilter {
         }
     }
 
-    private void setSecurityContext(SignedJWT signedJwt) {
-        Authentication authentication = jwtService.createAuthentication(signedJwt);
+    private void setSecurityContext(Authentication authentication) {
         SecurityContext securityContext = securityContextHolderStrategy.getContext();
         securityContext.setAuthentication(authentication);
     }
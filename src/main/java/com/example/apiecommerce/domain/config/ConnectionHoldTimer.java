@@ -0,0 +1,78 @@
+package com.example.apiecommerce.domain.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+@Component
+public class ConnectionHoldTimer {
+    private final ThreadLocal<long[]> holdTimes = new ThreadLocal<>();
+
+    public void start() {
+        holdTimes.set(new long[1]);
+    }
+
+    public Duration stop() {
+        long[] holdTime = holdTimes.get();
+        holdTimes.remove();
+        return Duration.ofNanos(holdTime == null ? 0 : holdTime[0]);
+    }
+
+    public DataSource timed(DataSource dataSource) {
+        return new TimedDataSource(dataSource);
+    }
+
+    Connection timed(Connection connection) {
+        long[] holdTime = holdTimes.get();
+        if (holdTime == null) {
+            return connection;
+        }
+        long acquiredAt = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        if (!closed[0]) {
+                            closed[0] = true;
+                            holdTime[0] += System.nanoTime() - acquiredAt;
+                        }
+                        yield invoke(connection, method, args);
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class TimedDataSource extends DelegatingDataSource {
+
+        TimedDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return timed(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return timed(super.getConnection(username, password));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.apiecommerce.domain.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class ConnectionPermitDataSource extends DelegatingDataSource {
+    private final Semaphore permits;
+    private final int maximumPermits;
+    private final Duration acquireTimeout;
+    private final TimedConnectionSource connectionSource;
+
+    ConnectionPermitDataSource(DataSource targetDataSource, int maximumPermits, Duration acquireTimeout) {
+        this(targetDataSource, maximumPermits, acquireTimeout, timeoutMillis -> targetDataSource.getConnection());
+    }
+
+    ConnectionPermitDataSource(DataSource targetDataSource, int maximumPermits, Duration acquireTimeout,
+                               TimedConnectionSource connectionSource) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maximumPermits, true);
+        this.maximumPermits = maximumPermits;
+        this.acquireTimeout = acquireTimeout;
+        this.connectionSource = connectionSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + acquireTimeout.toNanos();
+        acquire();
+        try {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadline - System.nanoTime()));
+            return released(connectionSource.getConnection(remainingMillis));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return released(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    int waitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("No connection permit available within " + acquireTimeout.toMillis()
+                        + " ms (" + maximumPermits + " permits, " + permits.getQueueLength() + " waiting)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection permit", e);
+        }
+    }
+
+    private Connection released(Connection connection) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            yield invoke(connection, method, args);
+                        } finally {
+                            if (closed.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    @FunctionalInterface
+    interface TimedConnectionSource {
+        Connection getConnection(long timeoutMillis) throws SQLException;
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
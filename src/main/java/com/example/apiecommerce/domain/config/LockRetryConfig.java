@@ -0,0 +1,32 @@
+package com.example.apiecommerce.domain.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+@Configuration
+public class LockRetryConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor lockRetryAdvisor(ObjectProvider<MeterRegistry> meterRegistry,
+                                    @Value("${lock-retry.max-attempts:3}") int maxAttempts,
+                                    @Value("${lock-retry.initial-backoff:PT0.025S}") Duration initialBackoff,
+                                    @Value("${lock-retry.max-backoff:PT0.5S}") Duration maxBackoff) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RetryOnLockFailure.class),
+                new LockRetryInterceptor(meterRegistry::getObject, maxAttempts, initialBackoff, maxBackoff));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
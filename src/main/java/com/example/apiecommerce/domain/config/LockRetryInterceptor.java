@@ -0,0 +1,91 @@
+package com.example.apiecommerce.domain.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+public class LockRetryInterceptor implements MethodInterceptor {
+    private final Logger logger = LoggerFactory.getLogger(LockRetryInterceptor.class);
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public LockRetryInterceptor(Supplier<MeterRegistry> meterRegistry, int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must not be less than one");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocation.proceed();
+        }
+        String method = invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return invocation.proceed();
+            } catch (RuntimeException exc) {
+                if (!isLockFailure(exc)) {
+                    throw exc;
+                }
+                if (attempt >= maxAttempts) {
+                    Counter.builder("db.lock.failures")
+                            .description("Calls that still failed on a deadlock or lock timeout after all retries")
+                            .tag("method", method)
+                            .register(meterRegistry.get())
+                            .increment();
+                    throw exc;
+                }
+                Counter.builder("db.lock.retries")
+                        .description("Calls retried after a deadlock or lock timeout")
+                        .tag("method", method)
+                        .tag("exception", exc.getClass().getSimpleName())
+                        .register(meterRegistry.get())
+                        .increment();
+                logger.warn("Retrying {} after lock failure (attempt {} of {}): {}", method, attempt, maxAttempts, exc.getMessage());
+                backOff(attempt, exc);
+            }
+        }
+    }
+
+    static boolean isLockFailure(Throwable exc) {
+        for (Throwable cause = exc; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PessimisticLockingFailureException
+                    || cause instanceof PessimisticLockException
+                    || cause instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backOff(int attempt, RuntimeException lockFailure) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw lockFailure;
+        }
+    }
+}
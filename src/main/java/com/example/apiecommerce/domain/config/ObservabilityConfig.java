@@ -0,0 +1,111 @@
+package com.example.apiecommerce.domain.config;
+
+import com.example.apiecommerce.domain.product.CatalogCache;
+import com.example.apiecommerce.domain.user.UserIdentityService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+public class ObservabilityConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    static BeanPostProcessor connectionHoldTimingPostProcessor(ObjectProvider<ConnectionHoldTimer> connectionHoldTimer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return connectionHoldTimer.getObject().timed(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    ServerRequestObservationConvention handlerMethodObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder applicationCacheMetrics(VerifiedTokenCache verifiedTokenCache,
+                                        UserIdentityService userIdentityService,
+                                        CatalogCache catalogCache,
+                                        CacheManager referenceDataCacheManager) {
+        return registry -> {
+            bindCache(registry, "jwt.verified-tokens", verifiedTokenCache, VerifiedTokenCache::stats);
+            bindCache(registry, "user.identities", userIdentityService, UserIdentityService::stats);
+            bindCache(registry, "catalog.products", catalogCache, CatalogCache::productStats);
+            bindCache(registry, "catalog.queries", catalogCache, CatalogCache::queryStats);
+            ReferenceDataCacheConfig.REGIONS.forEach(region -> bindCache(registry, "reference." + region,
+                    referenceDataCacheManager.getCache(region), ObservabilityConfig::regionStats));
+            bindCache(registry, "reference.queries",
+                    referenceDataCacheManager.getCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME),
+                    ObservabilityConfig::regionStats);
+        };
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of("handler", handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName());
+        }
+        return KeyValue.of("handler", "none");
+    }
+
+    private static CacheStats regionStats(javax.cache.Cache<Object, Object> region) {
+        return region.unwrap(Cache.class).stats();
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String cache, T owner, Function<T, CacheStats> stats) {
+        cacheCounter(registry, cache, "cache.gets", "hit", owner, stats, CacheStats::hitCount);
+        cacheCounter(registry, cache, "cache.gets", "miss", owner, stats, CacheStats::missCount);
+        cacheCounter(registry, cache, "cache.evictions", null, owner, stats, CacheStats::evictionCount);
+        Gauge.builder("cache.hit.ratio", owner, state -> stats.apply(state).hitRate())
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    private static <T> void cacheCounter(MeterRegistry registry, String cache, String name, String result,
+                                         T owner, Function<T, CacheStats> stats, ToDoubleFunction<CacheStats> count) {
+        FunctionCounter.Builder<T> counter = FunctionCounter.builder(name, owner, state -> count.applyAsDouble(stats.apply(state)))
+                .tag("cache", cache);
+        if (result != null) {
+            counter.tag("result", result);
+        }
+        counter.register(registry);
+    }
+}
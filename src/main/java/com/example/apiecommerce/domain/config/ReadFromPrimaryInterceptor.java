@@ -0,0 +1,25 @@
+package com.example.apiecommerce.domain.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+public class ReadFromPrimaryInterceptor implements MethodInterceptor {
+    private static final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(primaryRequired.get());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (isPrimaryRequired()) {
+            return invocation.proceed();
+        }
+        primaryRequired.set(true);
+        try {
+            return invocation.proceed();
+        } finally {
+            primaryRequired.remove();
+        }
+    }
+}
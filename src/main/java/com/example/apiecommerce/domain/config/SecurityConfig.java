@@ -24,10 +24,12 @@ public class SecurityConfig {
     private static final String USER_ROLE = "USER";
     private static final String ADMIN_ROLE = "ADMIN";
     private final UserSecurity userSecurity;
+    private final VerifiedTokenCache verifiedTokenCache;
 
-    public SecurityConfig(JwtService jwtService, UserSecurity userSecurity) {
+    public SecurityConfig(JwtService jwtService, UserSecurity userSecurity, VerifiedTokenCache verifiedTokenCache) {
         this.jwtService = jwtService;
         this.userSecurity = userSecurity;
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Bean
@@ -41,9 +43,11 @@ public class SecurityConfig {
                                            AuthenticationManagerBuilder authenticationManagerBuilder) throws Exception {
         AuthenticationManager authenticationManager = authenticationManagerBuilder.getOrBuild();
         JwtAuthenticationFilter jwtAuthenticationFilter = new JwtAuthenticationFilter(authenticationManager, jwtService);
-        BearerTokenFilter bearerTokenFilter = new BearerTokenFilter(jwtService);
+        BearerTokenFilter bearerTokenFilter = new BearerTokenFilter(verifiedTokenCache);
         http.authorizeHttpRequests(request -> request
                         .requestMatchers("/api/v1/auth/register").permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole(ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/v1/users/user/{id}")).hasRole(ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/v1/users/**")).hasAnyRole(ADMIN_ROLE, USER_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.DELETE, "/api/v1/users/**")).hasRole(ADMIN_ROLE)
@@ -52,6 +56,7 @@ public class SecurityConfig {
                         .requestMatchers(mvc.pattern(HttpMethod.DELETE, "/api/v1/orders/**")).hasRole(ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.PATCH, "/api/v1/orders/**")).hasRole(ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/v1/orders/page")).hasRole(ADMIN_ROLE)
+                        .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/v1/orders/scroll")).hasRole(ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/v1/orders/**")).hasAnyRole(USER_ROLE, ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/v1/deliveries/**")).hasRole(ADMIN_ROLE)
                         .requestMatchers(mvc.pattern(HttpMethod.PATCH, "/api/v1/deliveries/**")).hasRole(ADMIN_ROLE)
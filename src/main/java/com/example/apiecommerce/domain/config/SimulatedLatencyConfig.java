@@ -0,0 +1,42 @@
+package com.example.apiecommerce.domain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.DriverDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "datasource.simulated-latency")
+public class SimulatedLatencyConfig {
+
+    @Bean
+    static SimulatedLatencyPostProcessor simulatedLatencyPostProcessor(@Value("${datasource.simulated-latency}") Duration latency) {
+        return new SimulatedLatencyPostProcessor(latency);
+    }
+
+    static class SimulatedLatencyPostProcessor implements BeanPostProcessor {
+        private final Duration latency;
+
+        SimulatedLatencyPostProcessor(Duration latency) {
+            if (latency.isNegative()) {
+                throw new IllegalArgumentException("Simulated database latency must not be negative");
+            }
+            this.latency = latency;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikariDataSource && hikariDataSource.getDataSource() == null) {
+                hikariDataSource.setDataSource(new SimulatedLatencyDataSource(new DriverDataSource(hikariDataSource.getJdbcUrl(),
+                        hikariDataSource.getDriverClassName(), hikariDataSource.getDataSourceProperties(),
+                        hikariDataSource.getUsername(), hikariDataSource.getPassword()), latency));
+            }
+            return bean;
+        }
+    }
+}
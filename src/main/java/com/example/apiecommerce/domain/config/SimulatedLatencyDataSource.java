@@ -0,0 +1,78 @@
+package com.example.apiecommerce.domain.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.time.Duration;
+
+class SimulatedLatencyDataSource extends DelegatingDataSource {
+    private final Duration latency;
+
+    SimulatedLatencyDataSource(DataSource targetDataSource, Duration latency) {
+        super(targetDataSource);
+        this.latency = latency;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return delayed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delayed(super.getConnection(username, password));
+    }
+
+    private Connection delayed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "commit", "rollback" -> {
+                        sleep();
+                        yield invoke(connection, method, args);
+                    }
+                    case "createStatement", "prepareStatement", "prepareCall" ->
+                            delayed((Statement) invoke(connection, method, args), method.getReturnType());
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private Statement delayed(Statement statement, Class<?> statementType) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{statementType},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        if (method.getName().startsWith("execute")) {
+                            sleep();
+                        }
+                        yield invoke(statement, method, args);
+                    }
+                });
+    }
+
+    private void sleep() throws SQLException {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientException("Interrupted while simulating database latency", e);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
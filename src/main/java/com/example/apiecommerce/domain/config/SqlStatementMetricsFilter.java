@@ -0,0 +1,61 @@
+package com.example.apiecommerce.domain.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@Component
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    public static final String STATEMENT_COUNT_ATTRIBUTE = SqlStatementMetricsFilter.class.getName() + ".statements";
+    static final String METRIC_NAME = "http.server.requests.sql";
+    static final String CONNECTION_HOLD_METRIC_NAME = "http.server.requests.connections";
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final ConnectionHoldTimer connectionHoldTimer;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsFilter(SqlStatementCounter sqlStatementCounter, ConnectionHoldTimer connectionHoldTimer,
+                                     MeterRegistry meterRegistry) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.connectionHoldTimer = connectionHoldTimer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementCounter.start();
+        connectionHoldTimer.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = sqlStatementCounter.stop();
+            Duration connectionHoldTime = connectionHoldTimer.stop();
+            request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, statements);
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC_NAME)
+                    .description("SQL statements executed while handling a request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .register(meterRegistry)
+                    .record(statements);
+            Timer.builder(CONNECTION_HOLD_METRIC_NAME)
+                    .description("Time the request held pooled JDBC connections")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                    .register(meterRegistry)
+                    .record(connectionHoldTime);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.apiecommerce.domain.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+
+@Component
+public class VerifiedTokenCache {
+    private final JwtService jwtService;
+    private final Duration maximumTtl;
+    private final Instant epochAnchor;
+    private final long tickerAnchor;
+    private final Cache<String, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtService jwtService,
+                              @Value("${jws.token-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${jws.token-cache.maximum-ttl:PT15M}") Duration maximumTtl) {
+        this(jwtService, maximumSize, maximumTtl, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(JwtService jwtService, long maximumSize, Duration maximumTtl, Clock clock, Ticker ticker) {
+        this.jwtService = jwtService;
+        this.maximumTtl = maximumTtl;
+        this.epochAnchor = clock.instant();
+        this.tickerAnchor = ticker.read();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken verifiedToken, long currentTime) {
+                        return lifetime(verifiedToken, currentTime).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public Authentication authenticate(String compactJwt) {
+        VerifiedToken verifiedToken = cache.get(digest(compactJwt), digest -> verify(compactJwt));
+        return UsernamePasswordAuthenticationToken.authenticated(verifiedToken.subject(), null, verifiedToken.authorities());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private VerifiedToken verify(String compactJwt) {
+        SignedJWT signedJWT;
+        Instant expiresAt;
+        try {
+            signedJWT = SignedJWT.parse(compactJwt);
+        } catch (ParseException e) {
+            throw new JwtAuthenticationException("Bearer token could not be parsed");
+        }
+        jwtService.verifySignature(signedJWT);
+        jwtService.verifyExpirationDate(signedJWT);
+        Authentication authentication = jwtService.createAuthentication(signedJWT);
+        try {
+            expiresAt = signedJWT.getJWTClaimsSet().getExpirationTime().toInstant();
+        } catch (ParseException e) {
+            throw new JwtAuthenticationException("Token does not have exp claim");
+        }
+        return new VerifiedToken(authentication.getName(), List.copyOf(authentication.getAuthorities()), expiresAt);
+    }
+
+    private Duration lifetime(VerifiedToken verifiedToken, long currentTime) {
+        Instant now = epochAnchor.plusNanos(currentTime - tickerAnchor);
+        Duration untilExpiration = Duration.between(now, verifiedToken.expiresAt());
+        if (untilExpiration.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiration.compareTo(maximumTtl) < 0 ? untilExpiration : maximumTtl;
+    }
+
+    private static String digest(String compactJwt) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(compactJwt.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedToken(String subject, List<GrantedAuthority> authorities, Instant expiresAt) {
+    }
+}
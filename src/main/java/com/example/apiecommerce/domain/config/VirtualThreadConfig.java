@@ -0,0 +1,62 @@
+package com.example.apiecommerce.domain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static ConnectionPermitPostProcessor connectionPermitPostProcessor() {
+        return new ConnectionPermitPostProcessor();
+    }
+
+    @Bean
+    MeterBinder connectionPermitMetrics(ConnectionPermitPostProcessor connectionPermitPostProcessor) {
+        return registry -> connectionPermitPostProcessor.permitDataSources.forEach((pool, dataSource) -> {
+            Gauge.builder("jdbc.connections.permits.available", dataSource, ConnectionPermitDataSource::availablePermits)
+                    .tag("pool", pool)
+                    .register(registry);
+            Gauge.builder("jdbc.connections.permits.waiting", dataSource, ConnectionPermitDataSource::waitingThreads)
+                    .tag("pool", pool)
+                    .register(registry);
+        });
+    }
+
+    static class ConnectionPermitPostProcessor implements BeanPostProcessor, Ordered {
+        private final Map<String, ConnectionPermitDataSource> permitDataSources = new ConcurrentHashMap<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.validate();
+                ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(hikariDataSource,
+                        hikariDataSource.getMaximumPoolSize(), Duration.ofMillis(hikariDataSource.getConnectionTimeout()),
+                        timeoutMillis -> hikariDataSource.getHikariPoolMXBean() instanceof HikariPool hikariPool
+                                ? hikariPool.getConnection(timeoutMillis)
+                                : hikariDataSource.getConnection());
+                permitDataSources.put(hikariDataSource.getPoolName(), dataSource);
+                return dataSource;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.apiecommerce.domain.datagen;
+
+import com.example.apiecommerce.domain.SequenceIdAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGeneratorSettings.class)
+public class DataGenerator implements SmartInitializingSingleton, ApplicationRunner {
+    private final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+    public static final String EMAIL_DOMAIN = "@load.test";
+    private static final String USER_ROLE = "USER";
+    private static final String[] PRODUCT_KINDS = {"Piwo", "Wino", "Whisky", "Burbon", "Wódka", "Gin", "Rum", "Cydr", "Likier", "Koniak"};
+    private static final String[] PRODUCT_STYLES = {"Jasne", "Ciemne", "Wytrawne", "Słodkie", "Dymne", "Korzenne", "Owocowe",
+            "Klasyczne", "Rzemieślnicze", "Leżakowane"};
+    private static final String[] DESCRIPTION_WORDS = {"nuty", "wanilii", "dębu", "chmielu", "czekolady", "kawy", "cytrusów",
+            "miodu", "przypraw", "owoców", "leśnych", "goryczka", "aromat", "finisz", "słodycz", "beczka", "torf", "karmel"};
+    private static final String[] FIRST_NAMES = {"Anna", "Piotr", "Katarzyna", "Tomasz", "Magdalena", "Paweł", "Agnieszka", "Marcin"};
+    private static final String[] LAST_NAMES = {"Nowak", "Kowalczyk", "Wiśniewski", "Wójcik", "Kamiński", "Lewandowski", "Zieliński"};
+    private static final String[] STREETS = {"Marszałkowska", "Krakowska", "Poznańska", "Długa", "Polna", "Leśna", "Słoneczna"};
+    private static final String[] CITIES = {"Warszawa", "Kraków", "Poznań", "Gdańsk", "Wrocław", "Łódź", "Lublin", "Szczecin"};
+    private static final String[] PAYMENT_STATUSES = {"PENDING", "COMPLETED", "FAILED"};
+    private static final String[] ORDER_STATUSES = {"NEW", "SUCCESS", "CANCELLED"};
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int DATE_RANGE_MINUTES = 2 * 365 * 24 * 60;
+    private static final long HOT_PRODUCT_QUANTITY = 1_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final DataGeneratorSettings settings;
+    private final ConfigurableApplicationContext applicationContext;
+
+    public DataGenerator(DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         PasswordEncoder passwordEncoder,
+                         DataGeneratorSettings settings,
+                         ConfigurableApplicationContext applicationContext) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sequenceIdAllocator = new SequenceIdAllocator(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.settings = settings;
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        generate();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (settings.exitOnCompletion()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        long[] categoryIds = generateCategories();
+        Catalog catalog = generateProducts(random, categoryIds);
+        logger.info("Generated {} categories and {} products ({} hot)", categoryIds.length, catalog.ids().length, catalog.hot().length);
+        Customers customers = generateUsers(random, catalog);
+        logger.info("Generated {} users with carts and addresses", customers.userIds().length);
+        long orderItems = generateOrders(random, catalog, customers, deliveries());
+        logger.info("Generated {} orders with {} order items in {} s", settings.orders(), orderItems,
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private long[] generateCategories() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < settings.categories(); i++) {
+            rows.add(new Object[]{PRODUCT_KINDS[i % PRODUCT_KINDS.length] + " " + (i / PRODUCT_KINDS.length + 1)});
+        }
+        return transactionTemplate.execute(status ->
+                insert("category", "INSERT INTO category (id, category_name) VALUES (?, ?)", rows));
+    }
+
+    private Catalog generateProducts(SplittableRandom random, long[] categoryIds) {
+        int products = settings.products();
+        int[] hot = random.ints(0, products)
+                .distinct()
+                .limit(Math.max(1, Math.round(products * settings.hotProductRatio())))
+                .toArray();
+        BitSet hotProducts = new BitSet(products);
+        for (int index : hot) {
+            hotProducts.set(index);
+        }
+        long[] ids = new long[products];
+        double[] prices = new double[products];
+        for (int from = 0; from < products; from += settings.batchSize()) {
+            int to = Math.min(from + settings.batchSize(), products);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                prices[i] = price(random, 5, 500);
+                String kind = PRODUCT_KINDS[random.nextInt(PRODUCT_KINDS.length)];
+                String style = PRODUCT_STYLES[random.nextInt(PRODUCT_STYLES.length)];
+                long quantity = hotProducts.get(i) ? HOT_PRODUCT_QUANTITY : random.nextLong(501);
+                rows.add(new Object[]{kind + " " + style + " " + (i + 1), prices[i], description(random, kind), date(random),
+                        quantity, categoryIds[random.nextInt(categoryIds.length)]});
+            }
+            long[] chunkIds = transactionTemplate.execute(status -> insert("product",
+                    "INSERT INTO product (id, product_name, product_price, description, creation_date, product_quantity, category_id) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?)", rows));
+            System.arraycopy(chunkIds, 0, ids, from, chunkIds.length);
+        }
+        return new Catalog(ids, prices, hot, settings.hotTrafficShare());
+    }
+
+    private Customers generateUsers(SplittableRandom random, Catalog catalog) {
+        int users = settings.users();
+        long roleId = userRoleId();
+        String passwordHash = passwordEncoder.encode(settings.userPassword());
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class, "%" + EMAIL_DOMAIN);
+        long emailOffset = existing == null ? 0 : existing;
+        long[] userIds = new long[users];
+        long[] addressIds = new long[users];
+        for (int from = 0; from < users; from += settings.batchSize()) {
+            int to = Math.min(from + settings.batchSize(), users);
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> carts = new ArrayList<>();
+                for (int i = first; i < to; i++) {
+                    carts.add(new Object[]{date(random)});
+                }
+                long[] cartIds = insert("cart", "INSERT INTO cart (id, creation_date) VALUES (?, ?)", carts);
+
+                List<Object[]> userRows = new ArrayList<>();
+                for (int i = first; i < to; i++) {
+                    userRows.add(new Object[]{"user" + (emailOffset + i + 1) + EMAIL_DOMAIN, passwordHash,
+                            FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                            "5" + (10_000_000 + random.nextInt(90_000_000)), date(random), cartIds[i - first]});
+                }
+                long[] chunkUserIds = insert("users", "INSERT INTO users (id, email, password, first_name, last_name, " +
+                        "phone_number, creation_date, cart_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", userRows);
+
+                List<Object[]> roles = new ArrayList<>();
+                List<Object[]> addresses = new ArrayList<>();
+                List<Object[]> cartItems = new ArrayList<>();
+                for (int i = 0; i < chunkUserIds.length; i++) {
+                    roles.add(new Object[]{chunkUserIds[i], roleId});
+                    addresses.add(new Object[]{STREETS[random.nextInt(STREETS.length)], String.valueOf(1 + random.nextInt(200)),
+                            random.nextBoolean() ? String.valueOf(1 + random.nextInt(100)) : null,
+                            "%02d-%03d".formatted(random.nextInt(100), random.nextInt(1000)),
+                            CITIES[random.nextInt(CITIES.length)], chunkUserIds[i]});
+                    for (int productIndex : catalog.pickDistinct(random, random.nextInt(settings.maxCartItems() + 1))) {
+                        cartItems.add(new Object[]{1 + random.nextInt(3), cartIds[i], catalog.ids()[productIndex]});
+                    }
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", roles);
+                long[] chunkAddressIds = insert("address", "INSERT INTO address (id, street_name, building_number, " +
+                        "apartment_number, zip_code, city, user_id, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, 1)", addresses);
+                insert("cart_item", "INSERT INTO cart_item (id, cart_item_quantity, cart_id, product_id) VALUES (?, ?, ?, ?)", cartItems);
+                System.arraycopy(chunkUserIds, 0, userIds, first, chunkUserIds.length);
+                System.arraycopy(chunkAddressIds, 0, addressIds, first, chunkAddressIds.length);
+            });
+        }
+        return new Customers(userIds, addressIds);
+    }
+
+    private long generateOrders(SplittableRandom random, Catalog catalog, Customers customers, List<DeliveryOption> deliveries) {
+        long orderItems = 0;
+        for (int from = 0; from < settings.orders(); from += settings.batchSize()) {
+            int to = Math.min(from + settings.batchSize(), settings.orders());
+            List<Object[]> orders = new ArrayList<>(to - from);
+            List<List<long[]>> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int customer = random.nextInt(customers.userIds().length);
+                DeliveryOption delivery = deliveries.get(random.nextInt(deliveries.size()));
+                List<long[]> orderLines = new ArrayList<>();
+                double totalPrice = delivery.charge();
+                for (int productIndex : catalog.pickDistinct(random, 1 + random.nextInt(settings.maxOrderItems()))) {
+                    long quantity = 1 + random.nextInt(3);
+                    totalPrice += catalog.prices()[productIndex] * quantity;
+                    orderLines.add(new long[]{catalog.ids()[productIndex], quantity});
+                }
+                items.add(orderLines);
+                orders.add(new Object[]{Math.round(totalPrice * 100) / 100.0, date(random),
+                        PAYMENT_STATUSES[random.nextInt(PAYMENT_STATUSES.length)], ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)],
+                        customers.userIds()[customer], customers.addressIds()[customer], delivery.id()});
+            }
+            orderItems += transactionTemplate.execute(status -> {
+                long[] orderIds = insert("orders", "INSERT INTO orders (id, total_price, order_date, payment_status, " +
+                        "order_status, user_id, address_id, delivery_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", orders);
+                List<Object[]> rows = new ArrayList<>();
+                for (int i = 0; i < orderIds.length; i++) {
+                    for (long[] line : items.get(i)) {
+                        rows.add(new Object[]{line[1], orderIds[i], line[0]});
+                    }
+                }
+                insert("order_item", "INSERT INTO order_item (id, order_item_quantity, order_id, product_id) VALUES (?, ?, ?, ?)", rows);
+                return (long) rows.size();
+            });
+        }
+        return orderItems;
+    }
+
+    private long userRoleId() {
+        List<Long> roleIds = jdbcTemplate.queryForList("SELECT id FROM user_role WHERE name = ?", Long.class, USER_ROLE);
+        if (roleIds.isEmpty()) {
+            insert("user_role", "INSERT INTO user_role (id, name, description) VALUES (?, ?, ?)",
+                    List.<Object[]>of(new Object[]{USER_ROLE, "podstawowe uprawnienia"}));
+            return userRoleId();
+        }
+        return roleIds.get(0);
+    }
+
+    private List<DeliveryOption> deliveries() {
+        List<DeliveryOption> deliveries = jdbcTemplate.query("SELECT id, delivery_charge FROM delivery WHERE is_active = 1",
+                (resultSet, rowNumber) -> new DeliveryOption(resultSet.getLong("id"), resultSet.getDouble("delivery_charge")));
+        if (deliveries.isEmpty()) {
+            insert("delivery", "INSERT INTO delivery (id, delivery_name, delivery_time, delivery_charge, is_active) VALUES (?, ?, ?, ?, 1)",
+                    List.<Object[]>of(new Object[]{"Kurier", "1-2 dni robocze", 20.00}));
+            return deliveries();
+        }
+        return deliveries;
+    }
+
+    private long[] insert(String table, String sql, List<Object[]> rows) {
+        long[] ids = sequenceIdAllocator.allocate(table + "_seq", rows.size());
+        List<Object[]> rowsWithIds = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = new Object[rows.get(i).length + 1];
+            row[0] = ids[i];
+            System.arraycopy(rows.get(i), 0, row, 1, rows.get(i).length);
+            rowsWithIds.add(row);
+        }
+        jdbcTemplate.batchUpdate(sql, rowsWithIds);
+        return ids;
+    }
+
+    private static String description(SplittableRandom random, String kind) {
+        StringBuilder description = new StringBuilder(kind);
+        for (int i = 0; i < 8; i++) {
+            description.append(' ').append(DESCRIPTION_WORDS[random.nextInt(DESCRIPTION_WORDS.length)]);
+        }
+        return description.append('.').toString();
+    }
+
+    private static double price(SplittableRandom random, int min, int max) {
+        return Math.round(random.nextDouble(min, max) * 100) / 100.0;
+    }
+
+    private static LocalDateTime date(SplittableRandom random) {
+        return FIRST_DATE.plusMinutes(random.nextInt(DATE_RANGE_MINUTES));
+    }
+
+    private record Catalog(long[] ids, double[] prices, int[] hot, double hotTrafficShare) {
+
+        int[] pickDistinct(SplittableRandom random, int count) {
+            int[] picked = new int[Math.min(count, ids.length)];
+            for (int i = 0; i < picked.length; i++) {
+                int candidate = random.nextDouble() < hotTrafficShare ? hot[random.nextInt(hot.length)] : random.nextInt(ids.length);
+                while (contains(picked, i, candidate)) {
+                    candidate = random.nextInt(ids.length);
+                }
+                picked[i] = candidate;
+            }
+            return picked;
+        }
+
+        private static boolean contains(int[] values, int length, int value) {
+            for (int i = 0; i < length; i++) {
+                if (values[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Customers(long[] userIds, long[] addressIds) {
+    }
+
+    private record DeliveryOption(long id, double charge) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.apiecommerce.domain.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("datagen")
+public record DataGeneratorSettings(@DefaultValue("20") int categories,
+                                    @DefaultValue("100000") int products,
+                                    @DefaultValue("10000") int users,
+                                    @DefaultValue("50000") int orders,
+                                    @DefaultValue("5") int maxOrderItems,
+                                    @DefaultValue("3") int maxCartItems,
+                                    @DefaultValue("0.01") double hotProductRatio,
+                                    @DefaultValue("0.8") double hotTrafficShare,
+                                    @DefaultValue("1000") int batchSize,
+                                    @DefaultValue("42") long seed,
+                                    @DefaultValue("Loadtest123!") String userPassword,
+                                    @DefaultValue("false") boolean exitOnCompletion) {
+
+    public DataGeneratorSettings {
+        if (categories < 1 || products < 1 || users < 0 || orders < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("Data generator volumes must not be negative and need at least one category and product");
+        }
+        if (orders > 0 && users == 0) {
+            throw new IllegalArgumentException("Orders cannot be generated without users");
+        }
+        if (maxOrderItems < 1 || maxCartItems < 0) {
+            throw new IllegalArgumentException("Orders need at least one item");
+        }
+        if (hotProductRatio <= 0 || hotProductRatio > 1 || hotTrafficShare < 0 || hotTrafficShare > 1) {
+            throw new IllegalArgumentException("Hot product ratio and traffic share must be between 0 and 1");
+        }
+    }
+}
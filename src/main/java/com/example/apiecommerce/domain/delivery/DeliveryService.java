@@ -26,6 +26,7 @@ public class DeliveryService {
         return deliveryDtoMapper.map(savedDelivery);
     }
 
+    @Transactional(readOnly = true)
     public List<DeliveryDto> findAllActiveDeliveries(){
         return deliveryRepository.findAll()
                 .stream()
@@ -34,6 +35,7 @@ public class DeliveryService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public Optional<DeliveryDto> findDeliveryById(long id){
         Delivery delivery = deliveryRepository.findById(id).
                 orElseThrow(() -> new EntityNotFoundException("Delivery not found"));
@@ -0,0 +1,137 @@
+package com.example.apiecommerce.domain.inventory;
+
+import com.example.apiecommerce.domain.product.CatalogCache;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.product.ProductSearchIndex;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Component
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "database", matchIfMissing = true)
+public class DatabaseInventoryEngine implements InventoryEngine {
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogCache catalogCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseInventoryEngine(ProductRepository productRepository, ProductSearchIndex productSearchIndex,
+                                   CatalogCache catalogCache, JdbcTemplate jdbcTemplate) {
+        this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void reserve(long productId, long cartId, long heldQuantity, long reservedQuantity, LocalDateTime now) {
+        long quantityChange = reservedQuantity - heldQuantity;
+        if (quantityChange <= 0) {
+            release(productId, -quantityChange);
+            return;
+        }
+        if (holdQuantity(productId, quantityChange)) {
+            return;
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new EntityNotFoundException("Product not found");
+        }
+        createReservedTotal(productId);
+        if (!holdQuantity(productId, quantityChange)) {
+            throw new IllegalArgumentException("Not enough quantity in stock");
+        }
+    }
+
+    @Override
+    public void release(long productId, long quantity) {
+        if (quantity > 0) {
+            jdbcTemplate.update("UPDATE stock_reservation_total SET reserved_quantity = reserved_quantity - ? WHERE product_id = ?",
+                    quantity, productId);
+        }
+    }
+
+    @Override
+    public void sell(long cartId, Map<Long, Long> quantitiesByProduct, Map<Long, Long> heldByProduct, LocalDateTime now) {
+        if (!heldByProduct.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE stock_reservation_total SET reserved_quantity = reserved_quantity - ? WHERE product_id = ?",
+                    new TreeMap<>(heldByProduct).entrySet().stream()
+                            .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                            .toList());
+        }
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+        lockProducts(quantitiesByProduct.keySet());
+        if (productRepository.decreaseProductQuantityByCart(cartId, now) != quantitiesByProduct.size()) {
+            throw new IllegalArgumentException("Not enough quantity in stock");
+        }
+        quantitiesByProduct.forEach((productId, quantity) -> quantityChanged(productId, -quantity));
+    }
+
+    @Override
+    public void restock(Map<Long, Long> quantitiesByProduct) {
+        if (quantitiesByProduct.isEmpty()) {
+            return;
+        }
+        lockProducts(quantitiesByProduct.keySet());
+        Map<Long, Long> sortedQuantities = new TreeMap<>(quantitiesByProduct);
+        jdbcTemplate.batchUpdate("UPDATE product SET product_quantity = product_quantity + ?, version = version + 1 WHERE id = ?",
+                sortedQuantities.entrySet().stream()
+                        .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                        .toList());
+        sortedQuantities.forEach(this::quantityChanged);
+    }
+
+    @Override
+    public void quantityReplaced(long productId, long previousQuantity, long newQuantity) {
+    }
+
+    @Override
+    public void productDeleted(long productId) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileReservedTotals() {
+        jdbcTemplate.update("UPDATE stock_reservation_total SET reserved_quantity = COALESCE((SELECT SUM(r.quantity)" +
+                " FROM stock_reservation r WHERE r.product_id = stock_reservation_total.product_id), 0)");
+        jdbcTemplate.update("INSERT INTO stock_reservation_total (product_id, reserved_quantity)" +
+                " SELECT r.product_id, SUM(r.quantity) FROM stock_reservation r" +
+                " WHERE NOT EXISTS (SELECT 1 FROM stock_reservation_total t WHERE t.product_id = r.product_id)" +
+                " GROUP BY r.product_id");
+    }
+
+    private boolean holdQuantity(long productId, long quantity) {
+        return jdbcTemplate.update("UPDATE stock_reservation_total SET reserved_quantity = reserved_quantity + ?" +
+                " WHERE product_id = ? AND (SELECT p.product_quantity FROM product p WHERE p.id = ?) - reserved_quantity >= ?",
+                quantity, productId, productId, quantity) == 1;
+    }
+
+    private void createReservedTotal(long productId) {
+        try {
+            jdbcTemplate.update("INSERT INTO stock_reservation_total (product_id, reserved_quantity)" +
+                    " SELECT p.id, 0 FROM product p WHERE p.id = ?" +
+                    " AND NOT EXISTS (SELECT 1 FROM stock_reservation_total t WHERE t.product_id = p.id)", productId);
+        } catch (DuplicateKeyException ignored) {
+        }
+    }
+
+    private void lockProducts(Set<Long> productIds) {
+        if (productRepository.lockAllByIdInOrder(productIds).size() != productIds.size()) {
+            throw new EntityNotFoundException("Product not found");
+        }
+    }
+
+    private void quantityChanged(long productId, long quantityChange) {
+        productSearchIndex.adjustQuantity(productId, quantityChange);
+        catalogCache.evictProductQuantity(productId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.apiecommerce.domain.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface InventoryEngine {
+
+    void reserve(long productId, long cartId, long heldQuantity, long reservedQuantity, LocalDateTime now);
+
+    void release(long productId, long quantity);
+
+    void sell(long cartId, Map<Long, Long> quantitiesByProduct, Map<Long, Long> heldByProduct, LocalDateTime now);
+
+    void restock(Map<Long, Long> quantitiesByProduct);
+
+    void quantityReplaced(long productId, long previousQuantity, long newQuantity);
+
+    void productDeleted(long productId);
+}
@@ -0,0 +1,94 @@
+package com.example.apiecommerce.domain.inventory;
+
+import com.example.apiecommerce.domain.product.CatalogCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Component
+public class InventoryJournal {
+    private final Logger logger = LoggerFactory.getLogger(InventoryJournal.class);
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final int batchSize;
+
+    public InventoryJournal(DataSource dataSource, PlatformTransactionManager transactionManager, CatalogCache catalogCache,
+                            @Value("${inventory.flush-batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Flush batch size must not be less than one");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogCache = catalogCache;
+        this.batchSize = batchSize;
+    }
+
+    public void append(Map<Long, Long> deltasByProduct) {
+        jdbcTemplate.batchUpdate("INSERT INTO inventory_journal (product_id, delta) VALUES (?, ?)",
+                deltasByProduct.entrySet().stream()
+                        .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+                        .toList());
+    }
+
+    public Optional<Long> availableQuantity(long productId) {
+        return jdbcTemplate.query("SELECT p.product_quantity" +
+                        " + COALESCE((SELECT SUM(j.delta) FROM inventory_journal j WHERE j.product_id = p.id), 0)" +
+                        " - COALESCE((SELECT SUM(r.quantity) FROM stock_reservation r WHERE r.product_id = p.id), 0)" +
+                        " FROM product p WHERE p.id = ?",
+                (resultSet, rowNumber) -> resultSet.getLong(1), productId).stream().findFirst();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int applied = flush();
+        if (applied > 0) {
+            logger.info("Applied {} journaled inventory changes left by the previous run", applied);
+        }
+    }
+
+    public int flush() {
+        int applied = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> flushBatch());
+            applied += batch;
+        } while (batch == batchSize);
+        return applied;
+    }
+
+    private int flushBatch() {
+        List<JournalEntry> entries = jdbcTemplate.query("SELECT id, product_id, delta FROM inventory_journal ORDER BY id LIMIT ? FOR UPDATE",
+                (resultSet, rowNumber) -> new JournalEntry(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)),
+                batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> deltasByProduct = new TreeMap<>();
+        entries.forEach(entry -> deltasByProduct.merge(entry.productId(), entry.delta(), Long::sum));
+        jdbcTemplate.batchUpdate("UPDATE product SET product_quantity = product_quantity + ?, version = version + 1 WHERE id = ?",
+                deltasByProduct.entrySet().stream()
+                        .filter(entry -> entry.getValue() != 0)
+                        .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                        .toList());
+        jdbcTemplate.batchUpdate("DELETE FROM inventory_journal WHERE id = ?",
+                entries.stream().map(entry -> new Object[]{entry.id()}).toList());
+        deltasByProduct.keySet().forEach(catalogCache::evictProductQuantity);
+        return entries.size();
+    }
+
+    private record JournalEntry(long id, long productId, long delta) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.apiecommerce.domain.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class StripedCounter {
+    private static final int CELL_PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private volatile boolean indebted;
+
+    StripedCounter(long initialQuantity, int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two");
+        }
+        this.cells = new AtomicLongArray(stripes * CELL_PADDING);
+        this.mask = stripes - 1;
+        spread(initialQuantity);
+    }
+
+    boolean tryTake(long quantity) {
+        if (!indebted) {
+            int home = home();
+            for (int i = 0; i <= mask; i++) {
+                int cell = cell(home + i);
+                long current = cells.get(cell);
+                while (current >= quantity) {
+                    if (cells.compareAndSet(cell, current, current - quantity)) {
+                        return true;
+                    }
+                    current = cells.get(cell);
+                }
+            }
+        }
+        return rebalance(-quantity, false);
+    }
+
+    void add(long quantity) {
+        if (quantity >= 0 && !indebted) {
+            cells.getAndAdd(cell(home()), quantity);
+        } else {
+            rebalance(quantity, true);
+        }
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(cell(i));
+        }
+        return sum;
+    }
+
+    private synchronized boolean rebalance(long change, boolean allowDebt) {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.getAndSet(cell(i), 0);
+        }
+        boolean applied = allowDebt || total + change >= 0;
+        spread(applied ? total + change : total);
+        return applied;
+    }
+
+    private void spread(long total) {
+        indebted = total < 0;
+        if (total <= 0) {
+            cells.getAndAdd(cell(0), total);
+            return;
+        }
+        int stripes = mask + 1;
+        long share = total / stripes;
+        long remainder = total % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.getAndAdd(cell(i), share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    private int home() {
+        long threadId = Thread.currentThread().threadId();
+        return (int) (threadId ^ (threadId >>> 16));
+    }
+
+    private int cell(int stripe) {
+        return (stripe & mask) * CELL_PADDING;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.apiecommerce.domain.inventory;
+
+import com.example.apiecommerce.domain.product.CatalogCache;
+import com.example.apiecommerce.domain.product.ProductSearchIndex;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(name = "inventory.engine", havingValue = "striped")
+public class StripedInventoryEngine implements InventoryEngine {
+    private final Map<Long, StripedCounter> counters = new ConcurrentHashMap<>();
+    private final InventoryJournal inventoryJournal;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogCache catalogCache;
+    private final int stripes;
+
+    public StripedInventoryEngine(InventoryJournal inventoryJournal, ProductSearchIndex productSearchIndex, CatalogCache catalogCache,
+                                  @Value("${inventory.stripes:8}") int stripes) {
+        this.inventoryJournal = inventoryJournal;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void reserve(long productId, long cartId, long heldQuantity, long reservedQuantity, LocalDateTime now) {
+        adjust(productId, reservedQuantity - heldQuantity);
+    }
+
+    @Override
+    public void release(long productId, long quantity) {
+        adjust(productId, -quantity);
+    }
+
+    @Override
+    public void sell(long cartId, Map<Long, Long> quantitiesByProduct, Map<Long, Long> heldByProduct, LocalDateTime now) {
+        Map<Long, Long> deltasByProduct = new HashMap<>();
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            adjust(productId, quantity - heldByProduct.getOrDefault(productId, 0L));
+            deltasByProduct.put(productId, -quantity);
+        });
+        heldByProduct.forEach((productId, heldQuantity) -> {
+            if (!quantitiesByProduct.containsKey(productId)) {
+                adjust(productId, -heldQuantity);
+            }
+        });
+        inventoryJournal.append(deltasByProduct);
+        deltasByProduct.forEach(this::quantityChanged);
+    }
+
+    @Override
+    public void restock(Map<Long, Long> quantitiesByProduct) {
+        quantitiesByProduct.forEach((productId, quantity) -> adjust(productId, -quantity));
+        inventoryJournal.append(quantitiesByProduct);
+        quantitiesByProduct.forEach(this::quantityChanged);
+    }
+
+    @Override
+    public void quantityReplaced(long productId, long previousQuantity, long newQuantity) {
+        StripedCounter counter = counter(productId);
+        afterCommit(() -> counter.add(newQuantity - previousQuantity));
+    }
+
+    @Override
+    public void productDeleted(long productId) {
+        afterCommit(() -> counters.remove(productId));
+    }
+
+    @Scheduled(initialDelayString = "${inventory.flush-interval:PT1S}", fixedDelayString = "${inventory.flush-interval:PT1S}")
+    public void flush() {
+        inventoryJournal.flush();
+    }
+
+    long availableQuantity(long productId) {
+        return counter(productId).sum();
+    }
+
+    private void adjust(long productId, long quantityChange) {
+        StripedCounter counter = counter(productId);
+        if (quantityChange > 0) {
+            if (!counter.tryTake(quantityChange)) {
+                throw new IllegalArgumentException("Not enough quantity in stock");
+            }
+            onRollback(() -> counter.add(quantityChange));
+        } else if (quantityChange < 0) {
+            afterCommit(() -> counter.add(-quantityChange));
+        }
+    }
+
+    private StripedCounter counter(long productId) {
+        return counters.computeIfAbsent(productId, id -> new StripedCounter(inventoryJournal.availableQuantity(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found")), stripes));
+    }
+
+    private void quantityChanged(long productId, long quantityChange) {
+        productSearchIndex.adjustQuantity(productId, quantityChange);
+        catalogCache.evictProductQuantity(productId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void onRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+}
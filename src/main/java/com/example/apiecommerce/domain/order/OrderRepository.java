@@ -1,10 +1,34 @@
 package com.example.apiecommerce.domain.order;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends CrudRepository<Order, Long>, PagingAndSortingRepository<Order, Long> {
+    @EntityGraph(Order.FULL_VIEW_GRAPH)
     List<Order> findAllByUserId(long userId);
+
+    @EntityGraph(Order.FULL_VIEW_GRAPH)
+    Optional<Order> findFullViewById(long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateById(long id);
+
+    @Override
+    @EntityGraph(Order.SUMMARY_GRAPH)
+    Page<Order> findAll(Pageable pageable);
+
+    @EntityGraph(Order.SUMMARY_GRAPH)
+    Window<Order> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 }
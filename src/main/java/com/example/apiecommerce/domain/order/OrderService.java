@@ -1,40 +1,47 @@
 package com.example.apiecommerce.domain.order;
 
+import com.example.apiecommerce.domain.CursorSlice;
 import com.example.apiecommerce.domain.DateTimeProvider;
+import com.example.apiecommerce.domain.KeysetCursor;
 import com.example.apiecommerce.domain.address.Address;
 import com.example.apiecommerce.domain.address.AddressRepository;
 import com.example.apiecommerce.domain.cart.CartService;
 import com.example.apiecommerce.domain.cart.dto.CartDetailsDto;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemFullDto;
+import com.example.apiecommerce.domain.config.ReadFromPrimary;
+import com.example.apiecommerce.domain.config.RetryOnLockFailure;
 import com.example.apiecommerce.domain.delivery.Delivery;
 import com.example.apiecommerce.domain.delivery.DeliveryRepository;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
 import com.example.apiecommerce.domain.order.dto.OrderFullDto;
 import com.example.apiecommerce.domain.order.dto.OrderMainInfoDto;
 import com.example.apiecommerce.domain.orderItem.OrderItem;
 import com.example.apiecommerce.domain.orderItem.OrderItemRepository;
 import com.example.apiecommerce.domain.product.Product;
 import com.example.apiecommerce.domain.product.ProductRepository;
-import com.example.apiecommerce.domain.product.ProductService;
-import com.example.apiecommerce.domain.user.User;
-import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 
 @Service
 public class OrderService {
-    private final UserRepository userRepository;
+    private final UserIdentityService userIdentityService;
     private final CartService cartService;
     private final DateTimeProvider dateTimeProvider;
     private final AddressRepository addressRepository;
@@ -43,11 +50,12 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final DeliveryRepository deliveryRepository;
-    private final ProductService productService;
+    private final InventoryEngine inventoryEngine;
+    private final StockReservationService stockReservationService;
 
 
-    public OrderService(UserRepository userRepository, CartService cartService, DateTimeProvider dateTimeProvider, AddressRepository addressRepository, ProductRepository productRepository, OrderDtoMapper orderDtoMapper, OrderRepository orderRepository, OrderItemRepository orderItemRepository, DeliveryRepository deliveryRepository, ProductService productService) {
-        this.userRepository = userRepository;
+    public OrderService(UserIdentityService userIdentityService, CartService cartService, DateTimeProvider dateTimeProvider, AddressRepository addressRepository, ProductRepository productRepository, OrderDtoMapper orderDtoMapper, OrderRepository orderRepository, OrderItemRepository orderItemRepository, DeliveryRepository deliveryRepository, InventoryEngine inventoryEngine, StockReservationService stockReservationService) {
+        this.userIdentityService = userIdentityService;
         this.cartService = cartService;
         this.dateTimeProvider = dateTimeProvider;
         this.addressRepository = addressRepository;
@@ -56,12 +64,14 @@ public class OrderService {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
         this.deliveryRepository = deliveryRepository;
-        this.productService = productService;
+        this.inventoryEngine = inventoryEngine;
+        this.stockReservationService = stockReservationService;
     }
 
-    @Transactional
+    @RetryOnLockFailure
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public OrderFullDto createOrder(String userMail, long addressId, long deliveryId){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
         CartDetailsDto cart = cartService.findUserCart(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
@@ -70,14 +80,16 @@ public class OrderService {
         Delivery delivery = deliveryRepository.findById(deliveryId)
                 .orElseThrow(() -> new EntityNotFoundException("Delivery not found"));
 
-        if (!address.getUser().equals(user)){
+        if (!address.getUser().getId().equals(userIdentity.userId())){
             throw new IllegalArgumentException("Address not belong to the specified user");
         }
+        stockReservationService.checkout(userIdentity.cartId(), cart.getCartItems().stream()
+                .collect(Collectors.groupingBy(CartItemFullDto::getProductId, Collectors.summingLong(CartItemFullDto::getCartItemQuantity))));
 
         Order order = new Order();
         order.setTotalPrice(cart.getTotalCost() + delivery.getDeliveryCharge());
         order.setOrderDate(dateTimeProvider.getCurrentTime());
-        order.setUser(user);
+        order.setUser(address.getUser());
         order.setAddress(address);
         order.setPaymentStatus(PaymentStatus.PENDING);
         order.setOrderStatus(OrderStatus.NEW);
@@ -94,40 +106,57 @@ public class OrderService {
     private Set<OrderItem> getOrderItems(Order order, CartDetailsDto cart, Order savedOrder) {
         Set<OrderItem> orderItems = order.getOrderItems();
         List<CartItemFullDto> cartItems = cart.getCartItems();
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(cartItems.stream().map(CartItemFullDto::getProductId).toList())
+                .forEach(product -> products.put(product.getId(), product));
 
         for (CartItemFullDto cartItemFullDto : cartItems) {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrderItemQuantity(cartItemFullDto.getCartItemQuantity());
             orderItem.setOrder(savedOrder);
-            Product product = productRepository.findById(cartItemFullDto.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found"));
+            Product product = products.get(cartItemFullDto.getProductId());
+            if (product == null) {
+                throw new EntityNotFoundException("Product not found");
+            }
             orderItem.setProduct(product);
             orderItems.add(orderItem);
         }
         return orderItems;
     }
 
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public Optional<OrderFullDto> findOrderById(long orderId, String userMail){
-        User user = userRepository.findByEmail(userMail)
+        UserIdentity userIdentity = userIdentityService.findByEmail(userMail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findFullViewById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
-        if (!order.getUser().equals(user)){
+        if (!order.getUser().getId().equals(userIdentity.userId())){
             throw new IllegalArgumentException("This order belongs to another user");
         }
         return Optional.of(orderDtoMapper.map(order));
     }
 
+    @RetryOnLockFailure
     @Transactional
     public void deleteOrderById(long orderId){
-        Order orderToDelete = orderRepository.findById(orderId)
+        Order orderToDelete = orderRepository.findForUpdateById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
-        for (OrderItem orderItem : orderToDelete.getOrderItems()) {
-            productService.updateProductQuantityInDb(orderItem.getProduct().getId(), -orderItem.getOrderItemQuantity());
-        }
+        restockOrderedProducts(orderToDelete);
         orderRepository.delete(orderToDelete);
     }
 
+    private void restockOrderedProducts(Order order) {
+        Map<Long, Long> quantitiesByProduct = order.getOrderItems().stream()
+                .filter(orderItem -> orderItem.getOrderItemQuantity() > 0)
+                .collect(Collectors.groupingBy(orderItem -> orderItem.getProduct().getId(),
+                        Collectors.summingLong(OrderItem::getOrderItemQuantity)));
+        if (!quantitiesByProduct.isEmpty()) {
+            inventoryEngine.restock(quantitiesByProduct);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public Page<OrderMainInfoDto> findAllPaginatedOrders(int pageNumber, int pageSize, String sortField, String sortDirection){
         Sort sort = sortDirection.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
         List<String> allowedFields = List.of("orderDate", "orderTotalPrice", "userEmail", "userPhoneNumber");
@@ -140,9 +169,27 @@ public class OrderService {
                 .map(orderDtoMapper::mapToMainInfo);
     }
 
+    @Transactional(readOnly = true)
+    public CursorSlice<OrderMainInfoDto> findAllOrdersAfter(String afterCursor, int pageSize, String sortField, String sortDirection){
+        Map<String, String> allowedFields = Map.of("orderDate", "orderDate", "orderTotalPrice", "totalPrice");
+        if (!allowedFields.containsKey(sortField)) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortField);
+        }
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        String sortProperty = allowedFields.get(sortField);
+        Sort.Direction direction = sortDirection.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortProperty).and(Sort.by(direction, "id"));
+        Class<?> sortPropertyType = sortProperty.equals("orderDate") ? LocalDateTime.class : Double.class;
+        ScrollPosition position = KeysetCursor.decode(afterCursor, Map.of(sortProperty, sortPropertyType, "id", Long.class));
+        Window<Order> window = orderRepository.findAllBy(position, sort, Limit.of(pageSize));
+        return new CursorSlice<>(window.map(orderDtoMapper::mapToMainInfo).getContent(), pageSize, KeysetCursor.nextCursor(window));
+    }
+
     @Transactional
     public Optional<OrderFullDto> processPayment(long orderId){
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findFullViewById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
 
         boolean isPaymentSuccessful = new Random().nextBoolean();
@@ -151,19 +198,17 @@ public class OrderService {
         return Optional.of(orderDtoMapper.map(order));
     }
 
+    @RetryOnLockFailure
     @Transactional
     public void cancelOrderById(long orderId){
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findForUpdateById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found"));
         if (!order.getOrderStatus().equals(OrderStatus.NEW)){
             throw new IllegalArgumentException("Only status 'NEW' can be changed into 'CANCELLED'");
         }
 
-        for (OrderItem orderItem : order.getOrderItems()) {
-            Product product = orderItem.getProduct();
-            productService.updateProductQuantityInDb(product.getId(), -orderItem.getOrderItemQuantity());
-            orderItem.setOrderItemQuantity(0L);
-        }
+        restockOrderedProducts(order);
+        order.getOrderItems().forEach(orderItem -> orderItem.setOrderItemQuantity(0L));
         order.setOrderStatus(OrderStatus.CANCELLED);
     }
 
@@ -0,0 +1,216 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.config.ReadFromPrimary;
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+@Component
+public class CatalogCache {
+    private final TransactionOperations readTransaction;
+    private final boolean enabled;
+    private final AsyncCache<Long, ProductDto> products;
+    private final AsyncCache<CatalogQuery, CachedQuery> queries;
+
+    @Autowired
+    public CatalogCache(PlatformTransactionManager transactionManager,
+                        @Value("${catalog-cache.enabled:true}") boolean enabled,
+                        @Value("${catalog-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${catalog-cache.ttl:PT5M}") Duration ttl) {
+        this(readOnlyTransaction(transactionManager), enabled, maximumSize, ttl);
+    }
+
+    public CatalogCache(boolean enabled, long maximumSize, Duration ttl) {
+        this(TransactionOperations.withoutTransaction(), enabled, maximumSize, ttl);
+    }
+
+    private CatalogCache(TransactionOperations readTransaction, boolean enabled, long maximumSize, Duration ttl) {
+        this.readTransaction = readTransaction;
+        this.enabled = enabled;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    @ReadFromPrimary
+    public Optional<ProductDto> product(long productId, Supplier<Optional<ProductDto>> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        if (!enabled) {
+            return load(loader);
+        }
+        return Optional.ofNullable(cached(products, productId, () -> load(loader).orElse(null)));
+    }
+
+    @ReadFromPrimary
+    @SuppressWarnings("unchecked")
+    public <T> T query(CatalogQuery query, Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        if (!enabled) {
+            return load(loader);
+        }
+        return (T) cached(queries, query, () -> CachedQuery.of(load(loader))).value();
+    }
+
+    public void evictProduct(long productId) {
+        afterCompletion(() -> {
+            products.synchronous().invalidate(productId);
+            evictProductQueries(query -> true);
+        });
+    }
+
+    public void evictProductQuantity(long productId) {
+        afterCompletion(() -> {
+            products.synchronous().invalidate(productId);
+            evictProductQueries(entry -> entry.productIds().contains(productId));
+        });
+    }
+
+    public void evictProductQueries() {
+        afterCompletion(() -> evictProductQueries(query -> true));
+    }
+
+    public void evictCategories() {
+        afterCompletion(() -> queries.synchronous().invalidate(CatalogQuery.categories()));
+    }
+
+    public void evictAll() {
+        afterCompletion(() -> {
+            products.synchronous().invalidateAll();
+            queries.synchronous().invalidateAll();
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CacheStats productStats() {
+        return products.synchronous().stats();
+    }
+
+    public CacheStats queryStats() {
+        return queries.synchronous().stats();
+    }
+
+    private void evictProductQueries(Predicate<CachedQuery> affected) {
+        queries.synchronous().asMap().entrySet().removeIf(entry -> entry.getKey().isProductQuery()
+                && (entry.getKey().isSortedBy("productQuantity") || affected.test(entry.getValue())));
+    }
+
+    private static <K, V> V cached(AsyncCache<K, V> cache, K key, Supplier<V> loader) {
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> cached = cache.get(key, (k, executor) -> loading);
+        if (cached == loading) {
+            try {
+                loading.complete(loader.get());
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T load(Supplier<T> loader) {
+        return readTransaction.execute(status -> loader.get());
+    }
+
+    private static TransactionOperations readOnlyTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    private static void afterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    public record CatalogQuery(String type, String categoryName, int pageNumber, int pageSize, String sortField,
+                               String sortDirection) {
+        private static final String CATEGORIES = "categories";
+
+        public static CatalogQuery allProducts() {
+            return new CatalogQuery("products", null, 0, 0, null, null);
+        }
+
+        public static CatalogQuery productPage(int pageNumber, int pageSize, String sortField, String sortDirection) {
+            return new CatalogQuery("productPage", null, pageNumber, pageSize, sortField, sortDirection.toUpperCase(Locale.ROOT));
+        }
+
+        public static CatalogQuery categoryProductPage(String categoryName, int pageNumber, int pageSize, String sortField, String sortDirection) {
+            return new CatalogQuery("categoryProductPage", categoryName.toLowerCase(Locale.ROOT), pageNumber, pageSize,
+                    sortField, sortDirection.toUpperCase(Locale.ROOT));
+        }
+
+        public static CatalogQuery categories() {
+            return new CatalogQuery(CATEGORIES, null, 0, 0, null, null);
+        }
+
+        boolean isProductQuery() {
+            return !type.equals(CATEGORIES);
+        }
+
+        boolean isSortedBy(String field) {
+            return field.equals(sortField);
+        }
+    }
+
+    private record CachedQuery(Object value, Set<Long> productIds) {
+        static CachedQuery of(Object value) {
+            Set<Long> productIds = new HashSet<>();
+            if (value instanceof Iterable<?> elements) {
+                elements.forEach(element -> {
+                    if (element instanceof ProductDto productDto && productDto.getId() != null) {
+                        productIds.add(productDto.getId());
+                    }
+                });
+            }
+            return new CachedQuery(value, Set.copyOf(productIds));
+        }
+    }
+}
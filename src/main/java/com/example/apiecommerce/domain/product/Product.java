@@ -13,7 +13,8 @@ import java.util.Set;
 @Entity
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     private String productName;
     private double productPrice;
@@ -27,6 +28,8 @@ public class Product {
     private Set<CartItem> cartItems = new HashSet<>();
     @OneToMany(mappedBy = "product", cascade = CascadeType.REMOVE)
     private Set<OrderItem> orderItems = new HashSet<>();
+    @Version
+    private long version;
 
     public Product() {
     }
@@ -113,6 +116,14 @@ public class Product {
         this.orderItems = orderItems;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Product{" +
@@ -125,6 +136,7 @@ public class Product {
                 ", category=" + category +
                 ", cartItems=" + cartItems +
                 ", orderItems=" + orderItems +
+                ", version=" + version +
                 '}';
     }
 
@@ -31,6 +31,7 @@ class ProductDtoMapper {
         productDto.setProductQuantity(product.getProductQuantity());
         productDto.setCategoryId(product.getCategory().getId());
         productDto.setCategoryName(product.getCategory().getCategoryName());
+        productDto.setVersion(product.getVersion());
         return productDto;
     }
 
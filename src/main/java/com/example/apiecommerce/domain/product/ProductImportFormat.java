@@ -0,0 +1,6 @@
+package com.example.apiecommerce.domain.product;
+
+public enum ProductImportFormat {
+    CSV,
+    NDJSON
+}
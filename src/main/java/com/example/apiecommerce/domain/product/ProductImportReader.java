@@ -0,0 +1,269 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class ProductImportReader {
+    private static final Set<String> CSV_COLUMNS = Set.of("id", "productName", "productPrice", "description",
+            "productQuantity", "categoryId", "categoryName");
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("productName", "productPrice", "description", "productQuantity");
+
+    private final ProductImportFormat format;
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final int maxRowLength;
+    private Map<String, Integer> columns;
+    private long line = 1;
+    private boolean endOfInput;
+
+    ProductImportReader(ProductImportFormat format, Reader reader, ObjectMapper objectMapper, int maxRowLength) {
+        this.format = format;
+        this.reader = reader instanceof BufferedReader bufferedReader ? bufferedReader : new BufferedReader(reader);
+        this.objectMapper = objectMapper;
+        this.maxRowLength = maxRowLength;
+    }
+
+    ImportRow next() throws IOException {
+        if (format == ProductImportFormat.CSV && columns == null) {
+            readHeader();
+        }
+        while (!endOfInput) {
+            long rowLine = line;
+            Record record = format == ProductImportFormat.CSV ? readCsvRecord() : readNdjsonLine();
+            if (record == null) {
+                return null;
+            }
+            if (record.error() != null) {
+                return ImportRow.failed(rowLine, record.error());
+            }
+            if (record.isBlank()) {
+                continue;
+            }
+            try {
+                return ImportRow.of(rowLine, format == ProductImportFormat.CSV ? mapCsv(record.fields()) : mapJson(record.fields().get(0)));
+            } catch (IllegalArgumentException e) {
+                return ImportRow.failed(rowLine, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private void readHeader() throws IOException {
+        Record header = readCsvRecord();
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV header row is missing");
+        }
+        if (header.error() != null) {
+            throw new IllegalArgumentException("Invalid CSV header: " + header.error());
+        }
+        Map<String, Integer> headerColumns = new HashMap<>();
+        for (int i = 0; i < header.fields().size(); i++) {
+            String column = header.fields().get(i).strip();
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + column);
+            }
+            if (headerColumns.put(column, i) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column: " + column);
+            }
+        }
+        for (String column : REQUIRED_CSV_COLUMNS) {
+            if (!headerColumns.containsKey(column)) {
+                throw new IllegalArgumentException("Missing CSV column: " + column);
+            }
+        }
+        if (!headerColumns.containsKey("categoryId") && !headerColumns.containsKey("categoryName")) {
+            throw new IllegalArgumentException("Missing CSV column: categoryId or categoryName");
+        }
+        columns = headerColumns;
+    }
+
+    private ProductDto mapCsv(List<String> fields) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + fields.size());
+        }
+        ProductDto productDto = new ProductDto();
+        String id = cell(fields, "id");
+        if (id != null) {
+            productDto.setId(parseLong("id", id));
+        }
+        productDto.setProductName(cell(fields, "productName"));
+        String productPrice = cell(fields, "productPrice");
+        if (productPrice != null) {
+            productDto.setProductPrice(parseDouble(productPrice));
+        }
+        productDto.setDescription(cell(fields, "description"));
+        String productQuantity = cell(fields, "productQuantity");
+        if (productQuantity != null) {
+            productDto.setProductQuantity(parseLong("productQuantity", productQuantity));
+        }
+        String categoryId = cell(fields, "categoryId");
+        if (categoryId != null) {
+            productDto.setCategoryId(parseLong("categoryId", categoryId));
+        }
+        productDto.setCategoryName(cell(fields, "categoryName"));
+        return productDto;
+    }
+
+    private ProductDto mapJson(String json) {
+        try {
+            ProductDto productDto = objectMapper.readValue(json, ProductDto.class);
+            if (productDto == null) {
+                throw new IllegalArgumentException("Row is not a JSON object");
+            }
+            return productDto;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String cell(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isBlank() ? null : value;
+    }
+
+    private static long parseLong(String column, String value) {
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + column + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for productPrice: " + value);
+        }
+    }
+
+    private Record readNdjsonLine() throws IOException {
+        StringBuilder text = new StringBuilder();
+        boolean tooLong = false;
+        int c = reader.read();
+        if (c == -1) {
+            endOfInput = true;
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (text.length() < maxRowLength) {
+                text.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = reader.read();
+        }
+        if (c == -1) {
+            endOfInput = true;
+        }
+        line++;
+        if (tooLong) {
+            return Record.failed("Row is longer than " + maxRowLength + " characters");
+        }
+        return Record.of(List.of(text.toString().strip()));
+    }
+
+    private Record readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int c = reader.read();
+        if (c == -1) {
+            endOfInput = true;
+            return null;
+        }
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+            if (++length > maxRowLength) {
+                field.setLength(0);
+                fields.clear();
+            }
+            c = reader.read();
+        }
+        if (c == -1) {
+            endOfInput = true;
+        }
+        line++;
+        if (length > maxRowLength) {
+            return Record.failed("Row is longer than " + maxRowLength + " characters");
+        }
+        if (quoted) {
+            return Record.failed("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return Record.of(fields);
+    }
+
+    record ImportRow(long line, ProductDto product, String error) {
+        static ImportRow of(long line, ProductDto product) {
+            return new ImportRow(line, product, null);
+        }
+
+        static ImportRow failed(long line, String error) {
+            return new ImportRow(line, null, error);
+        }
+    }
+
+    private record Record(List<String> fields, String error) {
+        static Record of(List<String> fields) {
+            return new Record(fields, null);
+        }
+
+        static Record failed(String error) {
+            return new Record(List.of(), error);
+        }
+
+        boolean isBlank() {
+            return fields.stream().allMatch(String::isBlank);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.DateTimeProvider;
+import com.example.apiecommerce.domain.SequenceIdAllocator;
+import com.example.apiecommerce.domain.category.Category;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.example.apiecommerce.domain.product.dto.ProductImportReport;
+import com.example.apiecommerce.domain.product.dto.ProductImportReport.RowError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService {
+    private final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+    private static final String PRODUCT_SEQUENCE = "product_seq";
+    private static final String INSERT_PRODUCT = "INSERT INTO product (id, product_name, product_price, description, " +
+            "creation_date, product_quantity, category_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_PRODUCT = "UPDATE product SET product_name = ?, product_price = ?, description = ?, " +
+            "product_quantity = ?, category_id = ?, version = version + 1 WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceIdAllocator sequenceIdAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final InventoryEngine inventoryEngine;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogCache catalogCache;
+    private final DateTimeProvider dateTimeProvider;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final int maxRowLength;
+
+    public ProductImportService(DataSource dataSource, PlatformTransactionManager transactionManager, CategoryRepository categoryRepository,
+                                InventoryEngine inventoryEngine, ProductSearchIndex productSearchIndex, CatalogCache catalogCache,
+                                DateTimeProvider dateTimeProvider, Validator validator, ObjectMapper objectMapper,
+                                @Value("${product-import.batch-size:500}") int batchSize,
+                                @Value("${product-import.max-reported-errors:1000}") int maxReportedErrors,
+                                @Value("${product-import.max-row-length:65536}") int maxRowLength) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must not be less than one");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.sequenceIdAllocator = new SequenceIdAllocator(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.categoryRepository = categoryRepository;
+        this.inventoryEngine = inventoryEngine;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
+        this.dateTimeProvider = dateTimeProvider;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxRowLength = maxRowLength;
+    }
+
+    public ProductImportReport importProducts(Reader input, ProductImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        Categories categories = loadCategories();
+        ProductImportReader reader = new ProductImportReader(format, input, objectMapper, maxRowLength);
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        Set<Long> batchIds = new HashSet<>();
+        ProductImportReader.ImportRow row;
+        while ((row = reader.next()) != null) {
+            progress.processed++;
+            if (row.error() != null) {
+                progress.fail(row.line(), row.error());
+                continue;
+            }
+            String violations = validate(row.product());
+            if (violations != null) {
+                progress.fail(row.line(), violations);
+                continue;
+            }
+            Category category;
+            try {
+                category = categories.resolve(row.product());
+            } catch (IllegalArgumentException e) {
+                progress.fail(row.line(), e.getMessage());
+                continue;
+            }
+            Long productId = row.product().getId();
+            if (productId != null && !batchIds.add(productId)) {
+                progress.apply(writeBatch(batch));
+                batch.clear();
+                batchIds.clear();
+                batchIds.add(productId);
+            }
+            batch.add(new PendingRow(row.line(), row.product(), category));
+            if (batch.size() == batchSize) {
+                progress.apply(writeBatch(batch));
+                batch.clear();
+                batchIds.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            progress.apply(writeBatch(batch));
+        }
+        ProductImportReport report = progress.report();
+        logger.info("Imported products from {}: {} inserted, {} updated, {} rejected in {} ms", format, report.getInsertedRows(),
+                report.getUpdatedRows(), report.getFailedRows(), (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private Categories loadCategories() {
+        Map<Long, Category> byId = new HashMap<>();
+        Map<String, List<Category>> byName = new HashMap<>();
+        categoryRepository.findAll().forEach(category -> {
+            byId.put(category.getId(), category);
+            byName.computeIfAbsent(category.getCategoryName().toLowerCase(Locale.ROOT), name -> new ArrayList<>()).add(category);
+        });
+        return new Categories(byId, byName);
+    }
+
+    private String validate(ProductDto productDto) {
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(productDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private BatchResult writeBatch(List<PendingRow> batch) {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<PendingRow> updates = batch.stream()
+                        .filter(row -> row.product().getId() != null)
+                        .sorted(Comparator.comparing(row -> row.product().getId()))
+                        .toList();
+                List<PendingRow> inserts = batch.stream()
+                        .filter(row -> row.product().getId() == null)
+                        .toList();
+                List<RowError> errors = new ArrayList<>();
+                int updated = updateProducts(updates, errors);
+                insertProducts(inserts);
+                return new BatchResult(inserts.size(), updated, errors);
+            });
+        } catch (DataAccessException e) {
+            logger.warn("Product import batch of {} rows failed: {}", batch.size(), e.getMostSpecificCause().getMessage());
+            String message = "Batch could not be written: " + e.getMostSpecificCause().getMessage();
+            return new BatchResult(0, 0, batch.stream().map(row -> new RowError(row.line(), message)).toList());
+        }
+    }
+
+    private int updateProducts(List<PendingRow> updates, List<RowError> errors) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        Map<Long, ExistingProduct> existingProducts = lockProducts(updates.stream().map(row -> row.product().getId()).toList());
+        List<PendingRow> found = new ArrayList<>();
+        for (PendingRow row : updates) {
+            if (existingProducts.containsKey(row.product().getId())) {
+                found.add(row);
+            } else {
+                errors.add(new RowError(row.line(), "Product not found"));
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_PRODUCT, found.stream()
+                .map(row -> new Object[]{row.product().getProductName(), row.product().getProductPrice(), row.product().getDescription(),
+                        row.product().getProductQuantity(), row.category().getId(), row.product().getId()})
+                .toList());
+        for (PendingRow row : found) {
+            long productId = row.product().getId();
+            ExistingProduct existingProduct = existingProducts.get(productId);
+            inventoryEngine.quantityReplaced(productId, existingProduct.productQuantity(), row.product().getProductQuantity());
+            productSearchIndex.index(row.toProduct(productId, existingProduct.creationDate()));
+            catalogCache.evictProduct(productId);
+        }
+        return found.size();
+    }
+
+    private Map<Long, ExistingProduct> lockProducts(List<Long> productIds) {
+        String placeholders = String.join(", ", Collections.nCopies(productIds.size(), "?"));
+        Map<Long, ExistingProduct> existingProducts = new HashMap<>();
+        jdbcTemplate.query("SELECT id, product_quantity, creation_date FROM product WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                (RowCallbackHandler) resultSet -> existingProducts.put(resultSet.getLong(1),
+                        new ExistingProduct(resultSet.getLong(2), resultSet.getObject(3, LocalDateTime.class))),
+                productIds.toArray());
+        return existingProducts;
+    }
+
+    private void insertProducts(List<PendingRow> inserts) {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = dateTimeProvider.getCurrentTime();
+        long[] productIds = sequenceIdAllocator.allocate(PRODUCT_SEQUENCE, inserts.size());
+        List<Object[]> rows = new ArrayList<>(inserts.size());
+        for (int i = 0; i < inserts.size(); i++) {
+            ProductDto product = inserts.get(i).product();
+            rows.add(new Object[]{productIds[i], product.getProductName(), product.getProductPrice(), product.getDescription(), now,
+                    product.getProductQuantity(), inserts.get(i).category().getId()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows);
+        for (int i = 0; i < inserts.size(); i++) {
+            productSearchIndex.index(inserts.get(i).toProduct(productIds[i], now));
+        }
+        catalogCache.evictProductQueries();
+    }
+
+    private record Categories(Map<Long, Category> byId, Map<String, List<Category>> byName) {
+        Category resolve(ProductDto productDto) {
+            String categoryName = productDto.getCategoryName();
+            if (productDto.getCategoryId() != 0) {
+                Category category = byId.get(productDto.getCategoryId());
+                if (category == null || (categoryName != null && !category.getCategoryName().equalsIgnoreCase(categoryName))) {
+                    throw new IllegalArgumentException("Category not found");
+                }
+                return category;
+            }
+            List<Category> named = categoryName == null ? List.of() : byName.getOrDefault(categoryName.toLowerCase(Locale.ROOT), List.of());
+            if (named.isEmpty()) {
+                throw new IllegalArgumentException("Category not found");
+            }
+            if (named.size() > 1) {
+                throw new IllegalArgumentException("Category name " + categoryName + " is ambiguous, use categoryId");
+            }
+            return named.get(0);
+        }
+    }
+
+    private record PendingRow(long line, ProductDto product, Category category) {
+        Product toProduct(long productId, LocalDateTime creationDate) {
+            return new Product(productId, product.getProductName(), product.getProductPrice(), product.getDescription(),
+                    creationDate, product.getProductQuantity(), category);
+        }
+    }
+
+    private record ExistingProduct(long productQuantity, LocalDateTime creationDate) {
+    }
+
+    private record BatchResult(int inserted, int updated, List<RowError> errors) {
+    }
+
+    private static final class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<RowError> errors = new ArrayList<>();
+        private long processed;
+        private long inserted;
+        private long updated;
+        private long failed;
+
+        ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        void apply(BatchResult result) {
+            inserted += result.inserted();
+            updated += result.updated();
+            result.errors().forEach(error -> fail(error.line(), error.message()));
+        }
+
+        ProductImportReport report() {
+            errors.sort(Comparator.comparingLong(RowError::line));
+            return new ProductImportReport(processed, inserted, updated, failed, errors);
+        }
+    }
+}
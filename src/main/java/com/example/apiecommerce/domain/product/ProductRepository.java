@@ -1,23 +1,69 @@
 package com.example.apiecommerce.domain.product;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends CrudRepository<Product, Long>, PagingAndSortingRepository<Product, Long> {
     Page<Product> findAllByCategory_CategoryNameIgnoreCase(String categoryName, Pageable pageable);
 
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findAllByCategory_CategoryNameIgnoreCase(String categoryName, ScrollPosition position, Sort sort, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p JOIN FETCH p.category ORDER BY p.id")
+    Stream<Product> streamAllBy();
+
     @Query("SELECT p FROM Product p JOIN FETCH p.cartItems ci WHERE ci.id = :id")
     Optional<Product> getProductByCartItemId(@Param("id") long id);
 
-    @Query("SELECT p FROM Product p WHERE " +
-            "LOWER(p.productName) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-            "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-            "LOWER(p.category.categoryName) LIKE LOWER(CONCAT('%', :searchText, '%'))")
-    Page<Product> findProductsBySearchText(@Param("searchText") String searchText, Pageable pageable);
+    void flush();
+
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.version = p.version + 1 WHERE p.category.id = :categoryId")
+    int incrementVersionByCategoryId(@Param("categoryId") long categoryId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Long> lockAllByIdInOrder(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.productQuantity = p.productQuantity - " +
+            "(SELECT SUM(ci.cartItemQuantity) FROM CartItem ci WHERE ci.cart.id = :cartId AND ci.product.id = p.id), " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id IN (SELECT line.product.id FROM CartItem line WHERE line.cart.id = :cartId) " +
+            "AND p.productQuantity - COALESCE((SELECT SUM(r.quantity) FROM StockReservation r " +
+            "WHERE r.productId = p.id AND r.cartId <> :cartId AND r.expiresAt > :now), 0) " +
+            ">= (SELECT SUM(item.cartItemQuantity) FROM CartItem item WHERE item.cart.id = :cartId AND item.product.id = p.id)")
+    int decreaseProductQuantityByCart(@Param("cartId") long cartId, @Param("now") LocalDateTime now);
 }
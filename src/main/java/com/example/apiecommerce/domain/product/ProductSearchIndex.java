@@ -0,0 +1,278 @@
+package com.example.apiecommerce.domain.product;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class ProductSearchIndex {
+    private final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    static final String RELEVANCE = "relevance";
+
+    private final ProductRepository productRepository;
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, ProductDocument> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductSearchIndex(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProductDocument> loaded = new ArrayList<>();
+        Page<Product> page = productRepository.findAll(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+        page.forEach(product -> loaded.add(ProductDocument.of(product)));
+        while (page.hasNext()) {
+            page = productRepository.findAll(page.nextPageable());
+            page.forEach(product -> loaded.add(ProductDocument.of(product)));
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            loaded.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built with {} products and {} terms", loaded.size(), postings.size());
+    }
+
+    public void index(Product product) {
+        ProductDocument document = ProductDocument.of(product);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(document.id());
+                put(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void adjustQuantity(long productId, long quantityChange) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ProductDocument document = documents.get(productId);
+                if (document != null) {
+                    documents.put(productId, document.withProductQuantity(document.productQuantity() + quantityChange));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void delete(long productId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void renameCategory(long categoryId, String categoryName) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                documents.values().stream()
+                        .filter(document -> document.categoryId() == categoryId)
+                        .toList()
+                        .forEach(document -> {
+                            remove(document.id());
+                            put(document.withCategoryName(categoryName));
+                        });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void deleteCategory(long categoryId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                documents.values().stream()
+                        .filter(document -> document.categoryId() == categoryId)
+                        .map(ProductDocument::id)
+                        .toList()
+                        .forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Page<Long> search(String searchText, Pageable pageable) {
+        List<String> queryTokens = tokenize(searchText);
+        if (queryTokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String queryToken : queryTokens) {
+                Map<Long, Integer> tokenScores = scoreToken(queryToken);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+            }
+            Map<Long, Integer> matches = scores;
+            List<Long> sortedIds = matches.keySet().stream()
+                    .sorted(comparator(pageable.getSort(), matches))
+                    .toList();
+            int from = (int) Math.min(pageable.getOffset(), sortedIds.size());
+            int to = Math.min(from + pageable.getPageSize(), sortedIds.size());
+            return new PageImpl<>(sortedIds.subList(from, to), pageable, sortedIds.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('ł', 'l')
+                .replace('Ł', 'L')
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(TOKEN_SEPARATOR.split(folded))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private Map<Long, Integer> scoreToken(String queryToken) {
+        Map<Long, Integer> tokenScores = new HashMap<>();
+        postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false)
+                .forEach((term, termPostings) -> {
+                    boolean exactMatch = term.equals(queryToken);
+                    termPostings.forEach((id, weight) ->
+                            tokenScores.merge(id, exactMatch ? weight * 2 : weight, Math::max));
+                });
+        return tokenScores;
+    }
+
+    private Comparator<Long> comparator(Sort sort, Map<Long, Integer> scores) {
+        Comparator<Long> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Long> next = switch (order.getProperty()) {
+                case RELEVANCE -> Comparator.<Long, Integer>comparing(scores::get).reversed();
+                case "id" -> direction(Comparator.naturalOrder(), order);
+                case "productName" -> direction(Comparator.comparing(id -> documents.get(id).productName(),
+                        Comparator.nullsFirst(Comparator.naturalOrder())), order);
+                case "productPrice" -> direction(Comparator.comparingDouble(id -> documents.get(id).productPrice()), order);
+                case "creationDate" -> direction(Comparator.comparing(id -> documents.get(id).creationDate(),
+                        Comparator.nullsFirst(Comparator.naturalOrder())), order);
+                case "productQuantity" -> direction(Comparator.comparingLong(id -> documents.get(id).productQuantity()), order);
+                default -> throw new IllegalArgumentException("Invalid sort field: " + order.getProperty());
+            };
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Long> byId = Comparator.naturalOrder();
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static Comparator<Long> direction(Comparator<Long> comparator, Sort.Order order) {
+        return order.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private void put(ProductDocument document) {
+        documents.put(document.id(), document);
+        document.termWeights().forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(document.id(), weight));
+    }
+
+    private void remove(long productId) {
+        ProductDocument document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        document.termWeights().keySet().forEach(term -> {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record ProductDocument(long id, String productName, double productPrice, LocalDateTime creationDate,
+                                   long productQuantity, long categoryId, String categoryName, String description,
+                                   Map<String, Integer> termWeights) {
+
+        static ProductDocument of(Product product) {
+            return create(product.getId(), product.getProductName(), product.getProductPrice(), product.getCreationDate(),
+                    product.getProductQuantity(), product.getCategory().getId(), product.getCategory().getCategoryName(),
+                    product.getDescription());
+        }
+
+        ProductDocument withProductQuantity(long productQuantity) {
+            return new ProductDocument(id, productName, productPrice, creationDate, productQuantity, categoryId,
+                    categoryName, description, termWeights);
+        }
+
+        ProductDocument withCategoryName(String categoryName) {
+            return create(id, productName, productPrice, creationDate, productQuantity, categoryId, categoryName, description);
+        }
+
+        private static ProductDocument create(long id, String productName, double productPrice, LocalDateTime creationDate,
+                                              long productQuantity, long categoryId, String categoryName, String description) {
+            Map<String, Integer> termWeights = new HashMap<>();
+            tokenize(description).forEach(term -> termWeights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+            tokenize(categoryName).forEach(term -> termWeights.merge(term, CATEGORY_WEIGHT, Integer::sum));
+            tokenize(productName).forEach(term -> termWeights.merge(term, NAME_WEIGHT, Integer::sum));
+            return new ProductDocument(id, productName, productPrice, creationDate, productQuantity, categoryId,
+                    categoryName, description, Map.copyOf(termWeights));
+        }
+    }
+}
@@ -1,34 +1,56 @@
 package com.example.apiecommerce.domain.product;
 
+import com.example.apiecommerce.domain.CursorSlice;
 import com.example.apiecommerce.domain.DateTimeProvider;
+import com.example.apiecommerce.domain.KeysetCursor;
 import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
 import com.example.apiecommerce.domain.product.dto.ProductDto;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 @Service
 public class ProductService {
+    private static final Map<String, Class<?>> SCROLL_SORT_FIELDS = Map.of(
+            "productName", String.class,
+            "productPrice", Double.class,
+            "productQuantity", Long.class,
+            "creationDate", LocalDateTime.class,
+            "id", Long.class);
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductDtoMapper productDtoMapper;
     private final DateTimeProvider dateTimeProvider;
+    private final ProductSearchIndex productSearchIndex;
+    private final CatalogCache catalogCache;
+    private final InventoryEngine inventoryEngine;
+    private final EntityManager entityManager;
 
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, ProductDtoMapper productDtoMapper, DateTimeProvider dateTimeProvider) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository, ProductDtoMapper productDtoMapper, DateTimeProvider dateTimeProvider, ProductSearchIndex productSearchIndex, CatalogCache catalogCache, InventoryEngine inventoryEngine, EntityManager entityManager) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.productDtoMapper = productDtoMapper;
         this.dateTimeProvider = dateTimeProvider;
+        this.productSearchIndex = productSearchIndex;
+        this.catalogCache = catalogCache;
+        this.inventoryEngine = inventoryEngine;
+        this.entityManager = entityManager;
     }
 
     @Transactional
@@ -37,35 +59,94 @@ public class ProductService {
         productDto.setCreationDate(now);
         Product productToSave = productDtoMapper.map(productDto);
         Product savedProduct = productRepository.save(productToSave);
+        productSearchIndex.index(savedProduct);
+        catalogCache.evictProductQueries();
         return productDtoMapper.map(savedProduct);
     }
 
     public List<ProductDto> findAllProducts(){
-        return StreamSupport.stream(productRepository.findAll().spliterator(), false)
-                .map(productDtoMapper::map)
-                .toList();
+        return catalogCache.query(CatalogCache.CatalogQuery.allProducts(), () ->
+                StreamSupport.stream(productRepository.findAll().spliterator(), false)
+                        .map(productDtoMapper::map)
+                        .toList());
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAllProducts(Consumer<ProductDto> consumer){
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            products.forEach(product -> {
+                consumer.accept(productDtoMapper.map(product));
+                entityManager.detach(product);
+            });
+        }
     }
 
     public Page<ProductDto>findAllPaginatedProducts(int pageNumber, int pageSize, String sortField, String sortDirection){
         Sort sort = sortDirection.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
         Pageable pageable = PageRequest.of(pageNumber -1, pageSize, sort);
-        return productRepository.findAll(pageable)
-                .map(productDtoMapper::map);
+        return catalogCache.query(CatalogCache.CatalogQuery.productPage(pageNumber, pageSize, sortField, sortDirection), () ->
+                productRepository.findAll(pageable)
+                        .map(productDtoMapper::map));
     }
 
     public Page<ProductDto> findProductsFromCategoryPaginated(int pageNumber, int pageSize, String sortField, String sortDirection, String categoryName){
+        Sort sort = sortDirection.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
+        Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, sort);
+        return catalogCache.query(CatalogCache.CatalogQuery.categoryProductPage(categoryName, pageNumber, pageSize, sortField, sortDirection), () -> {
+            if (!categoryRepository.existsCategoryByCategoryNameIgnoreCase(categoryName)){
+                throw new EntityNotFoundException("Category not found");
+            }
+            return productRepository.findAllByCategory_CategoryNameIgnoreCase(categoryName, pageable)
+                    .map(productDtoMapper::map);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<ProductDto> findAllProductsAfter(String afterCursor, int pageSize, String sortField, String sortDirection){
+        Sort sort = scrollSort(sortField, sortDirection);
+        ScrollPosition position = KeysetCursor.decode(afterCursor, scrollKeyTypes(sortField));
+        Window<Product> window = productRepository.findAllBy(position, sort, scrollLimit(pageSize));
+        return new CursorSlice<>(window.map(productDtoMapper::map).getContent(), pageSize, KeysetCursor.nextCursor(window));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorSlice<ProductDto> findProductsFromCategoryAfter(String afterCursor, int pageSize, String sortField, String sortDirection, String categoryName){
         if (!categoryRepository.existsCategoryByCategoryNameIgnoreCase(categoryName)){
             throw new EntityNotFoundException("Category not found");
         }
+        Sort sort = scrollSort(sortField, sortDirection);
+        ScrollPosition position = KeysetCursor.decode(afterCursor, scrollKeyTypes(sortField));
+        Window<Product> window = productRepository.findAllByCategory_CategoryNameIgnoreCase(categoryName, position, sort, scrollLimit(pageSize));
+        return new CursorSlice<>(window.map(productDtoMapper::map).getContent(), pageSize, KeysetCursor.nextCursor(window));
+    }
+
+    private Sort scrollSort(String sortField, String sortDirection) {
+        if (!SCROLL_SORT_FIELDS.containsKey(sortField)) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortField);
+        }
         Sort sort = sortDirection.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
-        Pageable pageable = PageRequest.of(pageNumber - 1, pageSize, sort);
-        return productRepository.findAllByCategory_CategoryNameIgnoreCase(categoryName, pageable)
-                .map(productDtoMapper::map);
+        return sortField.equals("id") ? sort : sort.and(Sort.by(sort.getOrderFor(sortField).getDirection(), "id"));
+    }
+
+    private Limit scrollLimit(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        return Limit.of(pageSize);
+    }
+
+    private Map<String, Class<?>> scrollKeyTypes(String sortField) {
+        return sortField.equals("id") ? Map.of("id", Long.class) : Map.of(sortField, SCROLL_SORT_FIELDS.get(sortField), "id", Long.class);
     }
 
     public Optional<ProductDto> findProductById(long productId){
-        return productRepository.findById(productId)
-                .map(productDtoMapper::map);
+        return catalogCache.product(productId, () -> productRepository.findById(productId)
+                .map(productDtoMapper::map));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> findProductVersion(long productId){
+        return productRepository.findVersionById(productId);
     }
 
     @Transactional
@@ -74,21 +155,32 @@ public class ProductService {
             throw new EntityNotFoundException("Product not found");
         }
         productRepository.deleteById(productId);
+        inventoryEngine.productDeleted(productId);
+        productSearchIndex.delete(productId);
+        catalogCache.evictProduct(productId);
     }
 
     @Transactional
-    public Optional<ProductDto> replaceProduct(long productId, ProductDto productDto) {
-        return productRepository.findById(productId).map(existingProduct -> {
+    public Optional<ProductDto> replaceProduct(long productId, ProductDto productDto, Long expectedVersion) {
+        return productRepository.findByIdForUpdate(productId).map(existingProduct -> {
+            if (expectedVersion != null && existingProduct.getVersion() != expectedVersion) {
+                throw new ObjectOptimisticLockingFailureException(Product.class, productId);
+            }
             existingProduct.setProductName(productDto.getProductName());
             existingProduct.setProductPrice(productDto.getProductPrice());
             existingProduct.setDescription(productDto.getDescription());
+            inventoryEngine.quantityReplaced(productId, existingProduct.getProductQuantity(), productDto.getProductQuantity());
             existingProduct.setProductQuantity(productDto.getProductQuantity());
             existingProduct.setCategory(categoryRepository.findById(productDto.getCategoryId())
                     .orElseThrow(() -> new EntityNotFoundException("Category not found")));
+            productRepository.flush();
+            productSearchIndex.index(existingProduct);
+            catalogCache.evictProduct(productId);
             return productDtoMapper.map(existingProduct);
         });
     }
 
+    @Transactional(readOnly = true)
     public Optional<Long> countQuantityOfProduct(long productId){
         if (!productRepository.existsById(productId)){
             return Optional.empty();
@@ -96,40 +188,21 @@ public class ProductService {
         return productRepository.findById(productId).map(Product::getProductQuantity);
     }
 
-    @Transactional
-    public void reduceProductQuantityInDbByOne(long productId){
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        if (product.getProductQuantity() < 1){
-            throw new IllegalArgumentException("Product is unavailable");
-        }
-        product.setProductQuantity(product.getProductQuantity() - 1);
-    }
-
-    @Transactional
-    public void increaseProductQuantityInDbByOne(long productId){
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        product.setProductQuantity(product.getProductQuantity() + 1);
-    }
-
-    @Transactional
-    public void updateProductQuantityInDb(long productId, long quantityToChange){
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found"));
-        if (quantityToChange == 0) {
-            return;
-        }
-        if (product.getProductQuantity() < quantityToChange){
-            throw new IllegalArgumentException("Not enough quantity in stock");
-        }
-        product.setProductQuantity(product.getProductQuantity() - quantityToChange);
-    }
-
+    @Transactional(readOnly = true)
     public Page<ProductDto>findProductsByTextPaginated(String searchText, int pageNumber, int pageSize, String sortField, String sortDirection){
         Sort sort = sortDirection.equalsIgnoreCase(Sort.Direction.ASC.name()) ? Sort.by(sortField).ascending() : Sort.by(sortField).descending();
         Pageable pageable = PageRequest.of(pageNumber -1, pageSize, sort);
-        return productRepository.findProductsBySearchText(searchText, pageable)
-                .map(productDtoMapper::map);
+        Page<Long> productIds = productSearchIndex.search(searchText, pageable);
+        if (productIds.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Map<Long, Product> productsById = StreamSupport.stream(productRepository.findAllById(productIds.getContent()).spliterator(), false)
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDto> products = productIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .map(productDtoMapper::map)
+                .toList();
+        return new PageImpl<>(products, pageable, productIds.getTotalElements());
     }
 }
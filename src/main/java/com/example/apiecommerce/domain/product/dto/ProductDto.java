@@ -1,5 +1,6 @@
 package com.example.apiecommerce.domain.product.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
@@ -41,6 +42,9 @@ public class ProductDto {
     @Schema(description = "Category name", example = "Piwo")
     private String categoryName;
 
+    @JsonIgnore
+    private long version;
+
     public ProductDto() {
     }
     public ProductDto(Long id, String productName, Double productPrice, String description, LocalDateTime creationDate, Long productQuantity, Long categoryId, String categoryName) {
@@ -118,6 +122,14 @@ public class ProductDto {
         this.categoryName = categoryName;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,61 @@
+package com.example.apiecommerce.domain.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Summary of a bulk product import")
+public class ProductImportReport {
+    @Schema(description = "Number of data rows read from the file", example = "100000")
+    private final long processedRows;
+
+    @Schema(description = "Number of new products created", example = "99000")
+    private final long insertedRows;
+
+    @Schema(description = "Number of existing products replaced", example = "990")
+    private final long updatedRows;
+
+    @Schema(description = "Number of rows that were rejected", example = "10")
+    private final long failedRows;
+
+    @Schema(description = "Rejected rows with the reason, limited to the first rejected rows of the file")
+    private final List<RowError> errors;
+
+    public ProductImportReport(long processedRows, long insertedRows, long updatedRows, long failedRows, List<RowError> errors) {
+        this.processedRows = processedRows;
+        this.insertedRows = insertedRows;
+        this.updatedRows = updatedRows;
+        this.failedRows = failedRows;
+        this.errors = List.copyOf(errors);
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+
+    public long getUpdatedRows() {
+        return updatedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    @Schema(description = "True when more rows were rejected than are listed in errors", example = "false")
+    public boolean isErrorsTruncated() {
+        return failedRows > errors.size();
+    }
+
+    public record RowError(
+            @Schema(description = "Line of the file on which the row starts", example = "42") long line,
+            @Schema(description = "Reason the row was rejected", example = "productPrice: must be greater than 0") String message) {
+    }
+}
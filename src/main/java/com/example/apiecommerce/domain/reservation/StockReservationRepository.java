@@ -0,0 +1,38 @@
+package com.example.apiecommerce.domain.reservation;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockReservationRepository extends CrudRepository<StockReservation, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<StockReservation> findForUpdateByCartIdAndProductId(long cartId, long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findForUpdateByCartIdOrderById(long cartId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.expiresAt = :expiresAt WHERE r.cartId = :cartId AND r.expiresAt > :now")
+    int extendActiveReservations(@Param("cartId") long cartId, @Param("now") LocalDateTime now,
+                                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM StockReservation r WHERE r.cartId = :cartId")
+    int deleteAllByCartId(@Param("cartId") long cartId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.id")
+    List<StockReservation> findExpiredForUpdate(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM StockReservation r WHERE r.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,93 @@
+package com.example.apiecommerce.domain.reservation;
+
+import com.example.apiecommerce.domain.DateTimeProvider;
+import com.example.apiecommerce.domain.cartItem.CartItemRepository;
+import com.example.apiecommerce.domain.config.RetryOnLockFailure;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+public class StockReservationService {
+    private final StockReservationRepository stockReservationRepository;
+    private final CartItemRepository cartItemRepository;
+    private final InventoryEngine inventoryEngine;
+    private final DateTimeProvider dateTimeProvider;
+    private final Duration ttl;
+
+    public StockReservationService(StockReservationRepository stockReservationRepository, CartItemRepository cartItemRepository,
+                                   InventoryEngine inventoryEngine, DateTimeProvider dateTimeProvider,
+                                   @Value("${stock-reservation.ttl:PT15M}") Duration ttl) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.inventoryEngine = inventoryEngine;
+        this.dateTimeProvider = dateTimeProvider;
+        this.ttl = ttl;
+    }
+
+    @Transactional
+    public void adjustReservation(long cartId, long productId, long quantityChange){
+        long reservedQuantity = cartItemRepository.sumQuantityByCartIdAndProductId(cartId, productId) + quantityChange;
+        Optional<StockReservation> reservation = stockReservationRepository.findForUpdateByCartIdAndProductId(cartId, productId);
+        long heldQuantity = reservation.map(StockReservation::getQuantity).orElse(0L);
+        if (quantityChange < 0) {
+            if (heldQuantity > reservedQuantity) {
+                inventoryEngine.release(productId, heldQuantity - Math.max(reservedQuantity, 0));
+            }
+            reservation.ifPresent(existingReservation -> {
+                if (reservedQuantity > 0) {
+                    existingReservation.setQuantity(reservedQuantity);
+                } else {
+                    stockReservationRepository.delete(existingReservation);
+                }
+            });
+            return;
+        }
+        LocalDateTime now = dateTimeProvider.getCurrentTime();
+        inventoryEngine.reserve(productId, cartId, heldQuantity, reservedQuantity, now);
+        LocalDateTime expiresAt = now.plus(ttl);
+        if (reservation.isPresent()) {
+            reservation.get().setQuantity(reservedQuantity);
+            reservation.get().setExpiresAt(expiresAt);
+        } else {
+            stockReservationRepository.save(new StockReservation(cartId, productId, reservedQuantity, expiresAt));
+        }
+        stockReservationRepository.extendActiveReservations(cartId, now, expiresAt);
+    }
+
+    @Transactional
+    public void checkout(long cartId, Map<Long, Long> quantitiesByProduct){
+        Map<Long, Long> heldByProduct = stockReservationRepository.findForUpdateByCartIdOrderById(cartId).stream()
+                .collect(Collectors.toMap(StockReservation::getProductId, StockReservation::getQuantity));
+        inventoryEngine.sell(cartId, quantitiesByProduct, heldByProduct, dateTimeProvider.getCurrentTime());
+        stockReservationRepository.deleteAllByCartId(cartId);
+    }
+
+    @Transactional
+    public void releaseCart(long cartId){
+        stockReservationRepository.findForUpdateByCartIdOrderById(cartId)
+                .forEach(reservation -> inventoryEngine.release(reservation.getProductId(), reservation.getQuantity()));
+        stockReservationRepository.deleteAllByCartId(cartId);
+    }
+
+    @RetryOnLockFailure
+    @Transactional
+    public int releaseExpired(int batchSize){
+        List<StockReservation> expired = stockReservationRepository.findExpiredForUpdate(dateTimeProvider.getCurrentTime(), Limit.of(batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        expired.forEach(reservation -> inventoryEngine.release(reservation.getProductId(), reservation.getQuantity()));
+        stockReservationRepository.deleteAllByIdIn(expired.stream().map(StockReservation::getId).toList());
+        return expired.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.apiecommerce.domain.reservation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockReservationSweeper {
+    private final Logger logger = LoggerFactory.getLogger(StockReservationSweeper.class);
+    private final StockReservationService stockReservationService;
+    private final int batchSize;
+    private final Counter expiredReservations;
+
+    public StockReservationSweeper(StockReservationService stockReservationService,
+                                   @Value("${stock-reservation.sweep-batch-size:500}") int batchSize,
+                                   MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Sweep batch size must not be less than one");
+        }
+        this.stockReservationService = stockReservationService;
+        this.batchSize = batchSize;
+        this.expiredReservations = Counter.builder("stock.reservations.expired")
+                .description("Stock reservations released by the expiry sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${stock-reservation.sweep-interval:PT1M}",
+            fixedDelayString = "${stock-reservation.sweep-interval:PT1M}")
+    public void sweep() {
+        long released = 0;
+        int batch;
+        do {
+            batch = stockReservationService.releaseExpired(batchSize);
+            released += batch;
+        } while (batch == batchSize);
+        if (released > 0) {
+            expiredReservations.increment(released);
+            logger.info("Released {} expired stock reservations", released);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.apiecommerce.domain.user;
+
+import java.util.Set;
+
+public record UserIdentity(long userId, Long cartId, Set<String> roles) {
+
+    public UserIdentity {
+        roles = Set.copyOf(roles);
+    }
+
+    public boolean hasCart() {
+        return cartId != null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.apiecommerce.domain.user;
+
+public interface UserIdentityRow {
+    Long getUserId();
+
+    Long getCartId();
+
+    String getRoleName();
+}
@@ -0,0 +1,97 @@
+package com.example.apiecommerce.domain.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class UserIdentityService {
+    private static final String REQUEST_ATTRIBUTE_PREFIX = UserIdentityService.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> cache;
+
+    public UserIdentityService(UserRepository userRepository,
+                               @Value("${identity-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${identity-cache.ttl:PT10M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<UserIdentity> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            UserIdentity memoized = (UserIdentity) requestAttributes.getAttribute(REQUEST_ATTRIBUTE_PREFIX + email, RequestAttributes.SCOPE_REQUEST);
+            if (memoized != null) {
+                return Optional.of(memoized);
+            }
+        }
+        Optional<UserIdentity> userIdentity = Optional.ofNullable(cache.get(email, this::load));
+        if (requestAttributes != null) {
+            userIdentity.ifPresent(identity ->
+                    requestAttributes.setAttribute(REQUEST_ATTRIBUTE_PREFIX + email, identity, RequestAttributes.SCOPE_REQUEST));
+        }
+        return userIdentity;
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        evictNow(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(email);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private void evictNow(String email) {
+        cache.invalidate(email);
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + email, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private UserIdentity load(String email) {
+        List<UserIdentityRow> rows = userRepository.findIdentityRowsByEmail(email);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Set<String> roles = new HashSet<>();
+        rows.stream()
+                .map(UserIdentityRow::getRoleName)
+                .filter(Objects::nonNull)
+                .forEach(roles::add);
+        UserIdentityRow first = rows.get(0);
+        return new UserIdentity(first.getUserId(), first.getCartId(), roles);
+    }
+}
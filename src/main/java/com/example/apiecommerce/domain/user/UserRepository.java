@@ -1,11 +1,17 @@
 package com.example.apiecommerce.domain.user;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends CrudRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByCartId(Long cartId);
 
+    @Query("SELECT u.id AS userId, c.id AS cartId, r.name AS roleName FROM User u LEFT JOIN u.cart c LEFT JOIN u.roles r WHERE u.email = :email")
+    List<UserIdentityRow> findIdentityRowsByEmail(@Param("email") String email);
+
 }
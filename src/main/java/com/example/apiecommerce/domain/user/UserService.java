@@ -1,10 +1,10 @@
 package com.example.apiecommerce.domain.user;
 
 import com.example.apiecommerce.domain.DateTimeProvider;
-import com.example.apiecommerce.domain.address.Address;
 import com.example.apiecommerce.domain.address.AddressDtoMapper;
 import com.example.apiecommerce.domain.address.AddressRepository;
 import com.example.apiecommerce.domain.address.dto.AddressDto;
+import com.example.apiecommerce.domain.config.ReadFromPrimary;
 import com.example.apiecommerce.domain.order.OrderDtoMapper;
 import com.example.apiecommerce.domain.order.OrderRepository;
 import com.example.apiecommerce.domain.order.dto.OrderFullDto;
@@ -31,8 +31,9 @@ public class UserService {
     private final AddressRepository addressRepository;
     private final OrderRepository orderRepository;
     private final UserConfirmationRegistrationDtoMapper userConfirmationRegistrationDtoMapper;
+    private final UserIdentityService userIdentityService;
 
-    public UserService(UserRepository userRepository, UserRoleRepository userRoleRepository, DateTimeProvider dateTimeProvider, PasswordEncoder passwordEncoder, UserRegistrationDtoMapper userRegistrationDtoMapper, AddressDtoMapper addressDtoMapper, OrderDtoMapper orderDtoMapper, AddressRepository addressRepository, OrderRepository orderRepository, UserConfirmationRegistrationDtoMapper userConfirmationRegistrationDtoMapper) {
+    public UserService(UserRepository userRepository, UserRoleRepository userRoleRepository, DateTimeProvider dateTimeProvider, PasswordEncoder passwordEncoder, UserRegistrationDtoMapper userRegistrationDtoMapper, AddressDtoMapper addressDtoMapper, OrderDtoMapper orderDtoMapper, AddressRepository addressRepository, OrderRepository orderRepository, UserConfirmationRegistrationDtoMapper userConfirmationRegistrationDtoMapper, UserIdentityService userIdentityService) {
             this.userRepository = userRepository;
             this.userRoleRepository = userRoleRepository;
             this.dateTimeProvider = dateTimeProvider;
@@ -43,8 +44,11 @@ public class UserService {
             this.addressRepository = addressRepository;
             this.orderRepository = orderRepository;
             this.userConfirmationRegistrationDtoMapper = userConfirmationRegistrationDtoMapper;
+            this.userIdentityService = userIdentityService;
     }
 
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public Optional<UserCredentialsDto> findCredentialsByEmail(String email){
         if (email == null) {
             throw new IllegalArgumentException("Email cannot be null");
@@ -70,6 +74,7 @@ public class UserService {
         return userConfirmationRegistrationDtoMapper.map(user);
     }
 
+    @Transactional(readOnly = true)
     public Optional<UserRegistrationDto> findUserById(long userId){
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
@@ -89,6 +94,7 @@ public class UserService {
         if (userUpdateDto.getPhoneNumber() != null){
             user.setPhoneNumber(userUpdateDto.getPhoneNumber());
         }
+        userIdentityService.evict(userMail);
     }
 
     @Transactional
@@ -107,22 +113,25 @@ public class UserService {
         orderRepository.deleteAll(user.getOrders());
         addressRepository.deleteAll(user.getAddresses());
         userRepository.delete(user);
+        userIdentityService.evict(user.getEmail());
     }
 
+    @ReadFromPrimary
+    @Transactional(readOnly = true)
     public List<AddressDto> findAllActiveUserAddresses(String userMail){
-            return userRepository.findByEmail(userMail)
-                    .map(User::getAddresses)
-                    .orElse(Collections.emptySet())
+            return userIdentityService.findByEmail(userMail)
+                    .map(userIdentity -> addressRepository.findAllByUserIdAndActive(userIdentity.userId(), true))
+                    .orElse(Collections.emptyList())
                     .stream()
-                    .filter(Address::isActive)
                     .map(addressDtoMapper::map)
                     .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<OrderFullDto> findAllUserOrders(String userMail){
-        return userRepository.findByEmail(userMail)
-                .map(User::getOrders)
-                .orElse(Collections.emptySet())
+        return userIdentityService.findByEmail(userMail)
+                .map(userIdentity -> orderRepository.findAllByUserId(userIdentity.userId()))
+                .orElse(Collections.emptyList())
                 .stream()
                 .map(orderDtoMapper::map)
                 .toList();
@@ -3,6 +3,9 @@ package com.example.apiecommerce.exception;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -40,6 +43,36 @@ public class GlobalExceptionHandler {
                 .body(apiError);
     }
 
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    ResponseEntity<ApiError> handleLockFailure(PessimisticLockingFailureException exc) {
+        logger.error("Lock failure: {}", exc.getMessage());
+        ApiError apiError = new ApiError("The requested resources are busy, please try again");
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(apiError);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    ResponseEntity<ApiError> handleOptimisticLockFailure(OptimisticLockingFailureException exc) {
+        logger.warn("Optimistic lock failure: {}", exc.getMessage());
+        ApiError apiError = new ApiError("The resource has been modified, fetch the current version and try again");
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(apiError);
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    ResponseEntity<ApiError> handleConcurrencyFailure(ConcurrencyFailureException exc) {
+        logger.warn("Concurrent modification: {}", exc.getMessage());
+        ApiError apiError = new ApiError(exc.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(apiError);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ApiError> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
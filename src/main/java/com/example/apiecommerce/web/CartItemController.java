@@ -167,6 +167,20 @@ public class CartItemController {
                     }
                     """)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Cart item was modified concurrently",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class),
+                            examples = @ExampleObject(value = """
+                                    {
+                                        "message": "The cart item was modified concurrently, please try again",
+                                        "timestamp": "2025-01-21T14:45:00"
+                                    }
+                                    """)
+                    )
             )
     })
     @PatchMapping("/{id}")
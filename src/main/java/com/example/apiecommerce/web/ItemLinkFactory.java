@@ -0,0 +1,41 @@
+package com.example.apiecommerce.web;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.hateoas.server.core.MappingDiscoverer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+class ItemLinkFactory {
+    private final MappingDiscoverer mappingDiscoverer = new AnnotationMappingDiscoverer(RequestMapping.class);
+    private final Map<Class<?>, String> controllerMappings = new ConcurrentHashMap<>();
+
+    <T> Function<T, EntityModel<T>> selfLinked(Class<?> controller, Function<T, ?> id) {
+        String itemUriPrefix = ServletUriComponentsBuilder.fromCurrentServletMapping()
+                .path(controllerMappings.computeIfAbsent(controller, mappingDiscoverer::getMapping))
+                .toUriString() + "/";
+        return item -> EntityModel.of(item, Link.of(itemUriPrefix + id.apply(item)));
+    }
+
+    <T> List<EntityModel<T>> toModels(Collection<T> items, Class<?> controller, Function<T, ?> id) {
+        Function<T, EntityModel<T>> selfLinked = selfLinked(controller, id);
+        return items.stream().map(selfLinked).toList();
+    }
+
+    <T> PagedModel<EntityModel<T>> toPagedModel(PagedResourcesAssembler<T> pagedResourcesAssembler, Page<T> page,
+                                                Class<?> controller, Function<T, ?> id) {
+        return pagedResourcesAssembler.toModel(page, selfLinked(controller, id)::apply);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.apiecommerce.web;
 
+import com.example.apiecommerce.domain.CursorSlice;
 import com.example.apiecommerce.domain.order.OrderService;
 import com.example.apiecommerce.domain.order.dto.OrderDto;
 import com.example.apiecommerce.domain.order.dto.OrderFullDto;
@@ -290,6 +291,70 @@ public class OrderController {
     }
 
 
+    @Operation(
+            summary = "Get all orders with cursor pagination",
+            description = "Retrieve the next slice of orders after the given cursor, without counting all orders"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Slice of orders",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(type = "object", implementation = CursorSlice.class),
+                            examples = @ExampleObject(value = """
+                                {
+                                    "content": [
+                                        {
+                                            "id": 2,
+                                            "orderDate": "2024-02-01T14:15:00",
+                                            "orderTotalPrice": 120.0,
+                                            "orderPaymentStatus": "PENDING",
+                                            "orderStatus": "NEW",
+                                            "userEmail": "user@mail.com",
+                                            "userPhoneNumber": "506111222"
+                                        }
+                                    ],
+                                    "nextCursor": "eyJvcmRlckRhdGUiOiIyMDI0LTAyLTAxVDE0OjE1IiwiaWQiOiIyIn0",
+                                    "size": 1,
+                                    "numberOfElements": 1,
+                                    "first": true,
+                                    "last": false
+                                }
+                                """)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid cursor, page size or sort field",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class)
+                    )
+            )
+    })
+    @GetMapping("/scroll")
+    CursorSlice<OrderMainInfoDto> getAllOrdersScrolled(
+            @Parameter(
+                    description = "Cursor - 'nextCursor' value of the previous slice, empty for the first slice",
+                    required = false)
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(
+                    description = "Page size - number of orders per slice (default: 6)",
+                    required = false)
+            @RequestParam(value = "pageSize", defaultValue = "6") int pageSize,
+            @Parameter(
+                    description = "Sort field - 'orderDate' or 'orderTotalPrice' (default: 'orderDate')",
+                    required = false)
+            @RequestParam(value = "sortField", defaultValue = "orderDate") String sortField,
+            @Parameter(
+                    description = "Sort direction - the field that determines the direction in which orders appears on (default: ascending)",
+                    required = false)
+            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection){
+        return orderService.findAllOrdersAfter(after, pageSize, sortField, sortDirection);
+    }
+
+
     @Operation(
             summary = "Process a payment order by its id",
             description = "Process a payment order by its id" )
@@ -1,8 +1,13 @@
 package com.example.apiecommerce.web;
 
+import com.example.apiecommerce.domain.CursorSlice;
+import com.example.apiecommerce.domain.product.ProductImportFormat;
+import com.example.apiecommerce.domain.product.ProductImportService;
 import com.example.apiecommerce.domain.product.ProductService;
 import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.example.apiecommerce.domain.product.dto.ProductImportReport;
 import com.example.apiecommerce.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -16,12 +21,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,13 +52,20 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
     private final ProductService productService;
+    private final ProductImportService productImportService;
     private final PagedResourcesAssembler<ProductDto> pagedResourcesAssembler;
+    private final ObjectMapper objectMapper;
+    private final ItemLinkFactory itemLinkFactory;
 
-    public ProductController(ProductService productService, PagedResourcesAssembler<ProductDto> pagedResourcesAssembler) {
+    public ProductController(ProductService productService, ProductImportService productImportService, PagedResourcesAssembler<ProductDto> pagedResourcesAssembler, ObjectMapper objectMapper, ItemLinkFactory itemLinkFactory) {
         this.productService = productService;
+        this.productImportService = productImportService;
 
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.objectMapper = objectMapper;
+        this.itemLinkFactory = itemLinkFactory;
     }
 
 
@@ -99,7 +127,7 @@ public class ProductController {
                 .buildAndExpand(savedProduct.getId())
                 .toUri();
         EntityModel<ProductDto> productDtoEntityModel = EntityModel.of(savedProduct);
-        productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getProductById(savedProduct.getId())).withSelfRel());
+        productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getProductById(savedProduct.getId(), null)).withSelfRel());
         productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getAllProducts()).withRel("all-products"));
         return ResponseEntity.created(savedProductUri).body(productDtoEntityModel);
     }
@@ -145,14 +173,8 @@ public class ProductController {
     })
     @GetMapping
     ResponseEntity<CollectionModel<EntityModel<ProductDto>>> getAllProducts(){
-        List<EntityModel<ProductDto>> entityModels = productService.findAllProducts()
-                .stream().map(
-                        productDto -> {
-                            EntityModel<ProductDto> productDtoEntityModel = EntityModel.of(productDto);
-                            productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getProductById(productDto.getId())).withSelfRel());
-                            return productDtoEntityModel;
-                        }
-                ).toList();
+        List<EntityModel<ProductDto>> entityModels = itemLinkFactory.toModels(productService.findAllProducts(),
+                ProductController.class, ProductDto::getId);
 
         CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(entityModels,
                 linkTo(methodOn(ProductController.class).getAllProducts()).withSelfRel()
@@ -161,6 +183,103 @@ public class ProductController {
     }
 
 
+    @Operation(
+            summary = "Stream all products",
+            description = "Stream all products as newline-delimited JSON, one product per line, without loading the whole catalog into memory")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Streamed the list of all products",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            examples = @ExampleObject(value = """
+                                    {"id":1,"productName":"Pilsner","productPrice":8.6,"description":"Klasyczne czeskie piwo","creationDate":"2024-02-12T12:30:00","productQuantity":20,"categoryId":1,"categoryName":"Piwo"}
+                                    {"id":2,"productName":"IPA","productPrice":10.5,"description":"Piwo górnej fermentacji","creationDate":"2024-02-12T12:30:00","productQuantity":15,"categoryId":1,"categoryName":"Piwo"}
+                                    """)
+                    )
+            )
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> exportAllProducts(){
+        StreamingResponseBody body = outputStream -> {
+            try {
+                productService.exportAllProducts(productDto -> writeLine(outputStream, productDto));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Import products",
+            description = "Create or replace products in bulk from a CSV file or newline-delimited JSON. The body is read as a stream " +
+                    "and written in JDBC batches, so files of any size can be imported. Rows with an id replace the existing " +
+                    "product, rows without an id create a new one. CSV files need a header row with the columns productName, " +
+                    "productPrice, description, productQuantity and categoryId or categoryName, and may have an id column.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import finished, rejected rows are listed in the report",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ProductImportReport.class),
+                            examples = @ExampleObject(value = """
+                                    {
+                                        "processedRows": 3,
+                                        "insertedRows": 1,
+                                        "updatedRows": 1,
+                                        "failedRows": 1,
+                                        "errors": [
+                                            {
+                                                "line": 4,
+                                                "message": "productPrice: must be greater than 0"
+                                            }
+                                        ],
+                                        "errorsTruncated": false
+                                    }
+                                    """)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid CSV header",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class),
+                            examples = @ExampleObject(value = """
+                                    {
+                                        "message": "Missing CSV column: productPrice",
+                                        "timestamp": "2025-01-21T14:45:00"
+                                    }
+                                    """)
+                    )
+            )
+    })
+    @PostMapping(value = "/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    ResponseEntity<ProductImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        ProductImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? ProductImportFormat.NDJSON
+                : ProductImportFormat.CSV;
+        Charset charset = Optional.ofNullable(contentType.getCharset()).orElse(StandardCharsets.UTF_8);
+        try (Reader reader = new InputStreamReader(body, charset)) {
+            return ResponseEntity.ok(productImportService.importProducts(reader, format));
+        }
+    }
+
+    private void writeLine(OutputStream outputStream, ProductDto productDto) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(productDto));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(
             summary = "Get all products with pagination",
             description = "Retrieve a paginated list of all products"
@@ -258,21 +377,22 @@ public class ProductController {
             @Parameter(
                     description = "Sort direction - the field that determines the direction in which products appears on (default: ascending)",
                     required = false)
-            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection){
+            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection,
+            WebRequest webRequest){
         int pageNumber = pageNo.orElse(1);
 
         Page<ProductDto> paginatedProducts = productService.findAllPaginatedProducts(pageNumber, pageSize, sortField, sortDirection);
+        String eTag = pageETag(paginatedProducts);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
-        PagedModel<EntityModel<ProductDto>> pagedModel = pagedResourcesAssembler.toModel(
-                paginatedProducts,
-                productDto -> EntityModel.of(productDto,
-                        linkTo(methodOn(ProductController.class).getProductById(productDto.getId())).withSelfRel()
-                )
-        );
+        PagedModel<EntityModel<ProductDto>> pagedModel = itemLinkFactory.toPagedModel(pagedResourcesAssembler,
+                paginatedProducts, ProductController.class, ProductDto::getId);
         pagedModel.add(linkTo(methodOn(ProductController.class)
-                .getAllProductsPaginated(pageNo, pageSize, sortField, sortDirection))
+                .getAllProductsPaginated(pageNo, pageSize, sortField, sortDirection, null))
                 .withSelfRel());
-        return ResponseEntity.ok(pagedModel);
+        return ResponseEntity.ok().eTag(eTag).body(pagedModel);
     }
 
 
@@ -360,23 +480,158 @@ public class ProductController {
                     description = "Category name - the field that determines the category from which products appears on",
                     required = true,
                     example = "Piwo")
-            @RequestParam(value = "categoryName") String categoryName){
+            @RequestParam(value = "categoryName") String categoryName,
+            WebRequest webRequest){
         int pageNumber = pageNo.orElse(1);
         Page<ProductDto> paginatedProducts = productService.findProductsFromCategoryPaginated(pageNumber, pageSize, sortField, sortDirection, categoryName);
+        String eTag = pageETag(paginatedProducts);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
-        PagedModel<EntityModel<ProductDto>> pagedModel = pagedResourcesAssembler.toModel(
-                paginatedProducts,
-                productDto -> EntityModel.of(productDto,
-                        linkTo(methodOn(ProductController.class).getProductById(productDto.getId())).withSelfRel()
-                )
-        );
+        PagedModel<EntityModel<ProductDto>> pagedModel = itemLinkFactory.toPagedModel(pagedResourcesAssembler,
+                paginatedProducts, ProductController.class, ProductDto::getId);
         pagedModel.add(linkTo(methodOn(ProductController.class)
-                .getAllProductsFromCategoryPaginated(pageNo, pageSize, sortField, sortDirection, categoryName))
+                .getAllProductsFromCategoryPaginated(pageNo, pageSize, sortField, sortDirection, categoryName, null))
                 .withSelfRel());
-        return ResponseEntity.ok(pagedModel);
+        return ResponseEntity.ok().eTag(eTag).body(pagedModel);
     }
 
 
+    @Operation(
+            summary = "Get all products with cursor pagination",
+            description = "Retrieve the next slice of products after the given cursor. The response contains a 'next' link with the cursor of the following slice; no total count is calculated"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Got the slice of products",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CollectionModel.class),
+                            examples = @ExampleObject(value = """
+                                    {
+                                        "_embedded": {
+                                            "productDtoes": [
+                                                {
+                                                    "id": 9,
+                                                    "productName": "Burbon Jack Daniels",
+                                                    "productPrice": 130.0,
+                                                    "description": "Klasyczny burbon o karmelowym smaku.",
+                                                    "creationDate": "2024-02-10T16:50:00.478614",
+                                                    "productQuantity": 15,
+                                                    "categoryId": 4,
+                                                    "categoryName": "Burbon",
+                                                    "_links": {
+                                                        "self": {
+                                                            "href": "http://localhost:8080/api/v1/products/9"
+                                                        }
+                                                    }
+                                                }
+                                            ]
+                                        },
+                                        "_links": {
+                                            "self": {
+                                                "href": "http://localhost:8080/api/v1/products/scroll?pageSize=1&sortField=productName&sortDirection=ASC"
+                                            },
+                                            "next": {
+                                                "href": "http://localhost:8080/api/v1/products/scroll?after=eyJwcm9kdWN0TmFtZSI6IkJ1cmJvbiBKYWNrIERhbmllbHMiLCJpZCI6IjkifQ&pageSize=1&sortField=productName&sortDirection=ASC"
+                                            }
+                                        }
+                                    }
+                                    """)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or request parameters")
+    })
+    @GetMapping("/scroll")
+    ResponseEntity<CollectionModel<EntityModel<ProductDto>>> getAllProductsScrolled(
+            @Parameter(
+                    description = "Cursor returned in the 'next' link of the previous slice, empty for the first slice",
+                    required = false)
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(
+                    description = "Number of products in the slice",
+                    required = false)
+            @RequestParam(value = "pageSize", defaultValue = "6") Integer pageSize,
+            @Parameter(
+                    description = "Sort field (productName, productPrice, productQuantity, creationDate or id)",
+                    required = false)
+            @RequestParam(value = "sortField", defaultValue = "productName") String sortField,
+            @Parameter(
+                    description = "Sort direction (ASC or DESC)",
+                    required = false)
+            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection){
+        CursorSlice<ProductDto> slice = productService.findAllProductsAfter(after, pageSize, sortField, sortDirection);
+
+        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(toEntityModels(slice),
+                linkTo(methodOn(ProductController.class).getAllProductsScrolled(after, pageSize, sortField, sortDirection)).withSelfRel());
+        if (slice.hasNext()) {
+            collectionModel.add(linkTo(methodOn(ProductController.class)
+                    .getAllProductsScrolled(slice.getNextCursor(), pageSize, sortField, sortDirection))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(collectionModel);
+    }
+
+
+    @Operation(
+            summary = "Get products from chosen category with cursor pagination",
+            description = "Retrieve the next slice of products from chosen category after the given cursor. The response contains a 'next' link with the cursor of the following slice; no total count is calculated"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Got the slice of products from chosen category"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or request parameters"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Category not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class),
+                            examples = @ExampleObject(value = """
+                    {
+                        "message": "Category not found",
+                        "timestamp": "2025-01-21T14:45:00"
+                    }
+                    """)
+                    )
+            )
+    })
+    @GetMapping("/scroll/category")
+    ResponseEntity<CollectionModel<EntityModel<ProductDto>>> getAllProductsFromCategoryScrolled(
+            @Parameter(
+                    description = "Cursor returned in the 'next' link of the previous slice, empty for the first slice",
+                    required = false)
+            @RequestParam(value = "after", required = false) String after,
+            @Parameter(
+                    description = "Number of products in the slice",
+                    required = false)
+            @RequestParam(value = "pageSize", defaultValue = "3") Integer pageSize,
+            @Parameter(
+                    description = "Sort field (productName, productPrice, productQuantity, creationDate or id)",
+                    required = false)
+            @RequestParam(value = "sortField", defaultValue = "productName") String sortField,
+            @Parameter(
+                    description = "Sort direction (ASC or DESC)",
+                    required = false)
+            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection,
+            @Parameter(
+                    description = "Category name",
+                    required = true,
+                    example = "Piwo")
+            @RequestParam(value = "categoryName") String categoryName){
+        CursorSlice<ProductDto> slice = productService.findProductsFromCategoryAfter(after, pageSize, sortField, sortDirection, categoryName);
+
+        CollectionModel<EntityModel<ProductDto>> collectionModel = CollectionModel.of(toEntityModels(slice),
+                linkTo(methodOn(ProductController.class).getAllProductsFromCategoryScrolled(after, pageSize, sortField, sortDirection, categoryName)).withSelfRel());
+        if (slice.hasNext()) {
+            collectionModel.add(linkTo(methodOn(ProductController.class)
+                    .getAllProductsFromCategoryScrolled(slice.getNextCursor(), pageSize, sortField, sortDirection, categoryName))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(collectionModel);
+    }
+
     @Operation(
             summary = "Get a product by its id",
             description = "Retrieve a product by its id" )
@@ -424,6 +679,10 @@ public class ProductController {
                                     }
                                     """)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Product has not changed since the version sent in If-None-Match"
             )
     })
     @GetMapping("/{id}")
@@ -433,13 +692,23 @@ public class ProductController {
                     required = true,
                     example = "1"
             )
-            @PathVariable Long id){
+            @PathVariable Long id,
+            WebRequest webRequest){
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> version = productService.findProductVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (webRequest.checkNotModified(productETag(version.get()))) {
+                return null;
+            }
+        }
         return productService.findProductById(id)
                 .map(productDto -> {
                     EntityModel<ProductDto> productDtoEntityModel = EntityModel.of(productDto);
-                    productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getProductById(productDto.getId())).withSelfRel());
+                    productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getProductById(productDto.getId(), null)).withSelfRel());
                     productDtoEntityModel.add(linkTo(methodOn(ProductController.class).getAllProducts()).withRel("all-products"));
-                    return ResponseEntity.ok(productDtoEntityModel);
+                    return ResponseEntity.ok().eTag(productETag(productDto.getVersion())).body(productDtoEntityModel);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -540,22 +809,49 @@ public class ProductController {
                                     }
                                     """)
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Product has been modified since the version sent in If-Match",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ApiError.class),
+                            examples = @ExampleObject(value = """
+                                    {
+                                        "message": "The resource has been modified, fetch the current version and try again",
+                                        "timestamp": "2025-01-21T14:45:00"
+                                    }
+                                    """)
+                    )
             )
     })
     @PutMapping("/{id}")
-    ResponseEntity<EntityModel<ProductDto>> replaceProduct(
+    ResponseEntity<?> replaceProduct(
             @Valid @RequestBody ProductDto productDto,
             @Parameter(
                     description = "id of product to be updated",
                     required = true,
                     example = "1")
-            @PathVariable Long id){
-        return productService.replaceProduct(id, productDto)
+            @PathVariable Long id,
+            WebRequest webRequest){
+        Long expectedVersion = null;
+        if (webRequest.getHeader(HttpHeaders.IF_MATCH) != null) {
+            Optional<Long> currentVersion = productService.findProductVersion(id);
+            if (currentVersion.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!matchesIfMatch(webRequest, productETag(currentVersion.get()))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .body(new ApiError("The resource has been modified, fetch the current version and try again"));
+            }
+            expectedVersion = currentVersion.get();
+        }
+        return productService.replaceProduct(id, productDto, expectedVersion)
                 .map( productDto1 -> {
                     EntityModel<ProductDto> entityModel = EntityModel.of(productDto1);
-                    entityModel.add(linkTo(methodOn(ProductController.class).getProductById(productDto1.getId())).withSelfRel());
+                    entityModel.add(linkTo(methodOn(ProductController.class).getProductById(productDto1.getId(), null)).withSelfRel());
                     entityModel.add(linkTo(methodOn(ProductController.class).getAllProducts()).withRel("all-products"));
-                    return ResponseEntity.ok(entityModel);
+                    return ResponseEntity.ok().eTag(productETag(productDto1.getVersion())).body(entityModel);
                         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -680,25 +976,59 @@ public class ProductController {
             @RequestParam(value = "pageSize", defaultValue = "6") Integer pageSize,
 
             @Parameter(
-                    description = "Sort field (e.g., productName, productPrice). Default: productName",
+                    description = "Sort field (productName, productPrice, productQuantity, creationDate, id or relevance - best matches first). Default: productName",
                     required = false)
             @RequestParam(value = "sortField", defaultValue = "productName") String sortField,
 
             @Parameter(
                     description = "Sort direction (ASC or DESC). Default: ASC",
                     required = false)
-            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection) {
+            @RequestParam(value = "sortDirection", defaultValue = "ASC") String sortDirection,
+            WebRequest webRequest) {
 
         Page<ProductDto> paginatedProducts = productService.findProductsByTextPaginated(searchText, pageNo, pageSize, sortField, sortDirection);
-        PagedModel<EntityModel<ProductDto>> pagedModel = pagedResourcesAssembler.toModel(
-                paginatedProducts,
-                productDto -> EntityModel.of(productDto,
-                        linkTo(methodOn(ProductController.class).getProductById(productDto.getId())).withSelfRel()
-                )
-        );
+        String eTag = pageETag(paginatedProducts);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        PagedModel<EntityModel<ProductDto>> pagedModel = itemLinkFactory.toPagedModel(pagedResourcesAssembler,
+                paginatedProducts, ProductController.class, ProductDto::getId);
         pagedModel.add(linkTo(methodOn(ProductController.class)
-                .findProductsByTextPaginated(searchText, pageNo, pageSize, sortField, sortDirection))
+                .findProductsByTextPaginated(searchText, pageNo, pageSize, sortField, sortDirection, null))
                 .withSelfRel());
-        return ResponseEntity.ok(pagedModel);
+        return ResponseEntity.ok().eTag(eTag).body(pagedModel);
+    }
+
+    private static String productETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static boolean matchesIfMatch(WebRequest webRequest, String eTag) {
+        String[] ifMatch = webRequest.getHeaderValues(HttpHeaders.IF_MATCH);
+        if (ifMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(eTag);
+        for (String header : ifMatch) {
+            for (ETag candidate : ETag.parse(header)) {
+                if (candidate.isWildcard() || candidate.compare(current, true)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String pageETag(Page<ProductDto> page) {
+        StringBuilder state = new StringBuilder()
+                .append(page.getNumber()).append('/')
+                .append(page.getSize()).append('/')
+                .append(page.getTotalElements());
+        page.forEach(productDto -> state.append(';').append(productDto.getId()).append(':').append(productDto.getVersion()));
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private List<EntityModel<ProductDto>> toEntityModels(CursorSlice<ProductDto> slice) {
+        return itemLinkFactory.toModels(slice.getContent(), ProductController.class, ProductDto::getId);
     }
 }
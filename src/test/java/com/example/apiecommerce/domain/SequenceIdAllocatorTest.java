@@ -0,0 +1,78 @@
+package com.example.apiecommerce.domain;
+
+import com.example.apiecommerce.domain.cart.Cart;
+import com.example.apiecommerce.domain.cart.CartRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class SequenceIdAllocatorTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shouldNotHandOutIdsAssignedByHibernate() {
+        //given
+        SequenceIdAllocator sequenceIdAllocator = new SequenceIdAllocator(dataSource);
+        Cart before = cartRepository.save(cart());
+
+        //when
+        long[] allocated = sequenceIdAllocator.allocate("cart_seq", 120);
+        Cart after = cartRepository.save(cart());
+
+        //then
+        Set<Long> ids = new HashSet<>();
+        Arrays.stream(allocated).forEach(ids::add);
+        assertEquals(120, ids.size());
+        assertFalse(ids.contains(before.getId()));
+        assertFalse(ids.contains(after.getId()));
+    }
+
+    @Test
+    void shouldBatchInsertsOfSequenceIdentifiedEntities() {
+        //given
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<Cart> carts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            carts.add(cart());
+        }
+        statistics.clear();
+
+        //when
+        cartRepository.saveAll(carts);
+        entityManager.flush();
+
+        //then
+        assertTrue(carts.stream().allMatch(cart -> cart.getId() != null));
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    private static Cart cart() {
+        Cart cart = new Cart();
+        cart.setCreationDate(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return cart;
+    }
+}
@@ -3,7 +3,8 @@ package com.example.apiecommerce.domain.address;
 import com.example.apiecommerce.domain.address.dto.AddressDto;
 import com.example.apiecommerce.domain.address.dto.AddressUpdateDto;
 import com.example.apiecommerce.domain.user.User;
-import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,13 +29,13 @@ class AddressServiceTest {
     private AddressDtoMapper addressDtoMapperMock;
 
     @Mock
-    private UserRepository userRepositoryMock;
+    private UserIdentityService userIdentityServiceMock;
 
     private AddressService addressService;
 
     @BeforeEach
     void setUp() {
-        addressService = new AddressService(addressRepositoryMock, addressDtoMapperMock, userRepositoryMock);
+        addressService = new AddressService(addressRepositoryMock, addressDtoMapperMock, userIdentityServiceMock);
     }
 
     @Test
@@ -137,14 +139,14 @@ class AddressServiceTest {
         address.setActive(true);
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("tes@email.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("tes@email.com")).thenReturn(Optional.of(identityOf(user)));
 
         // when
         addressService.deleteAddress(1L, "tes@email.com");
 
         // then
         Mockito.verify(addressRepositoryMock).findById(1L);
-        Mockito.verify(userRepositoryMock).findByEmail("tes@email.com");
+        Mockito.verify(userIdentityServiceMock).findByEmail("tes@email.com");
         assertFalse(address.isActive());
     }
 
@@ -178,7 +180,7 @@ class AddressServiceTest {
         String nonExistingUser = "nonExistUser@mail.com";
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         // when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -186,7 +188,7 @@ class AddressServiceTest {
 
         // then
         assertEquals("User not found", exc.getMessage());
-        Mockito.verify(userRepositoryMock).findByEmail(nonExistingUser);
+        Mockito.verify(userIdentityServiceMock).findByEmail(nonExistingUser);
     }
 
     @Test
@@ -207,9 +209,10 @@ class AddressServiceTest {
 
         User otherUser = new User();
         otherUser.setEmail("otherUser@mail.com");
+        otherUser.setId(2L);
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("otherUser@mail.com")).thenReturn(Optional.of(otherUser));
+        Mockito.when(userIdentityServiceMock.findByEmail("otherUser@mail.com")).thenReturn(Optional.of(identityOf(otherUser)));
 
         //when
         //then
@@ -230,14 +233,14 @@ class AddressServiceTest {
         address.setActive(false);
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("tes@email.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("tes@email.com")).thenReturn(Optional.of(identityOf(user)));
 
         // when
         addressService.deleteAddress(1L, "tes@email.com");
 
         // then
         Mockito.verify(addressRepositoryMock, Mockito.times(1)).findById(1L);
-        Mockito.verify(userRepositoryMock, Mockito.times(1)).findByEmail("tes@email.com");
+        Mockito.verify(userIdentityServiceMock, Mockito.times(1)).findByEmail("tes@email.com");
         assertFalse(address.isActive());
     }
 
@@ -268,14 +271,14 @@ class AddressServiceTest {
         AddressUpdateDto addressUpdateDto = new AddressUpdateDto();
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class, () -> addressService.updateAddress(1L, addressUpdateDto, nonExistingUser));
 
         //then
         assertEquals("User not found", exc.getMessage());
-        Mockito.verify(userRepositoryMock).findByEmail(nonExistingUser);
+        Mockito.verify(userIdentityServiceMock).findByEmail(nonExistingUser);
     }
 
     @Test
@@ -291,11 +294,12 @@ class AddressServiceTest {
 
         User otherUser = new User();
         otherUser.setEmail("otherUser@mail.com");
+        otherUser.setId(2L);
 
         AddressUpdateDto addressUpdateDto = new AddressUpdateDto();
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("otherUser@mail.com")).thenReturn(Optional.of(otherUser));
+        Mockito.when(userIdentityServiceMock.findByEmail("otherUser@mail.com")).thenReturn(Optional.of(identityOf(otherUser)));
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () -> addressService.updateAddress(1L, addressUpdateDto, "otherUser@mail.com"));
@@ -329,14 +333,14 @@ class AddressServiceTest {
         addressUpdateDto.setCity("Kraków");
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("tes@email.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("tes@email.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         addressService.updateAddress(1L, addressUpdateDto, "tes@email.com");
 
         //then
         Mockito.verify(addressRepositoryMock).findById(1L);
-        Mockito.verify(userRepositoryMock).findByEmail("tes@email.com");
+        Mockito.verify(userIdentityServiceMock).findByEmail("tes@email.com");
 
         assertEquals("Dluga", address.getStreetName());
         assertEquals("99", address.getBuildingNumber());
@@ -365,14 +369,14 @@ class AddressServiceTest {
         addressUpdateDto.setStreetName("Dluga");
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("tes@email.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("tes@email.com")).thenReturn(Optional.of(identityOf(user)));
 
         // when
         addressService.updateAddress(1L, addressUpdateDto, "tes@email.com");
 
         // then
         Mockito.verify(addressRepositoryMock).findById(1L);
-        Mockito.verify(userRepositoryMock).findByEmail("tes@email.com");
+        Mockito.verify(userIdentityServiceMock).findByEmail("tes@email.com");
 
         assertEquals("Dluga", address.getStreetName());
         assertEquals("10", address.getBuildingNumber());
@@ -398,7 +402,7 @@ class AddressServiceTest {
         address.setUser(user);
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("tes@email.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("tes@email.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(addressDtoMapperMock.map(address)).thenReturn(new AddressDto("Marszałkowska", "10", "5A", "00-001", "Warszawa", 1L));
 
         //when
@@ -421,9 +425,10 @@ class AddressServiceTest {
 
         User otherUser = new User();
         otherUser.setEmail("otherUser@mail.com");
+        otherUser.setId(2L);
 
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
-        Mockito.when(userRepositoryMock.findByEmail("otherUser@mail.com")).thenReturn(Optional.of(otherUser));
+        Mockito.when(userIdentityServiceMock.findByEmail("otherUser@mail.com")).thenReturn(Optional.of(identityOf(otherUser)));
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -442,7 +447,7 @@ class AddressServiceTest {
 
         long nonExistingAddressId = 111L;
 
-        Mockito.when(userRepositoryMock.findByEmail("tes@email.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("tes@email.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(addressRepositoryMock.findById(nonExistingAddressId)).thenReturn(Optional.empty());
 
         //when
@@ -461,7 +466,7 @@ class AddressServiceTest {
         address.setId(1L);
         String nonExistingUser = "nonExistUser@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -469,6 +474,10 @@ class AddressServiceTest {
 
         //then
         assertEquals("User not found", exc.getMessage());
-        Mockito.verify(userRepositoryMock).findByEmail(nonExistingUser);
+        Mockito.verify(userIdentityServiceMock).findByEmail(nonExistingUser);
     }
-}
\ No newline at end of file
+
+    private static UserIdentity identityOf(User user) {
+        return new UserIdentity(user.getId(), user.getCart() == null ? null : user.getCart().getId(), Set.of());
+    }
+}
@@ -6,8 +6,11 @@ import com.example.apiecommerce.domain.cart.dto.CartDto;
 import com.example.apiecommerce.domain.cartItem.CartItem;
 import com.example.apiecommerce.domain.cartItem.CartItemRepository;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemFullDto;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
 import com.example.apiecommerce.domain.user.User;
 import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,9 @@ class CartServiceTest {
     @Mock
     private UserRepository userRepositoryMock;
 
+    @Mock
+    private UserIdentityService userIdentityServiceMock;
+
     @Mock
     private CartDetailsDtoMapper cartDetailsDtoMapperMock;
 
@@ -45,11 +51,14 @@ class CartServiceTest {
     @Mock
     private DateTimeProvider dateTimeProviderMock;
 
+    @Mock
+    private StockReservationService stockReservationServiceMock;
+
     private CartService cartService;
 
     @BeforeEach
     void setUp() {
-        cartService = new CartService(cartRepositoryMock, cartDtoMapperMock, userRepositoryMock, cartDetailsDtoMapperMock, cartItemRepositoryMock, dateTimeProviderMock);
+        cartService = new CartService(cartRepositoryMock, cartDtoMapperMock, userRepositoryMock, cartDetailsDtoMapperMock, cartItemRepositoryMock, dateTimeProviderMock, userIdentityServiceMock, stockReservationServiceMock);
     }
 
     @Test
@@ -68,7 +77,8 @@ class CartServiceTest {
         CartDto cartDto = new CartDto();
         cartDto.setCreationDate(now);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(userRepositoryMock.findById(1L)).thenReturn(Optional.of(user));
         Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(now);
         Mockito.when(cartRepositoryMock.save(any(Cart.class))).thenReturn(cart);
         Mockito.when(cartDtoMapperMock.map(cart)).thenReturn(cartDto);
@@ -79,7 +89,8 @@ class CartServiceTest {
         ArgumentCaptor<Cart> cartArgumentCaptor = ArgumentCaptor.forClass(Cart.class);
         Mockito.verify(cartRepositoryMock).save(cartArgumentCaptor.capture());
         assertEquals(now, resultCartDto.getCreationDate());
-        Mockito.verify(userRepositoryMock).findByEmail("test@mail.com");
+        Mockito.verify(userIdentityServiceMock).findByEmail("test@mail.com");
+        Mockito.verify(userIdentityServiceMock).evict("test@mail.com");
         assertEquals(1L, user.getCart().getId());
     }
 
@@ -89,9 +100,11 @@ class CartServiceTest {
         User user = new User();
         user.setId(1L);
         user.setEmail("test@mail.com");
-        user.setCart(new Cart());
+        Cart cart = new Cart();
+        cart.setId(1L);
+        user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         IllegalStateException exc = assertThrows(IllegalStateException.class,
@@ -105,7 +118,7 @@ class CartServiceTest {
     void shouldThrowExceptionWhenUserNotFound() {
         //given
         String nonExistingEmail = "notExist@mail.com";
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
@@ -134,7 +147,8 @@ class CartServiceTest {
         List<CartItemFullDto> cartItemFullDtoList = List.of(cartItemFullDto1, cartItemFullDto2);
         CartDetailsDto cartDetailsDto = new CartDetailsDto(cartItemFullDtoList, 29.90);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
         Mockito.when(cartDetailsDtoMapperMock.map(any(Cart.class))).thenReturn(cartDetailsDto);
 
         //when
@@ -145,7 +159,7 @@ class CartServiceTest {
         assertEquals(29.90, cartDetailsDtoResult.getTotalCost());
         assertEquals(2, cartDetailsDtoResult.getCartItems().size());
         assertEquals("Pillsner", cartDetailsDtoResult.getCartItems().get(0).getProductName());
-        Mockito.verify(userRepositoryMock).findByEmail("test@mail.com");
+        Mockito.verify(userIdentityServiceMock).findByEmail("test@mail.com");
         Mockito.verify(cartDetailsDtoMapperMock).map(any(Cart.class));
     }
 
@@ -154,14 +168,14 @@ class CartServiceTest {
         //given
         String nonExistingEmail = "notExist@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
 
         //when
         Optional<CartDetailsDto> userCart = cartService.findUserCart("notExist@mail.com");
 
         //then
         assertEquals(Optional.empty(), userCart);
-        Mockito.verify(userRepositoryMock).findByEmail(nonExistingEmail);
+        Mockito.verify(userIdentityServiceMock).findByEmail(nonExistingEmail);
     }
 
     @Test
@@ -172,7 +186,7 @@ class CartServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
         
         //when
         Optional<CartDetailsDto> userCartResult = cartService.findUserCart("test@mail.com");
@@ -194,9 +208,9 @@ class CartServiceTest {
         cart.setId(1L);
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(userRepositoryMock.findByCartId(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userRepositoryMock.findById(1L)).thenReturn(Optional.of(user));
 
         //when
         cartService.deleteCartWithoutIncreasingStock("test@mail.com");
@@ -205,7 +219,7 @@ class CartServiceTest {
         ArgumentCaptor<Cart> cartArgumentCaptor = ArgumentCaptor.forClass(Cart.class);
         Mockito.verify(cartRepositoryMock).delete(cartArgumentCaptor.capture());
         assertNull(user.getCart());
-        Mockito.verify(userRepositoryMock).save(user);
+        Mockito.verify(userIdentityServiceMock).evict("test@mail.com");
     }
 
     @Test
@@ -213,7 +227,7 @@ class CartServiceTest {
         //given
         String nonExistingEmail = "notExist@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -231,7 +245,7 @@ class CartServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -261,14 +275,16 @@ class CartServiceTest {
         cartItems.add(cartItem);
         cart.setCartItems(cartItems);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
+        Mockito.when(userRepositoryMock.findById(1L)).thenReturn(Optional.of(user));
         Mockito.doNothing().when(cartItemRepositoryMock).deleteAll(any());
 
         //when
         cartService.deleteCartWithIncreasingStock("test@mail.com");
 
         //then
+        Mockito.verify(stockReservationServiceMock).releaseCart(1L);
         ArgumentCaptor<Cart> cartArgumentCaptor = ArgumentCaptor.forClass(Cart.class);
         Mockito.verify(cartRepositoryMock).delete(cartArgumentCaptor.capture());
         assertNull(user.getCart());
@@ -283,7 +299,7 @@ class CartServiceTest {
         //given
         String nonExistingEmail = "notExist@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -302,7 +318,7 @@ class CartServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -333,12 +349,13 @@ class CartServiceTest {
         cartItems.add(cartItem);
         cart.setCartItems(cartItems);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         cartService.clearCart("test@mail.com");
 
         //then
+        Mockito.verify(stockReservationServiceMock).releaseCart(cart.getId());
         Mockito.verify(cartItemRepositoryMock).deleteAllByCart_Id(eq(cart.getId()));
     }
 
@@ -350,7 +367,7 @@ class CartServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         IllegalStateException exc = assertThrows(IllegalStateException.class,
@@ -365,7 +382,7 @@ class CartServiceTest {
         //given
         String nonExistingEmail = "notExist@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingEmail)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -374,4 +391,8 @@ class CartServiceTest {
         //then
         assertEquals("User not found", exc.getMessage());
     }
-}
\ No newline at end of file
+
+    private static UserIdentity identityOf(User user) {
+        return new UserIdentity(user.getId(), user.getCart() == null ? null : user.getCart().getId(), Set.of());
+    }
+}
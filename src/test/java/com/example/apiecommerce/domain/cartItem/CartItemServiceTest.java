@@ -8,10 +8,10 @@ import com.example.apiecommerce.domain.cartItem.dto.CartItemDto;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemFullDto;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemUpdateQuantityDto;
 import com.example.apiecommerce.domain.product.Product;
-import com.example.apiecommerce.domain.product.ProductRepository;
-import com.example.apiecommerce.domain.product.ProductService;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
 import com.example.apiecommerce.domain.user.User;
-import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +20,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.ConcurrencyFailureException;
 
 import java.util.HashSet;
 import java.util.Optional;
@@ -37,7 +38,7 @@ class CartItemServiceTest {
     private CartItemDtoMapper cartItemDtoMapperMock;
 
     @Mock
-    private UserRepository userRepositoryMock;
+    private UserIdentityService userIdentityServiceMock;
 
     @Mock
     private CartService cartServiceMock;
@@ -49,16 +50,13 @@ class CartItemServiceTest {
     private CartItemFullDtoMapper cartItemFullDtoMapperCart;
 
     @Mock
-    private ProductService productServiceMock;
-
-    @Mock
-    private ProductRepository productRepositoryMock;
+    private StockReservationService stockReservationServiceMock;
 
     private CartItemService cartItemService;
 
     @BeforeEach
     void setUp() {
-    cartItemService = new CartItemService(cartItemRepositoryMock, cartItemDtoMapperMock, userRepositoryMock, cartServiceMock, cartRepositoryMock, cartItemFullDtoMapperCart, productServiceMock, productRepositoryMock);
+    cartItemService = new CartItemService(cartItemRepositoryMock, cartItemDtoMapperMock, userIdentityServiceMock, cartServiceMock, cartRepositoryMock, cartItemFullDtoMapperCart, stockReservationServiceMock);
     }
 
     @Test
@@ -86,7 +84,7 @@ class CartItemServiceTest {
 
         CartItemFullDto cartItemFullDto = new CartItemFullDto(1L, 2L, 1L, 1L, "Pillsner", 10.80);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(cartItemDtoMapperMock.map(cartItemDto)).thenReturn(cartItem);
         Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
         Mockito.when(cartItemRepositoryMock.save(Mockito.any())).thenReturn(cartItem);
@@ -96,7 +94,7 @@ class CartItemServiceTest {
         CartItemFullDto cartItemFullDtoResult = cartItemService.addCartItemToCart("test@mail.com", cartItemDto);
 
         //then
-        Mockito.verify(productServiceMock).reduceProductQuantityInDbByOne(1L);
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, 1L);
         ArgumentCaptor<CartItem> cartItemArgumentCaptor = ArgumentCaptor.forClass(CartItem.class);
         Mockito.verify(cartItemRepositoryMock).save(cartItemArgumentCaptor.capture());
         CartItem captorValue = cartItemArgumentCaptor.getValue();
@@ -115,7 +113,7 @@ class CartItemServiceTest {
         String nonExistingUser = "nonExistUser@mail.com";
         CartItemDto cartItemDto = new CartItemDto();
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -147,7 +145,7 @@ class CartItemServiceTest {
         cartItem.setId(1L);
         cartItem.setCart(newCart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(cartServiceMock.createCart("test@mail.com")).thenAnswer(invocation -> {
             user.setCart(newCart);
             return newCartDto;
@@ -189,19 +187,15 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(cartItemRepositoryMock.existsById(1L)).thenReturn(true);
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         cartItemService.deleteCartItem(1L, "test@mail.com");
 
         //then
-        ArgumentCaptor<Long> argumentCaptor = ArgumentCaptor.forClass(Long.class);
-        Mockito.verify(cartItemRepositoryMock).deleteById(argumentCaptor.capture());
-        Mockito.verify(productServiceMock).updateProductQuantityInDb(1L, -2L);
+        Mockito.verify(cartItemRepositoryMock).deleteCartItemById(1L);
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, -2L);
     }
 
     @Test
@@ -211,7 +205,7 @@ class CartItemServiceTest {
         cartItem.setId(1L);
         String nonExistingUser = "nonExistUser@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -231,16 +225,17 @@ class CartItemServiceTest {
         cart.setId(1L);
         cart.setCartItems(new HashSet<>());
 
-        cartItem.setCart(cart);
+        Cart otherCart = new Cart();
+        otherCart.setId(2L);
+        cartItem.setCart(otherCart);
 
         User user = new User();
         user.setId(1L);
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         // when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -261,9 +256,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.empty());
 
         // when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -290,11 +284,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(cartItemRepositoryMock.existsById(1L)).thenReturn(true);
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         // when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -331,18 +322,98 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
+        Mockito.when(cartItemRepositoryMock.updateCartItemQuantity(1L, 2L, 5L)).thenReturn(1);
 
         //when
         cartItemService.updateCartItemQuantity(1L, cartItemUpdateQuantityDto, "test@mail.com");
 
         //then
-        assertEquals(5L, cartItem.getCartItemQuantity());
-        Mockito.verify(cartItemRepositoryMock, Mockito.times(2)).findById(1L);
-        Mockito.verify(productServiceMock).updateProductQuantityInDb(1L, 3L);
+        Mockito.verify(cartItemRepositoryMock).findOwnershipById(1L);
+        Mockito.verify(cartItemRepositoryMock).updateCartItemQuantity(1L, 2L, 5L);
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, 3L);
+    }
+
+    @Test
+    void shouldRetryWithCurrentQuantityWhenCartItemQuantityChangedConcurrently() {
+        //given
+        CartItemUpdateQuantityDto cartItemUpdateQuantityDto = new CartItemUpdateQuantityDto();
+        cartItemUpdateQuantityDto.setCartItemQuantity(5L);
+
+        CartItem cartItem = new CartItem();
+        cartItem.setId(1L);
+        cartItem.setCartItemQuantity(2L);
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cartItem.setCart(cart);
+        Product product = new Product();
+        product.setId(1L);
+        cartItem.setProduct(product);
+        CartItem changedCartItem = new CartItem();
+        changedCartItem.setId(1L);
+        changedCartItem.setCartItemQuantity(3L);
+        changedCartItem.setCart(cart);
+        changedCartItem.setProduct(product);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@mail.com");
+        user.setCart(cart);
+
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L))
+                .thenReturn(Optional.of(ownershipOf(cartItem)))
+                .thenReturn(Optional.of(ownershipOf(changedCartItem)));
+        Mockito.when(cartItemRepositoryMock.updateCartItemQuantity(1L, 2L, 5L)).thenReturn(0);
+        Mockito.when(cartItemRepositoryMock.updateCartItemQuantity(1L, 3L, 5L)).thenReturn(1);
+
+        //when
+        cartItemService.updateCartItemQuantity(1L, cartItemUpdateQuantityDto, "test@mail.com");
+
+        //then
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, 3L);
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, -1L);
+        Mockito.verify(cartItemRepositoryMock).updateCartItemQuantity(1L, 3L, 5L);
+    }
+
+    @Test
+    void shouldThrowConflictWhenCartItemQuantityChangedConcurrentlyTwice() {
+        //given
+        CartItemUpdateQuantityDto cartItemUpdateQuantityDto = new CartItemUpdateQuantityDto();
+        cartItemUpdateQuantityDto.setCartItemQuantity(5L);
+
+        CartItem cartItem = new CartItem();
+        cartItem.setId(1L);
+        cartItem.setCartItemQuantity(2L);
+        Cart cart = new Cart();
+        cart.setId(1L);
+        cartItem.setCart(cart);
+        Product product = new Product();
+        product.setId(1L);
+        cartItem.setProduct(product);
+        CartItem changedCartItem = new CartItem();
+        changedCartItem.setId(1L);
+        changedCartItem.setCartItemQuantity(3L);
+        changedCartItem.setCart(cart);
+        changedCartItem.setProduct(product);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@mail.com");
+        user.setCart(cart);
+
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L))
+                .thenReturn(Optional.of(ownershipOf(cartItem)))
+                .thenReturn(Optional.of(ownershipOf(changedCartItem)));
+        Mockito.when(cartItemRepositoryMock.updateCartItemQuantity(1L, 2L, 5L)).thenReturn(0);
+        Mockito.when(cartItemRepositoryMock.updateCartItemQuantity(1L, 3L, 5L)).thenReturn(0);
+
+        //when
+        //then
+        assertThrows(ConcurrencyFailureException.class,
+                () -> cartItemService.updateCartItemQuantity(1L, cartItemUpdateQuantityDto, "test@mail.com"));
     }
 
     @Test
@@ -355,7 +426,7 @@ class CartItemServiceTest {
         cartItem.setId(1L);
         String nonExistingUser = "nonExistUser@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -376,7 +447,7 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -399,9 +470,8 @@ class CartItemServiceTest {
         cart.setId(1L);
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -432,10 +502,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -469,13 +537,12 @@ class CartItemServiceTest {
         Product product = new Product();
         product.setId(1L);
         product.setProductQuantity(10L);
+        cartItem.setProduct(product);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
         Mockito.doThrow(new IllegalArgumentException("Not enough quantity in stock"))
-                .when(productServiceMock).updateProductQuantityInDb(1L, 13L);
+                .when(stockReservationServiceMock).adjustReservation(1L, 1L, 13L);
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -509,18 +576,16 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         cartItemService.increaseCartItemQuantityByOne(1L, "test@mail.com");
 
         //then
-        Mockito.verify(cartItemRepositoryMock, Mockito.times(2)).findById(1L);
-        assertEquals(3L, cartItem.getCartItemQuantity());
-        Mockito.verify(productServiceMock).reduceProductQuantityInDbByOne(1L);
+        Mockito.verify(cartItemRepositoryMock).findOwnershipById(1L);
+        Mockito.verify(cartItemRepositoryMock).adjustCartItemQuantity(1L, 1L);
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, 1L);
     }
 
     @Test
@@ -530,7 +595,7 @@ class CartItemServiceTest {
         cartItem.setId(1L);
         String nonExistingUser = "nonExistUser@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -548,7 +613,7 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -568,9 +633,8 @@ class CartItemServiceTest {
         cart.setId(1L);
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -598,10 +662,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -629,25 +691,24 @@ class CartItemServiceTest {
         product.setProductPrice(10.80);
         product.setId(1L);
         product.setProductQuantity(0L);
+        cartItem.setProduct(product);
 
         User user = new User();
         user.setId(1L);
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
-        Mockito.doThrow(new IllegalArgumentException("Product is unavailable"))
-                .when(productServiceMock).reduceProductQuantityInDbByOne(1L);
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
+        Mockito.doThrow(new IllegalArgumentException("Not enough quantity in stock"))
+                .when(stockReservationServiceMock).adjustReservation(1L, 1L, 1L);
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
                 () -> cartItemService.increaseCartItemQuantityByOne(1L, "test@mail.com"));
 
         //then
-        assertEquals("Product is unavailable", exc.getMessage());
+        assertEquals("Not enough quantity in stock", exc.getMessage());
     }
 
     @Test
@@ -671,9 +732,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(userCart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(userCart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -707,18 +767,17 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
+
+        Mockito.when(cartItemRepositoryMock.adjustCartItemQuantity(1L, -1L)).thenReturn(1);
 
         //when
         cartItemService.reduceCartItemQuantityByOne(1L, "test@mail.com");
 
         //then
-        Mockito.verify(cartItemRepositoryMock, Mockito.times(2)).findById(1L);
-        assertEquals(1L, cartItem.getCartItemQuantity());
-        Mockito.verify(productServiceMock).increaseProductQuantityInDbByOne(1L);
+        Mockito.verify(cartItemRepositoryMock).findOwnershipById(1L);
+        Mockito.verify(stockReservationServiceMock).adjustReservation(1L, 1L, -1L);
     }
 
     @Test
@@ -728,7 +787,7 @@ class CartItemServiceTest {
         cartItem.setId(1L);
         String nonExistingUser = "nonExistUser@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -746,7 +805,7 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -766,9 +825,8 @@ class CartItemServiceTest {
         cart.setId(1L);
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -796,10 +854,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -830,9 +886,8 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(userCart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(userCart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -866,10 +921,10 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(productRepositoryMock.getProductByCartItemId(1L)).thenReturn(Optional.of(product));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
+
+        Mockito.when(cartItemRepositoryMock.adjustCartItemQuantity(1L, -1L)).thenReturn(0);
 
         //when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -904,10 +959,9 @@ class CartItemServiceTest {
         cartItem.setProduct(product);
         CartItemFullDto cartItemFullDto = new CartItemFullDto(1L, 2L, 1L, 1L, "Pillsner", 10.80);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.of(ownershipOf(cartItem)));
         Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.of(cartItem));
-        Mockito.when(cartItemRepositoryMock.existsById(1L)).thenReturn(true);
         Mockito.when(cartItemFullDtoMapperCart.map(Mockito.any())).thenReturn(cartItemFullDto);
 
         //when
@@ -928,7 +982,7 @@ class CartItemServiceTest {
         cartItem.setId(1L);
         String nonExistingUser = "nonExistUser@mail.com";
 
-        Mockito.when(userRepositoryMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail(nonExistingUser)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -946,7 +1000,7 @@ class CartItemServiceTest {
         user.setEmail("test@mail.com");
         user.setCart(null);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -966,9 +1020,8 @@ class CartItemServiceTest {
         cart.setId(1L);
         user.setCart(cart);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(cartRepositoryMock.findById(1L)).thenReturn(Optional.of(cart));
-        Mockito.when(cartItemRepositoryMock.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartItemRepositoryMock.findOwnershipById(1L)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -977,4 +1030,13 @@ class CartItemServiceTest {
         //then
         assertEquals("Cart item not found", exc.getMessage());
     }
-}
\ No newline at end of file
+
+    private static CartItemOwnership ownershipOf(CartItem cartItem) {
+        return new CartItemOwnership(cartItem.getId(), cartItem.getCart().getId(),
+                cartItem.getProduct() == null ? null : cartItem.getProduct().getId(), cartItem.getCartItemQuantity());
+    }
+
+    private static UserIdentity identityOf(User user) {
+        return new UserIdentity(user.getId(), user.getCart() == null ? null : user.getCart().getId(), Set.of());
+    }
+}
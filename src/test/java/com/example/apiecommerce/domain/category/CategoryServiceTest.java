@@ -1,6 +1,9 @@
 package com.example.apiecommerce.domain.category;
 
 import com.example.apiecommerce.domain.category.dto.CategoryDto;
+import com.example.apiecommerce.domain.product.CatalogCache;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.product.ProductSearchIndex;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -23,11 +27,17 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepositoryMock;
 
+    @Mock
+    private ProductRepository productRepositoryMock;
+
+    @Mock
+    private ProductSearchIndex productSearchIndexMock;
+
     private CategoryService categoryService;
 
     @BeforeEach
     void init(){
-        categoryService = new CategoryService(categoryRepositoryMock);
+        categoryService = new CategoryService(categoryRepositoryMock, productRepositoryMock, productSearchIndexMock, new CatalogCache(true, 100, Duration.ofMinutes(5)));
     }
 
     @Test
@@ -134,6 +144,8 @@ class CategoryServiceTest {
         assertTrue(result.isPresent());
         CategoryDto resultCategoryDto = result.get();
         assertEquals("Piwo", resultCategoryDto.getCategoryName());
+        Mockito.verify(productRepositoryMock).incrementVersionByCategoryId(1L);
+        Mockito.verify(productSearchIndexMock).renameCategory(1L, "Piwo");
     }
 
     @Test
@@ -180,5 +192,24 @@ class CategoryServiceTest {
 
         //then
         Mockito.verify(categoryRepositoryMock, Mockito.times(1)).deleteById(existingCategory);
+        Mockito.verify(productSearchIndexMock).deleteCategory(existingCategory);
+    }
+
+    @Test
+    void shouldReloadCategoriesOnlyAfterCategoryIsAdded() {
+        //given
+        CategoryDto categoryDto = new CategoryDto();
+        categoryDto.setCategoryName("Wino");
+        Mockito.when(categoryRepositoryMock.findAll()).thenReturn(List.of(new Category(1L, "Piwo")));
+        Mockito.when(categoryRepositoryMock.save(Mockito.any())).thenReturn(new Category(2L, "Wino"));
+
+        //when
+        categoryService.findAllCategories();
+        categoryService.findAllCategories();
+        categoryService.addCategory(categoryDto);
+        categoryService.findAllCategories();
+
+        //then
+        Mockito.verify(categoryRepositoryMock, Mockito.times(2)).findAll();
     }
-}
\ No newline at end of file
+}
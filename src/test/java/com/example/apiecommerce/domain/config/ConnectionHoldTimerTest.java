@@ -0,0 +1,77 @@
+package com.example.apiecommerce.domain.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionHoldTimerTest {
+
+    @Mock
+    private DataSource dataSourceMock;
+
+    @Mock
+    private Connection connectionMock;
+
+    private final ConnectionHoldTimer connectionHoldTimer = new ConnectionHoldTimer();
+
+    @Test
+    void shouldMeasureTimeBetweenAcquiringAndClosingConnection() throws Exception {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        DataSource dataSource = connectionHoldTimer.timed(dataSourceMock);
+        connectionHoldTimer.start();
+
+        //when
+        Connection connection = dataSource.getConnection();
+        Thread.sleep(5);
+        connection.close();
+        connection.close();
+
+        //then
+        Duration holdTime = connectionHoldTimer.stop();
+        assertTrue(holdTime.toMillis() >= 5, holdTime.toString());
+        verify(connectionMock, times(2)).close();
+    }
+
+    @Test
+    void shouldNotMeasureConnectionsOutsideOfRequest() throws SQLException {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        DataSource dataSource = connectionHoldTimer.timed(dataSourceMock);
+
+        //when
+        Connection connection = dataSource.getConnection();
+
+        //then
+        assertSame(connectionMock, connection);
+        assertEquals(Duration.ZERO, connectionHoldTimer.stop());
+    }
+
+    @Test
+    void shouldAddUpAllConnectionsOfRequest() throws Exception {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        DataSource dataSource = connectionHoldTimer.timed(dataSourceMock);
+        connectionHoldTimer.start();
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            Connection connection = dataSource.getConnection();
+            Thread.sleep(3);
+            connection.close();
+        }
+
+        //then
+        assertTrue(connectionHoldTimer.stop().toMillis() >= 6);
+    }
+}
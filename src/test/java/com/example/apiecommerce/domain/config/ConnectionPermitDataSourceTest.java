@@ -0,0 +1,126 @@
+package com.example.apiecommerce.domain.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPermitDataSourceTest {
+
+    @Mock
+    private DataSource dataSourceMock;
+
+    @Mock
+    private Connection connectionMock;
+
+    @Test
+    void shouldRejectConnectionWhenNoPermitFreesUpInTime() throws SQLException {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(dataSourceMock, 1, Duration.ofMillis(20));
+        dataSource.getConnection();
+
+        //when
+        SQLTransientConnectionException exc = assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        //then
+        assertEquals("No connection permit available within 20 ms (1 permits, 0 waiting)", exc.getMessage());
+        verify(dataSourceMock, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws SQLException {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(dataSourceMock, 2, Duration.ofMillis(20));
+        Connection connection = dataSource.getConnection();
+
+        //when
+        connection.close();
+        connection.close();
+
+        //then
+        assertEquals(2, dataSource.availablePermits());
+        verify(connectionMock, times(2)).close();
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFailsToProvideConnection() throws SQLException {
+        //given
+        when(dataSourceMock.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(dataSourceMock, 1, Duration.ofMillis(20));
+
+        //when
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        //then
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void shouldPassOnlyRemainingTimeoutToPoolAfterWaitingForPermit() throws Exception {
+        //given
+        AtomicLong poolTimeout = new AtomicLong(-1);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(dataSourceMock, 1, Duration.ofSeconds(5),
+                timeoutMillis -> {
+                    poolTimeout.set(timeoutMillis);
+                    return connectionMock;
+                });
+        Connection connection = dataSource.getConnection();
+        long firstTimeout = poolTimeout.get();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Connection> waiting = executor.submit(() -> dataSource.getConnection());
+            while (dataSource.waitingThreads() == 0) {
+                Thread.onSpinWait();
+            }
+
+            //when
+            Thread.sleep(300);
+            connection.close();
+
+            //then
+            assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+            assertTrue(firstTimeout > 4_500, "first timeout " + firstTimeout);
+            assertTrue(poolTimeout.get() <= 4_700, "remaining timeout " + poolTimeout.get());
+            verify(dataSourceMock, never()).getConnection();
+        }
+    }
+
+    @Test
+    void shouldHandPermitToWaitingThreadWhenConnectionIsClosed() throws Exception {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(dataSourceMock, 1, Duration.ofSeconds(5));
+        Connection connection = dataSource.getConnection();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Connection> waiting = executor.submit(() -> dataSource.getConnection());
+            while (dataSource.waitingThreads() == 0) {
+                Thread.onSpinWait();
+            }
+
+            //when
+            connection.close();
+
+            //then
+            assertNotNull(waiting.get(5, TimeUnit.SECONDS));
+            assertEquals(0, dataSource.availablePermits());
+        }
+    }
+}
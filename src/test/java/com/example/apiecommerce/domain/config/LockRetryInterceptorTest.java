@@ -0,0 +1,113 @@
+package com.example.apiecommerce.domain.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class LockRetryInterceptorTest {
+
+    @Mock
+    private MethodInvocation invocationMock;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LockRetryInterceptor lockRetryInterceptor;
+
+    @BeforeEach
+    void init() {
+        lockRetryInterceptor = new LockRetryInterceptor(() -> meterRegistry, 3, Duration.ZERO, Duration.ZERO);
+    }
+
+    @Test
+    void shouldRetryAfterDeadlockAndReturnResult() throws Throwable {
+        //given
+        Mockito.when(invocationMock.getMethod()).thenReturn(String.class.getMethod("trim"));
+        Mockito.when(invocationMock.proceed())
+                .thenThrow(new CannotAcquireLockException("Deadlock found"))
+                .thenThrow(new CannotAcquireLockException("Deadlock found"))
+                .thenReturn("done");
+
+        //when
+        Object result = lockRetryInterceptor.invoke(invocationMock);
+
+        //then
+        assertEquals("done", result);
+        Mockito.verify(invocationMock, Mockito.times(3)).proceed();
+        assertEquals(2, meterRegistry.get("db.lock.retries")
+                .tag("method", "String.trim")
+                .tag("exception", "CannotAcquireLockException")
+                .counter().count());
+        assertNull(meterRegistry.find("db.lock.failures").counter());
+    }
+
+    @Test
+    void shouldRethrowLockFailureWhenAttemptsAreExhausted() throws Throwable {
+        //given
+        Mockito.when(invocationMock.getMethod()).thenReturn(String.class.getMethod("trim"));
+        Mockito.when(invocationMock.proceed()).thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+        //when
+        PessimisticLockingFailureException exc = assertThrows(PessimisticLockingFailureException.class,
+                () -> lockRetryInterceptor.invoke(invocationMock));
+
+        //then
+        assertEquals("Lock wait timeout exceeded", exc.getMessage());
+        Mockito.verify(invocationMock, Mockito.times(3)).proceed();
+        assertEquals(1, meterRegistry.get("db.lock.failures").tag("method", "String.trim").counter().count());
+    }
+
+    @Test
+    void shouldRethrowLockFailureAndKeepInterruptFlagWhenInterruptedDuringBackOff() throws Throwable {
+        //given
+        LockRetryInterceptor interceptor = new LockRetryInterceptor(() -> meterRegistry, 3, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        CannotAcquireLockException lockFailure = new CannotAcquireLockException("Deadlock found");
+        Mockito.when(invocationMock.getMethod()).thenReturn(String.class.getMethod("trim"));
+        Mockito.when(invocationMock.proceed()).thenThrow(lockFailure);
+        Thread.currentThread().interrupt();
+
+        //when
+        PessimisticLockingFailureException exc = assertThrows(PessimisticLockingFailureException.class,
+                () -> interceptor.invoke(invocationMock));
+        boolean interrupted = Thread.interrupted();
+
+        //then
+        assertTrue(interrupted);
+        assertSame(lockFailure, exc);
+        Mockito.verify(invocationMock, Mockito.times(1)).proceed();
+    }
+
+    @Test
+    void shouldNotRetryOtherExceptions() throws Throwable {
+        //given
+        Mockito.when(invocationMock.getMethod()).thenReturn(String.class.getMethod("trim"));
+        Mockito.when(invocationMock.proceed()).thenThrow(new IllegalArgumentException("Not enough quantity in stock"));
+
+        //when
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () -> lockRetryInterceptor.invoke(invocationMock));
+
+        //then
+        assertEquals("Not enough quantity in stock", exc.getMessage());
+        Mockito.verify(invocationMock, Mockito.times(1)).proceed();
+        assertNull(meterRegistry.find("db.lock.retries").counter());
+    }
+
+    @Test
+    void shouldRecognizeLockFailureWrappedInAnotherException() {
+        //when & then
+        assertTrue(LockRetryInterceptor.isLockFailure(new RuntimeException(new jakarta.persistence.LockTimeoutException())));
+        assertFalse(LockRetryInterceptor.isLockFailure(new RuntimeException(new IllegalStateException())));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.apiecommerce.domain.config;
+
+import com.example.apiecommerce.domain.category.Category;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.category.CategoryService;
+import com.example.apiecommerce.domain.category.dto.CategoryDto;
+import com.example.apiecommerce.domain.delivery.DeliveryService;
+import com.example.apiecommerce.domain.delivery.dto.DeliveryUpdateDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldServeRepeatedDeliveryLookupsFromCache() {
+        //given
+        deliveryService.findDeliveryById(1L);
+        double hits = cacheGets("reference.delivery", "hit");
+        statistics.clear();
+
+        //when
+        String deliveryName = deliveryService.findDeliveryById(1L).orElseThrow().getDeliveryName();
+
+        //then
+        assertEquals("Poczta", deliveryName);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("delivery").getHitCount());
+        assertEquals(hits + 1, cacheGets("reference.delivery", "hit"));
+    }
+
+    @Test
+    void shouldServeUpdatedDeliveryAfterAdminUpdate() {
+        //given
+        deliveryService.findDeliveryById(2L);
+        String originalName = deliveryService.findDeliveryById(2L).orElseThrow().getDeliveryName();
+
+        try {
+            //when
+            deliveryService.updateDelivery(2L, deliveryUpdate("Kurier ekspresowy"));
+
+            //then
+            assertEquals("Kurier ekspresowy", deliveryService.findDeliveryById(2L).orElseThrow().getDeliveryName());
+        } finally {
+            deliveryService.updateDelivery(2L, deliveryUpdate(originalName));
+        }
+    }
+
+    @Test
+    void shouldServeRenamedCategoryAfterReplace() {
+        //given
+        String originalName = categoryName(3L);
+
+        try {
+            //when
+            categoryService.replaceCategory(3L, new CategoryDto(null, "Whiskey"));
+
+            //then
+            assertEquals("Whiskey", categoryName(3L));
+        } finally {
+            categoryService.replaceCategory(3L, new CategoryDto(null, originalName));
+        }
+    }
+
+    @Test
+    void shouldInvalidateCachedCategoryExistenceWhenCategoryIsAdded() {
+        //given
+        assertFalse(categoryRepository.existsCategoryByCategoryNameIgnoreCase("Sake"));
+        statistics.clear();
+        assertFalse(categoryRepository.existsCategoryByCategoryNameIgnoreCase("Sake"));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        CategoryDto category = categoryService.addCategory(new CategoryDto(null, "Sake"));
+
+        try {
+            //when
+            boolean exists = categoryRepository.existsCategoryByCategoryNameIgnoreCase("sake");
+
+            //then
+            assertTrue(exists);
+        } finally {
+            categoryService.deleteCategory(category.getId());
+        }
+        assertFalse(categoryRepository.existsCategoryByCategoryNameIgnoreCase("Sake"));
+    }
+
+    private String categoryName(long categoryId) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                categoryRepository.findById(categoryId).map(Category::getCategoryName).orElseThrow());
+    }
+
+    private double cacheGets(String cache, String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", cache).tag("result", result).functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static DeliveryUpdateDto deliveryUpdate(String deliveryName) {
+        DeliveryUpdateDto deliveryUpdateDto = new DeliveryUpdateDto();
+        deliveryUpdateDto.setDeliveryName(deliveryName);
+        return deliveryUpdateDto;
+    }
+}
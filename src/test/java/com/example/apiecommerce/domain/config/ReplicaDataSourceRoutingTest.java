@@ -0,0 +1,79 @@
+package com.example.apiecommerce.domain.config;
+
+import com.example.apiecommerce.domain.cart.CartService;
+import com.example.apiecommerce.domain.product.ProductService;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "replica-datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1"})
+class ReplicaDataSourceRoutingTest {
+    private static final String USER_MAIL = "user@mail.com";
+    private static final long USER_CART_ID = 1L;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldSendReadOnlyTransactionsToReplica() {
+        //given
+        long primaryCheckouts = checkouts("primary");
+        long replicaCheckouts = checkouts("replica");
+
+        //when
+        productService.findAllProductsAfter(null, 5, "id", "asc");
+
+        //then
+        assertEquals(primaryCheckouts, checkouts("primary"));
+        assertEquals(replicaCheckouts + 1, checkouts("replica"));
+    }
+
+    @Test
+    void shouldSendWritesToPrimary() {
+        //given
+        long primaryCheckouts = checkouts("primary");
+        long replicaCheckouts = checkouts("replica");
+
+        //when
+        stockReservationService.releaseCart(USER_CART_ID);
+
+        //then
+        assertEquals(primaryCheckouts + 1, checkouts("primary"));
+        assertEquals(replicaCheckouts, checkouts("replica"));
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReadMustFollowWrite() {
+        //given
+        long primaryCheckouts = checkouts("primary");
+        long replicaCheckouts = checkouts("replica");
+
+        //when
+        cartService.findUserCart(USER_MAIL);
+
+        //then
+        assertTrue(checkouts("primary") > primaryCheckouts);
+        assertEquals(replicaCheckouts, checkouts("replica"));
+    }
+
+    private long checkouts(String pool) {
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.apiecommerce.domain.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SimulatedLatencyDataSourceTest {
+    private static final Duration LATENCY = Duration.ofMillis(50);
+
+    @Mock
+    private DataSource dataSourceMock;
+
+    @Mock
+    private Connection connectionMock;
+
+    @Mock
+    private PreparedStatement preparedStatementMock;
+
+    @Test
+    void shouldDelayStatementExecutionAndCommit() throws SQLException {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.prepareStatement("SELECT 1")).thenReturn(preparedStatementMock);
+        when(preparedStatementMock.executeUpdate()).thenReturn(1);
+        SimulatedLatencyDataSource dataSource = new SimulatedLatencyDataSource(dataSourceMock, LATENCY);
+
+        //when
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT 1");
+        long prepared = System.nanoTime();
+        int updated = statement.executeUpdate();
+        connection.commit();
+        long finished = System.nanoTime();
+
+        //then
+        assertEquals(1, updated);
+        assertTrue(Duration.ofNanos(prepared - start).compareTo(LATENCY) < 0);
+        assertTrue(Duration.ofNanos(finished - prepared).compareTo(LATENCY.multipliedBy(2)) >= 0);
+        verify(preparedStatementMock).executeUpdate();
+        verify(connectionMock).commit();
+    }
+
+    @Test
+    void shouldNotDelayCallsThatDoNotReachTheDatabase() throws SQLException {
+        //given
+        when(dataSourceMock.getConnection()).thenReturn(connectionMock);
+        when(connectionMock.getAutoCommit()).thenReturn(true);
+        SimulatedLatencyDataSource dataSource = new SimulatedLatencyDataSource(dataSourceMock, Duration.ofSeconds(10));
+
+        //when
+        long start = System.nanoTime();
+        boolean autoCommit = dataSource.getConnection().getAutoCommit();
+
+        //then
+        assertTrue(autoCommit);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(10)) < 0);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.apiecommerce.domain.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatementCounterTest {
+
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+
+    @Test
+    void shouldCountStatementsBetweenStartAndStop() {
+        //given
+        sqlStatementCounter.start();
+
+        //when
+        sqlStatementCounter.inspect("select 1");
+        String inspected = sqlStatementCounter.inspect("select 2");
+
+        //then
+        assertEquals("select 2", inspected);
+        assertEquals(2, sqlStatementCounter.stop());
+    }
+
+    @Test
+    void shouldIgnoreStatementsOutsideOfRequest() {
+        //when
+        sqlStatementCounter.inspect("select 1");
+
+        //then
+        assertEquals(0, sqlStatementCounter.stop());
+    }
+
+    @Test
+    void shouldResetCounterForNextRequest() {
+        //given
+        sqlStatementCounter.start();
+        sqlStatementCounter.inspect("select 1");
+        sqlStatementCounter.stop();
+
+        //when
+        sqlStatementCounter.start();
+
+        //then
+        assertEquals(0, sqlStatementCounter.stop());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.apiecommerce.domain.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+    private static final String SHARED_KEY = "bdc6e4de-a1b9-49d4-bdec-39c2f0c62261";
+
+    private final Instant now = Instant.now();
+    private final AtomicLong nanos = new AtomicLong(42);
+    private JwtService jwtServiceSpy;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void init() {
+        jwtServiceSpy = Mockito.spy(new JwtService(SHARED_KEY));
+        verifiedTokenCache = new VerifiedTokenCache(jwtServiceSpy, 100, Duration.ofMinutes(15),
+                Clock.fixed(now, ZoneOffset.UTC), nanos::get);
+    }
+
+    @Test
+    void shouldVerifyTokenOnlyOnceForRepeatedRequests() {
+        //given
+        String token = jwtServiceSpy.createSignedJwt("user@mail.com", List.of("ROLE_USER"));
+
+        //when
+        Authentication first = verifiedTokenCache.authenticate(token);
+        Authentication second = verifiedTokenCache.authenticate(token);
+
+        //then
+        Mockito.verify(jwtServiceSpy, Mockito.times(1)).verifySignature(Mockito.any());
+        assertEquals("user@mail.com", second.getName());
+        assertEquals(List.of("ROLE_USER"), second.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertTrue(second.isAuthenticated());
+        assertNotSame(first, second);
+        assertEquals(1, verifiedTokenCache.stats().hitCount());
+        assertEquals(1, verifiedTokenCache.stats().missCount());
+    }
+
+    @Test
+    void shouldNotCacheRejectedToken() {
+        //given
+        String token = jwtServiceSpy.createSignedJwt("user@mail.com", List.of("ROLE_USER"));
+        String tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        //when
+        //then
+        assertThrows(JwtAuthenticationException.class, () -> verifiedTokenCache.authenticate(tamperedToken));
+        assertThrows(JwtAuthenticationException.class, () -> verifiedTokenCache.authenticate(tamperedToken));
+        assertThrows(JwtAuthenticationException.class, () -> verifiedTokenCache.authenticate("not-a-token"));
+        assertEquals(0, verifiedTokenCache.size());
+        assertEquals(3, verifiedTokenCache.stats().missCount());
+    }
+
+    @Test
+    void shouldVerifyTokenAgainAfterMaximumTtl() {
+        //given
+        String token = jwtServiceSpy.createSignedJwt("user@mail.com", List.of("ROLE_USER"));
+        verifiedTokenCache.authenticate(token);
+
+        //when
+        nanos.addAndGet(Duration.ofMinutes(16).toNanos());
+        verifiedTokenCache.authenticate(token);
+
+        //then
+        Mockito.verify(jwtServiceSpy, Mockito.times(2)).verifySignature(Mockito.any());
+    }
+
+    @Test
+    void shouldNotKeepTokenLongerThanItsExpiration() throws Exception {
+        //given
+        String token = signedToken(now.plusSeconds(30));
+        verifiedTokenCache.authenticate(token);
+
+        //when
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        verifiedTokenCache.authenticate(token);
+        nanos.addAndGet(Duration.ofSeconds(25).toNanos());
+        verifiedTokenCache.authenticate(token);
+
+        //then
+        Mockito.verify(jwtServiceSpy, Mockito.times(2)).verifySignature(Mockito.any());
+    }
+
+    @Test
+    void shouldMeasureTokenLifetimeWithCacheTicker() throws Exception {
+        //given
+        nanos.addAndGet(Duration.ofSeconds(20).toNanos());
+        String token = signedToken(now.plusSeconds(50));
+        verifiedTokenCache.authenticate(token);
+
+        //when
+        nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+        verifiedTokenCache.authenticate(token);
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        verifiedTokenCache.authenticate(token);
+
+        //then
+        Mockito.verify(jwtServiceSpy, Mockito.times(2)).verifySignature(Mockito.any());
+        assertEquals(1, verifiedTokenCache.stats().hitCount());
+    }
+
+    private String signedToken(Instant expiresAt) throws Exception {
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+                .subject("user@mail.com")
+                .expirationTime(Date.from(expiresAt))
+                .claim("authorities", List.of("ROLE_USER"))
+                .build();
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claimsSet);
+        signedJWT.sign(new MACSigner(SHARED_KEY.getBytes()));
+        return signedJWT.serialize();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.apiecommerce.domain.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadModeTest {
+
+    @Autowired
+    private ServletWebServerApplicationContext applicationContext;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldHandleRequestsOnVirtualThreads() {
+        //given
+        TomcatWebServer webServer = (TomcatWebServer) applicationContext.getWebServer();
+
+        //when
+        Object executor = webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+
+        //then
+        assertInstanceOf(VirtualThreadExecutor.class, executor);
+    }
+
+    @Test
+    void shouldRunAsyncTasksOnVirtualThreads() throws Exception {
+        //when
+        boolean virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual()).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertTrue(virtual);
+    }
+
+    @Test
+    void shouldLimitConnectionsToPoolSize() throws Exception {
+        //given
+        ConnectionPermitDataSource permitDataSource = dataSource.unwrap(ConnectionPermitDataSource.class);
+        int poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+
+        //when
+        Long categories = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM category", Long.class);
+
+        //then
+        assertTrue(categories > 0);
+        assertEquals(poolSize, permitDataSource.availablePermits());
+        assertEquals(poolSize, meterRegistry.get("jdbc.connections.permits.available").gauge().value());
+    }
+}
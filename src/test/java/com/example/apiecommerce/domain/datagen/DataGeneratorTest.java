@@ -0,0 +1,99 @@
+package com.example.apiecommerce.domain.datagen;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataGeneratorTest {
+
+    private final PasswordEncoder passwordEncoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() throws Exception {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:datagen-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/master.xml");
+        liquibase.setContexts("dev");
+        liquibase.afterPropertiesSet();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void shouldGenerateConfiguredVolumesOnTopOfSeedData() {
+        //given
+        DataGenerator dataGenerator = generator(settings(120, 30, 200));
+
+        //when
+        dataGenerator.generate();
+
+        //then
+        assertEquals(20 + 120, count("SELECT COUNT(*) FROM product"));
+        assertEquals(30, count("SELECT COUNT(*) FROM users WHERE email LIKE '%@load.test'"));
+        assertEquals(30, count("SELECT COUNT(*) FROM users u JOIN user_roles ur ON ur.user_id = u.id JOIN user_role r " +
+                "ON r.id = ur.role_id WHERE r.name = 'USER' AND u.email LIKE '%@load.test'"));
+        assertEquals(30, count("SELECT COUNT(*) FROM address a JOIN users u ON u.id = a.user_id WHERE u.email LIKE '%@load.test'"));
+        assertEquals(5 + 200, count("SELECT COUNT(*) FROM orders"));
+        assertEquals(0, count("SELECT COUNT(*) FROM orders o JOIN address a ON a.id = o.address_id WHERE a.user_id <> o.user_id"));
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT order_id, product_id FROM order_item GROUP BY order_id, product_id " +
+                "HAVING COUNT(*) > 1)"));
+    }
+
+    @Test
+    void shouldConcentrateOrderItemsOnHotProducts() {
+        //given
+        DataGenerator dataGenerator = generator(settings(500, 10, 1000));
+
+        //when
+        dataGenerator.generate();
+
+        //then
+        long generatedItems = count("SELECT COUNT(*) FROM order_item WHERE order_id > 5");
+        long hotItems = count("SELECT COUNT(*) FROM order_item oi JOIN product p ON p.id = oi.product_id " +
+                "WHERE oi.order_id > 5 AND p.product_quantity = 1000000");
+        assertTrue(hotItems > generatedItems / 2, hotItems + " of " + generatedItems + " order items use hot products");
+    }
+
+    @Test
+    void shouldAppendUsersAndKeepOrderItemSequenceAhead() {
+        //given
+        DataGenerator dataGenerator = generator(settings(10, 5, 20));
+
+        //when
+        dataGenerator.generate();
+        dataGenerator.generate();
+
+        //then
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE email = 'user10@load.test'"));
+        long maxOrderItemId = count("SELECT MAX(id) FROM order_item");
+        assertTrue(count("SELECT NEXT VALUE FOR order_item_seq") > maxOrderItemId);
+    }
+
+    @Test
+    void shouldRejectOrdersWithoutUsers() {
+        assertThrows(IllegalArgumentException.class, () -> settings(10, 0, 5));
+    }
+
+    private DataGenerator generator(DataGeneratorSettings settings) {
+        return new DataGenerator(dataSource, new DataSourceTransactionManager(dataSource), passwordEncoder, settings, null);
+    }
+
+    private DataGeneratorSettings settings(int products, int users, int orders) {
+        return new DataGeneratorSettings(4, products, users, orders, 4, 2, 0.02, 0.8, 50, 7L, "Loadtest123!", false);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.apiecommerce.domain.inventory;
+
+import com.example.apiecommerce.domain.product.CatalogCache;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.product.ProductSearchIndex;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseInventoryEngineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+    private static final String HOLD_SQL = "UPDATE stock_reservation_total SET reserved_quantity = reserved_quantity + ?" +
+            " WHERE product_id = ? AND (SELECT p.product_quantity FROM product p WHERE p.id = ?) - reserved_quantity >= ?";
+    private static final String CREATE_TOTAL_SQL = "INSERT INTO stock_reservation_total (product_id, reserved_quantity)" +
+            " SELECT p.id, 0 FROM product p WHERE p.id = ?" +
+            " AND NOT EXISTS (SELECT 1 FROM stock_reservation_total t WHERE t.product_id = p.id)";
+    private static final String RELEASE_SQL = "UPDATE stock_reservation_total SET reserved_quantity = reserved_quantity - ? WHERE product_id = ?";
+
+    @Mock
+    private ProductRepository productRepositoryMock;
+
+    @Mock
+    private ProductSearchIndex productSearchIndexMock;
+
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+
+    private DatabaseInventoryEngine inventoryEngine;
+
+    @BeforeEach
+    void init() {
+        inventoryEngine = new DatabaseInventoryEngine(productRepositoryMock, productSearchIndexMock,
+                new CatalogCache(true, 100, Duration.ofMinutes(5)), jdbcTemplateMock);
+    }
+
+    @Test
+    void shouldReserveWhenOtherCartsLeaveEnoughStock() {
+        //given
+        Mockito.when(jdbcTemplateMock.update(HOLD_SQL, 3L, 5L, 5L, 3L)).thenReturn(1);
+
+        //when & then
+        assertDoesNotThrow(() -> inventoryEngine.reserve(5L, 1L, 2L, 5L, NOW));
+        Mockito.verifyNoInteractions(productRepositoryMock);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenOtherCartsHoldTheRemainingStock() {
+        //given
+        Mockito.when(jdbcTemplateMock.update(HOLD_SQL, 1L, 5L, 5L, 1L)).thenReturn(0);
+        Mockito.when(productRepositoryMock.existsById(5L)).thenReturn(true);
+        Mockito.when(jdbcTemplateMock.update(CREATE_TOTAL_SQL, 5L)).thenReturn(0);
+
+        //when
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
+                () -> inventoryEngine.reserve(5L, 1L, 1L, 2L, NOW));
+
+        //then
+        assertEquals("Not enough quantity in stock", exc.getMessage());
+    }
+
+    @Test
+    void shouldCreateReservedTotalOnFirstReservationOfProduct() {
+        //given
+        Mockito.when(jdbcTemplateMock.update(HOLD_SQL, 2L, 5L, 5L, 2L)).thenReturn(0, 1);
+        Mockito.when(productRepositoryMock.existsById(5L)).thenReturn(true);
+        Mockito.when(jdbcTemplateMock.update(CREATE_TOTAL_SQL, 5L)).thenReturn(1);
+
+        //when
+        inventoryEngine.reserve(5L, 1L, 0L, 2L, NOW);
+
+        //then
+        Mockito.verify(jdbcTemplateMock, Mockito.times(2)).update(HOLD_SQL, 2L, 5L, 5L, 2L);
+    }
+
+    @Test
+    void shouldHoldQuantityWhenAnotherTransactionCreatedTheReservedTotalFirst() {
+        //given
+        Mockito.when(jdbcTemplateMock.update(HOLD_SQL, 2L, 5L, 5L, 2L)).thenReturn(0, 1);
+        Mockito.when(productRepositoryMock.existsById(5L)).thenReturn(true);
+        Mockito.when(jdbcTemplateMock.update(CREATE_TOTAL_SQL, 5L)).thenReturn(0);
+
+        //when & then
+        assertDoesNotThrow(() -> inventoryEngine.reserve(5L, 1L, 0L, 2L, NOW));
+        Mockito.verify(jdbcTemplateMock, Mockito.times(2)).update(HOLD_SQL, 2L, 5L, 5L, 2L);
+    }
+
+    @Test
+    void shouldReleaseHeldQuantityWhenReservationShrinks() {
+        //when
+        inventoryEngine.reserve(5L, 1L, 4L, 1L, NOW);
+
+        //then
+        Mockito.verify(jdbcTemplateMock).update(RELEASE_SQL, 3L, 5L);
+        Mockito.verifyNoMoreInteractions(jdbcTemplateMock);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenReservingNotExistingProduct() {
+        //given
+        Mockito.when(jdbcTemplateMock.update(HOLD_SQL, 1L, 99L, 99L, 1L)).thenReturn(0);
+        Mockito.when(productRepositoryMock.existsById(99L)).thenReturn(false);
+
+        //when
+        EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
+                () -> inventoryEngine.reserve(99L, 1L, 0L, 1L, NOW));
+
+        //then
+        assertEquals("Product not found", exc.getMessage());
+    }
+
+    @Test
+    void shouldLockCartProductsAndSellThemInOneUpdate() {
+        //given
+        Mockito.when(productRepositoryMock.lockAllByIdInOrder(Set.of(1L, 3L))).thenReturn(List.of(1L, 3L));
+        Mockito.when(productRepositoryMock.decreaseProductQuantityByCart(1L, NOW)).thenReturn(2);
+
+        //when
+        inventoryEngine.sell(1L, Map.of(1L, 2L, 3L, 1L), Map.of(1L, 2L, 3L, 1L), NOW);
+
+        //then
+        ArgumentCaptor<List<Object[]>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = Mockito.inOrder(jdbcTemplateMock, productRepositoryMock);
+        inOrder.verify(jdbcTemplateMock).batchUpdate(Mockito.eq(RELEASE_SQL), batchCaptor.capture());
+        inOrder.verify(productRepositoryMock).lockAllByIdInOrder(Set.of(1L, 3L));
+        inOrder.verify(productRepositoryMock, Mockito.times(1)).decreaseProductQuantityByCart(1L, NOW);
+        assertArrayEquals(new Object[]{2L, 1L}, batchCaptor.getValue().get(0));
+        assertArrayEquals(new Object[]{1L, 3L}, batchCaptor.getValue().get(1));
+        Mockito.verify(productSearchIndexMock).adjustQuantity(1L, -2L);
+        Mockito.verify(productSearchIndexMock).adjustQuantity(3L, -1L);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAnyCartProductIsNotAvailable() {
+        //given
+        Mockito.when(productRepositoryMock.lockAllByIdInOrder(Set.of(1L, 3L))).thenReturn(List.of(1L, 3L));
+        Mockito.when(productRepositoryMock.decreaseProductQuantityByCart(1L, NOW)).thenReturn(1);
+
+        //when & then
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () ->
+                inventoryEngine.sell(1L, Map.of(1L, 2L, 3L, 1L), Map.of(), NOW));
+        assertEquals("Not enough quantity in stock", exc.getMessage());
+        Mockito.verify(productSearchIndexMock, Mockito.never()).adjustQuantity(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    void shouldNotTouchStockWhenSellingEmptyCart() {
+        //when
+        inventoryEngine.sell(1L, Map.of(), Map.of(), NOW);
+
+        //then
+        Mockito.verifyNoInteractions(productRepositoryMock, jdbcTemplateMock);
+    }
+
+    @Test
+    void shouldLockProductsAndRestockThemInOneBatchOrderedById() {
+        //given
+        Map<Long, Long> quantities = Map.of(7L, 1L, 2L, 3L);
+        Mockito.when(productRepositoryMock.lockAllByIdInOrder(quantities.keySet())).thenReturn(List.of(2L, 7L));
+
+        //when
+        inventoryEngine.restock(quantities);
+
+        //then
+        ArgumentCaptor<List<Object[]>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = Mockito.inOrder(productRepositoryMock, jdbcTemplateMock);
+        inOrder.verify(productRepositoryMock).lockAllByIdInOrder(quantities.keySet());
+        inOrder.verify(jdbcTemplateMock).batchUpdate(Mockito.eq("UPDATE product SET product_quantity = product_quantity + ?, version = version + 1 WHERE id = ?"),
+                batchCaptor.capture());
+        assertArrayEquals(new Object[]{3L, 2L}, batchCaptor.getValue().get(0));
+        assertArrayEquals(new Object[]{1L, 7L}, batchCaptor.getValue().get(1));
+        Mockito.verify(productSearchIndexMock).adjustQuantity(2L, 3L);
+        Mockito.verify(productSearchIndexMock).adjustQuantity(7L, 1L);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRestockingNotExistingProduct() {
+        //given
+        Mockito.when(productRepositoryMock.lockAllByIdInOrder(Set.of(99L))).thenReturn(List.of());
+
+        //when
+        EntityNotFoundException exc = assertThrows(EntityNotFoundException.class, () -> inventoryEngine.restock(Map.of(99L, 2L)));
+
+        //then
+        assertEquals("Product not found", exc.getMessage());
+        Mockito.verifyNoInteractions(jdbcTemplateMock);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.apiecommerce.domain.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedCounterTest {
+
+    @Test
+    void shouldTakeWholeQuantityAcrossStripes() {
+        //given
+        StripedCounter counter = new StripedCounter(10, 4);
+
+        //when
+        boolean taken = counter.tryTake(10);
+
+        //then
+        assertTrue(taken);
+        assertEquals(0, counter.sum());
+        assertFalse(counter.tryTake(1));
+    }
+
+    @Test
+    void shouldRejectTakeLargerThanAvailableQuantity() {
+        //given
+        StripedCounter counter = new StripedCounter(5, 8);
+
+        //when
+        boolean taken = counter.tryTake(6);
+
+        //then
+        assertFalse(taken);
+        assertEquals(5, counter.sum());
+    }
+
+    @Test
+    void shouldNotServeTakesWhileQuantityIsBelowZero() {
+        //given
+        StripedCounter counter = new StripedCounter(3, 4);
+        counter.add(-5);
+
+        //when
+        counter.add(1);
+        boolean taken = counter.tryTake(1);
+
+        //then
+        assertFalse(taken);
+        assertEquals(-1, counter.sum());
+        counter.add(2);
+        assertTrue(counter.tryTake(1));
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenNumberOfStripesIsNotPowerOfTwo() {
+        //when
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () -> new StripedCounter(1, 6));
+
+        //then
+        assertEquals("Number of stripes must be a power of two", exc.getMessage());
+    }
+
+    @Test
+    void shouldNeverTakeMoreThanAvailableWhenManyThreadsTakeConcurrently() throws Exception {
+        //given
+        int threads = 32;
+        StripedCounter counter = new StripedCounter(1_000, 8);
+        AtomicLong taken = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < threads; i++) {
+            int quantity = 1 + i % 3;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < 100; attempt++) {
+                    if (counter.tryTake(quantity)) {
+                        taken.addAndGet(quantity);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        assertTrue(taken.get() <= 1_000, "taken " + taken.get());
+        assertEquals(1_000 - taken.get(), counter.sum());
+    }
+}
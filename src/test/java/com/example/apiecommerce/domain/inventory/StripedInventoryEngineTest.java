@@ -0,0 +1,159 @@
+package com.example.apiecommerce.domain.inventory;
+
+import com.example.apiecommerce.domain.cart.Cart;
+import com.example.apiecommerce.domain.cart.CartRepository;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.product.Product;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.reservation.StockReservation;
+import com.example.apiecommerce.domain.reservation.StockReservationRepository;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"inventory.engine=striped", "inventory.flush-interval=PT1H"})
+class StripedInventoryEngineTest {
+    private static final int CARTS = 16;
+    private static final long INITIAL_QUANTITY = 40L;
+
+    @Autowired
+    private StripedInventoryEngine inventoryEngine;
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    private long productId;
+
+    private final List<Long> cartIds = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        Product product = new Product(null, "Striped SKU", 9.99, "Striped inventory test product", LocalDateTime.now(),
+                INITIAL_QUANTITY, categoryRepository.findById(1L).orElseThrow());
+        productId = productRepository.save(product).getId();
+        for (int i = 0; i < CARTS; i++) {
+            Cart cart = new Cart();
+            cart.setCreationDate(LocalDateTime.now());
+            cartIds.add(cartRepository.save(cart).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartRepository.deleteAllById(cartIds);
+        productRepository.deleteById(productId);
+    }
+
+    @Test
+    void shouldNotReserveMoreThanStockWhenManyCartsReserveConcurrently() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(CARTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (long cartId : cartIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int quantity = 1; quantity <= 5; quantity++) {
+                    try {
+                        stockReservationService.adjustReservation(cartId, productId, quantity);
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        long reservedQuantity = reservedQuantity();
+        assertTrue(reservedQuantity <= INITIAL_QUANTITY, "reserved " + reservedQuantity + " of " + INITIAL_QUANTITY);
+        assertTrue(rejected.get() > 0);
+        assertEquals(INITIAL_QUANTITY - reservedQuantity, inventoryEngine.availableQuantity(productId));
+    }
+
+    @Test
+    void shouldJournalCheckoutAndApplyItOnFlush() {
+        //given
+        long cartId = cartIds.get(0);
+        stockReservationService.adjustReservation(cartId, productId, 3);
+
+        //when
+        stockReservationService.checkout(cartId, Map.of(productId, 3L));
+
+        //then
+        assertEquals(INITIAL_QUANTITY, productRepository.findById(productId).orElseThrow().getProductQuantity());
+        assertEquals(INITIAL_QUANTITY - 3, inventoryJournal.availableQuantity(productId).orElseThrow());
+        assertEquals(INITIAL_QUANTITY - 3, inventoryEngine.availableQuantity(productId));
+        assertEquals(0, reservedQuantity());
+
+        inventoryEngine.flush();
+        assertEquals(INITIAL_QUANTITY - 3, productRepository.findById(productId).orElseThrow().getProductQuantity());
+        assertEquals(INITIAL_QUANTITY - 3, inventoryJournal.availableQuantity(productId).orElseThrow());
+    }
+
+    @Test
+    void shouldGiveQuantityBackWhenReservationIsReleased() {
+        //given
+        long firstCartId = cartIds.get(0);
+        long secondCartId = cartIds.get(1);
+        stockReservationService.adjustReservation(firstCartId, productId, INITIAL_QUANTITY);
+        assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.adjustReservation(secondCartId, productId, 1));
+
+        //when
+        stockReservationService.releaseCart(firstCartId);
+
+        //then
+        stockReservationService.adjustReservation(secondCartId, productId, 1);
+        assertEquals(INITIAL_QUANTITY - 1, inventoryEngine.availableQuantity(productId));
+    }
+
+    private long reservedQuantity() {
+        long reservedQuantity = 0;
+        for (StockReservation reservation : stockReservationRepository.findAll()) {
+            if (reservation.getProductId() == productId) {
+                reservedQuantity += reservation.getQuantity();
+            }
+        }
+        return reservedQuantity;
+    }
+}
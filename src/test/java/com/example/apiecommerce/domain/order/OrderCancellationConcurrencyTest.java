@@ -0,0 +1,134 @@
+package com.example.apiecommerce.domain.order;
+
+import com.example.apiecommerce.domain.address.AddressRepository;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.delivery.DeliveryRepository;
+import com.example.apiecommerce.domain.orderItem.OrderItem;
+import com.example.apiecommerce.domain.orderItem.OrderItemRepository;
+import com.example.apiecommerce.domain.product.Product;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OrderCancellationConcurrencyTest {
+    private static final int ORDERS = 16;
+    private static final int PRODUCTS = 4;
+    private static final long INITIAL_QUANTITY = 10L;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product(null, "Shared SKU " + i, 4.99, "Cancellation test product", LocalDateTime.now(),
+                    INITIAL_QUANTITY, categoryRepository.findById(1L).orElseThrow());
+            productIds.add(productRepository.save(product).getId());
+        }
+        List<Product> products = new ArrayList<>();
+        productRepository.findAllById(productIds).forEach(products::add);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setOrderDate(LocalDateTime.now());
+            order.setOrderStatus(OrderStatus.NEW);
+            order.setPaymentStatus(PaymentStatus.PENDING);
+            order.setUser(userRepository.findById(1L).orElseThrow());
+            order.setAddress(addressRepository.findById(1L).orElseThrow());
+            order.setDelivery(deliveryRepository.findById(1L).orElseThrow());
+            Order savedOrder = orderRepository.save(order);
+            List<OrderItem> orderItems = new ArrayList<>();
+            for (int j = 0; j < PRODUCTS; j++) {
+                OrderItem orderItem = new OrderItem();
+                orderItem.setOrder(savedOrder);
+                orderItem.setProduct(products.get((i + j) % PRODUCTS));
+                orderItem.setOrderItemQuantity(1L);
+                orderItems.add(orderItem);
+            }
+            orderItemRepository.saveAll(orderItems);
+            orderIds.add(savedOrder.getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderIds.forEach(orderId -> orderRepository.findById(orderId).ifPresent(orderRepository::delete));
+        productRepository.deleteAllById(productIds);
+    }
+
+    @Test
+    void shouldRestockSharedProductsWhenOrdersAreCancelledAndDeletedConcurrently() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(ORDERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < ORDERS; i++) {
+            long orderId = orderIds.get(i);
+            boolean cancel = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (cancel) {
+                    orderService.cancelOrderById(orderId);
+                } else {
+                    orderService.deleteOrderById(orderId);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        for (long productId : productIds) {
+            assertEquals(INITIAL_QUANTITY + ORDERS, productRepository.findById(productId).orElseThrow().getProductQuantity());
+        }
+        for (int i = 0; i < ORDERS; i += 2) {
+            assertEquals(OrderStatus.CANCELLED, orderRepository.findById(orderIds.get(i)).orElseThrow().getOrderStatus());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.apiecommerce.domain.order;
+
+import com.example.apiecommerce.domain.cart.Cart;
+import com.example.apiecommerce.domain.cart.CartRepository;
+import com.example.apiecommerce.domain.cart.CartService;
+import com.example.apiecommerce.domain.cartItem.CartItem;
+import com.example.apiecommerce.domain.cartItem.CartItemRepository;
+import com.example.apiecommerce.domain.order.dto.OrderFullDto;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.user.User;
+import com.example.apiecommerce.domain.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class OrderCheckoutStatementCountTest {
+    private static final String USER_MAIL = "user@mail.com";
+    private static final long USER_ADDRESS_ID = 2L;
+    private static final long DELIVERY_ID = 1L;
+    private static final long SEQUENCE_REFILL_STATEMENTS = 1L;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldUseSameNumberOfStatementsForSmallAndLargeCheckout() {
+        //given
+        long smallCheckoutStatements = countCheckoutStatements(2);
+
+        //when
+        long largeCheckoutStatements = countCheckoutStatements(15);
+
+        //then
+        assertTrue(Math.abs(largeCheckoutStatements - smallCheckoutStatements) <= SEQUENCE_REFILL_STATEMENTS,
+                "small checkout: " + smallCheckoutStatements + ", large checkout: " + largeCheckoutStatements);
+    }
+
+    @Test
+    void shouldCreateOrderItemForEveryCartLine() {
+        //given
+        fillUserCart(15);
+
+        //when
+        OrderFullDto order = orderService.createOrder(USER_MAIL, USER_ADDRESS_ID, DELIVERY_ID);
+        entityManager.flush();
+
+        //then
+        assertEquals(15, order.getOrderItems().size());
+        assertTrue(order.getOrderItems().stream().allMatch(orderItem -> orderItem.getId() != null));
+    }
+
+    private long countCheckoutStatements(int cartLines) {
+        fillUserCart(cartLines);
+        statistics.clear();
+        orderService.createOrder(USER_MAIL, USER_ADDRESS_ID, DELIVERY_ID);
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void fillUserCart(int cartLines) {
+        User user = userRepository.findByEmail(USER_MAIL).orElseThrow();
+        if (user.getCart() == null) {
+            cartService.createCart(USER_MAIL);
+        } else {
+            cartService.clearCart(USER_MAIL);
+        }
+        Cart cart = cartRepository.findById(user.getCart().getId()).orElseThrow();
+        for (long productId = 1; productId <= cartLines; productId++) {
+            CartItem cartItem = new CartItem();
+            cartItem.setCartItemQuantity(1L);
+            cartItem.setCart(cart);
+            cartItem.setProduct(productRepository.findById(productId).orElseThrow());
+            cartItemRepository.save(cartItem);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
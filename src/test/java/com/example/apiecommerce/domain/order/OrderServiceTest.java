@@ -9,15 +9,17 @@ import com.example.apiecommerce.domain.cart.dto.CartDetailsDto;
 import com.example.apiecommerce.domain.cartItem.dto.CartItemFullDto;
 import com.example.apiecommerce.domain.delivery.Delivery;
 import com.example.apiecommerce.domain.delivery.DeliveryRepository;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
 import com.example.apiecommerce.domain.order.dto.OrderFullDto;
 import com.example.apiecommerce.domain.order.dto.OrderMainInfoDto;
 import com.example.apiecommerce.domain.orderItem.OrderItem;
 import com.example.apiecommerce.domain.orderItem.OrderItemRepository;
 import com.example.apiecommerce.domain.product.Product;
 import com.example.apiecommerce.domain.product.ProductRepository;
-import com.example.apiecommerce.domain.product.ProductService;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
 import com.example.apiecommerce.domain.user.User;
-import com.example.apiecommerce.domain.user.UserRepository;
+import com.example.apiecommerce.domain.user.UserIdentity;
+import com.example.apiecommerce.domain.user.UserIdentityService;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +32,7 @@ import org.springframework.data.domain.*;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -41,7 +44,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class OrderServiceTest {
 
     @Mock
-    private UserRepository userRepositoryMock;
+    private UserIdentityService userIdentityServiceMock;
 
     @Mock
     private CartService cartServiceMock;
@@ -68,13 +71,16 @@ class OrderServiceTest {
     private DeliveryRepository deliveryRepositoryMock;
 
     @Mock
-    private ProductService productServiceMock;
+    private InventoryEngine inventoryEngineMock;
+
+    @Mock
+    private StockReservationService stockReservationServiceMock;
 
     private OrderService orderService;
 
     @BeforeEach
     void setUp() {
-        orderService = new OrderService(userRepositoryMock, cartServiceMock, dateTimeProviderMock, addressRepositoryMock, productRepositoryMock, orderDtoMapperMock, orderRepositoryMock, orderItemRepositoryMock, deliveryRepositoryMock, productServiceMock);
+        orderService = new OrderService(userIdentityServiceMock, cartServiceMock, dateTimeProviderMock, addressRepositoryMock, productRepositoryMock, orderDtoMapperMock, orderRepositoryMock, orderItemRepositoryMock, deliveryRepositoryMock, inventoryEngineMock, stockReservationServiceMock);
     }
 
     @Test
@@ -120,13 +126,12 @@ class OrderServiceTest {
         order.setOrderStatus(OrderStatus.NEW);
         order.setDelivery(delivery);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
         Mockito.when(cartServiceMock.findUserCart("test@mail.com")).thenReturn(Optional.of(cartDetailsDto));
         Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
         Mockito.when(deliveryRepositoryMock.findById(1L)).thenReturn(Optional.of(delivery));
         Mockito.when(orderRepositoryMock.save(Mockito.any(Order.class))).thenReturn(order);
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product1));
-        Mockito.when(productRepositoryMock.findById(2L)).thenReturn(Optional.of(product2));
+        Mockito.when(productRepositoryMock.findAllById(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
 
         Mockito.doNothing().when(cartServiceMock).deleteCartWithoutIncreasingStock("test@mail.com");
         OrderFullDto orderFullDto = new OrderFullDto();
@@ -147,10 +152,51 @@ class OrderServiceTest {
         assertEquals(OrderStatus.NEW.name(), orderFullDtoResult.getOrderStatus());
 
         Mockito.verify(orderRepositoryMock, Mockito.times(1)).save(Mockito.any(Order.class));
+        Mockito.verify(productRepositoryMock, Mockito.times(1)).findAllById(List.of(1L, 2L));
+        Mockito.verify(productRepositoryMock, Mockito.never()).findById(Mockito.anyLong());
         Mockito.verify(orderItemRepositoryMock, Mockito.times(1)).saveAll(Mockito.anySet());
+        Mockito.verify(stockReservationServiceMock).checkout(1L, Map.of(1L, 2L, 2L, 1L));
         Mockito.verify(cartServiceMock, Mockito.times(1)).deleteCartWithoutIncreasingStock("test@mail.com");
     }
 
+    @Test
+    void shouldNotCreateOrderWhenStockIsNotAvailable() {
+        // given
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("test@mail.com");
+
+        Cart cart = new Cart();
+        cart.setId(1L);
+        user.setCart(cart);
+
+        CartItemFullDto cartItemFullDto = new CartItemFullDto(1L, 3L, 1L, 1L, "Pillsner", 10.50);
+        CartDetailsDto cartDetailsDto = new CartDetailsDto(List.of(cartItemFullDto), 31.50);
+
+        Address address = new Address();
+        address.setId(1L);
+        address.setUser(user);
+
+        Delivery delivery = new Delivery();
+        delivery.setId(1L);
+
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(cartServiceMock.findUserCart("test@mail.com")).thenReturn(Optional.of(cartDetailsDto));
+        Mockito.when(addressRepositoryMock.findById(1L)).thenReturn(Optional.of(address));
+        Mockito.when(deliveryRepositoryMock.findById(1L)).thenReturn(Optional.of(delivery));
+        Mockito.doThrow(new IllegalArgumentException("Not enough quantity in stock"))
+                .when(stockReservationServiceMock).checkout(1L, Map.of(1L, 3L));
+
+        // when
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder("test@mail.com", 1L, 1L));
+
+        // then
+        assertEquals("Not enough quantity in stock", exc.getMessage());
+        Mockito.verify(orderRepositoryMock, Mockito.never()).save(Mockito.any(Order.class));
+        Mockito.verify(cartServiceMock, Mockito.never()).deleteCartWithoutIncreasingStock("test@mail.com");
+    }
+
     @Test
     void shouldReturnOrderWhenUserIsOwner() {
         // given
@@ -173,8 +219,8 @@ class OrderServiceTest {
         order.setPaymentStatus(PaymentStatus.PENDING);
         order.setOrderStatus(OrderStatus.NEW);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(orderRepositoryMock.findFullViewById(1L)).thenReturn(Optional.of(order));
 
         OrderFullDto orderFullDto = new OrderFullDto();
         orderFullDto.setId(1L);
@@ -187,8 +233,8 @@ class OrderServiceTest {
         OrderFullDto orderFullDtoResult = orderService.findOrderById(1L, "test@mail.com").orElseThrow();
 
         //then
-        Mockito.verify(userRepositoryMock).findByEmail("test@mail.com");
-        Mockito.verify(orderRepositoryMock).findById(1L);
+        Mockito.verify(userIdentityServiceMock).findByEmail("test@mail.com");
+        Mockito.verify(orderRepositoryMock).findFullViewById(1L);
         Mockito.verify(orderDtoMapperMock).map(order);
         assertNotNull(orderFullDtoResult);
         assertEquals(1L, orderFullDtoResult.getId());
@@ -200,7 +246,7 @@ class OrderServiceTest {
     @Test
     void shouldThrowExceptionWhenUserNotFound() {
         // given
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.empty());
 
         // when & then
         assertThrows(EntityNotFoundException.class, () -> orderService.findOrderById(1L, "test@mail.com"));
@@ -213,8 +259,8 @@ class OrderServiceTest {
         user.setId(1L);
         user.setEmail("test@mail.com");
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(orderRepositoryMock.findFullViewById(1L)).thenReturn(Optional.empty());
 
         // when & then
         assertThrows(EntityNotFoundException.class, () -> orderService.findOrderById(1L, "test@mail.com"));
@@ -235,8 +281,8 @@ class OrderServiceTest {
         order.setId(1L);
         order.setUser(user2);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user1));
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user1)));
+        Mockito.when(orderRepositoryMock.findFullViewById(1L)).thenReturn(Optional.of(order));
 
         // when & then
         assertThrows(IllegalArgumentException.class, () -> orderService.findOrderById(1L, "test@mail.com"));
@@ -263,14 +309,13 @@ class OrderServiceTest {
         order.setId(1L);
         order.setOrderItems(Set.of(orderItem1, orderItem2));
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findForUpdateById(1L)).thenReturn(Optional.of(order));
 
         // when
         orderService.deleteOrderById(1L);
 
         // then
-        Mockito.verify(productServiceMock).updateProductQuantityInDb(1L, -2L);
-        Mockito.verify(productServiceMock).updateProductQuantityInDb(2L, -3L);
+        Mockito.verify(inventoryEngineMock).restock(Map.of(1L, 2L, 2L, 3L));
         Mockito.verify(orderRepositoryMock).delete(order);
     }
 
@@ -281,13 +326,13 @@ class OrderServiceTest {
         order.setId(1L);
         order.setOrderItems(Collections.emptySet());
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findForUpdateById(1L)).thenReturn(Optional.of(order));
 
         // when
         orderService.deleteOrderById(1L);
 
         // then
-        Mockito.verify(productServiceMock, Mockito.never()).updateProductQuantityInDb(Mockito.anyLong(), Mockito.anyInt());
+        Mockito.verify(inventoryEngineMock, Mockito.never()).restock(Mockito.anyMap());
         Mockito.verify(orderRepositoryMock).delete(order);
     }
 
@@ -296,7 +341,7 @@ class OrderServiceTest {
         // given
         long nonExistingOrderId = 111L;
 
-        Mockito.when(orderRepositoryMock.findById(nonExistingOrderId)).thenReturn(Optional.empty());
+        Mockito.when(orderRepositoryMock.findForUpdateById(nonExistingOrderId)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -370,7 +415,7 @@ class OrderServiceTest {
         orderFullDto.setOrderPaymentStatus(PaymentStatus.PENDING.name());
         orderFullDto.setOrderStatus(OrderStatus.NEW.name());
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findFullViewById(1L)).thenReturn(Optional.of(order));
         Mockito.when(orderDtoMapperMock.map(order)).thenReturn(orderFullDto);
 
         //when
@@ -387,7 +432,7 @@ class OrderServiceTest {
         // given
         long nonExistingOrder = 111L;
 
-        Mockito.when(orderRepositoryMock.findById(nonExistingOrder)).thenReturn(Optional.empty());
+        Mockito.when(orderRepositoryMock.findFullViewById(nonExistingOrder)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -419,14 +464,13 @@ class OrderServiceTest {
         order.setOrderStatus(OrderStatus.NEW);
         order.setOrderItems(Set.of(orderItem1, orderItem2));
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findForUpdateById(1L)).thenReturn(Optional.of(order));
 
         // when
         orderService.cancelOrderById(1L);
 
         // then
-        Mockito.verify(productServiceMock).updateProductQuantityInDb(1L, -2L);
-        Mockito.verify(productServiceMock).updateProductQuantityInDb(2L, -3L);
+        Mockito.verify(inventoryEngineMock).restock(Map.of(1L, 2L, 2L, 3L));
         assertEquals(order.getOrderStatus(), OrderStatus.CANCELLED);
         assertEquals(0L, orderItem1.getOrderItemQuantity());
         assertEquals(0L, orderItem2.getOrderItemQuantity());
@@ -437,7 +481,7 @@ class OrderServiceTest {
         // given
         long nonExistingOrder = 111L;
 
-        Mockito.when(orderRepositoryMock.findById(nonExistingOrder)).thenReturn(Optional.empty());
+        Mockito.when(orderRepositoryMock.findForUpdateById(nonExistingOrder)).thenReturn(Optional.empty());
 
         //when
         EntityNotFoundException exc = assertThrows(EntityNotFoundException.class,
@@ -469,7 +513,7 @@ class OrderServiceTest {
         order.setOrderStatus(OrderStatus.SUCCESS);
         order.setOrderItems(Set.of(orderItem1, orderItem2));
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findForUpdateById(1L)).thenReturn(Optional.of(order));
 
         // when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -487,14 +531,14 @@ class OrderServiceTest {
         order.setOrderStatus(OrderStatus.NEW);
         order.setOrderItems(Collections.emptySet());
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findForUpdateById(1L)).thenReturn(Optional.of(order));
 
         // when
         orderService.cancelOrderById(1L);
 
         // then
         assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
-        Mockito.verifyNoInteractions(productServiceMock);
+        Mockito.verifyNoInteractions(inventoryEngineMock);
     }
 
     @Test
@@ -504,7 +548,7 @@ class OrderServiceTest {
         order.setId(1L);
         order.setOrderStatus(OrderStatus.CANCELLED);
 
-        Mockito.when(orderRepositoryMock.findById(1L)).thenReturn(Optional.of(order));
+        Mockito.when(orderRepositoryMock.findForUpdateById(1L)).thenReturn(Optional.of(order));
 
         // when
         IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
@@ -599,4 +643,8 @@ class OrderServiceTest {
         //then
         assertTrue(exc.getMessage().contains("Only orders with status 'NEW' can be changed into 'SUCCESS'"));
     }
-}
\ No newline at end of file
+
+    private static UserIdentity identityOf(User user) {
+        return new UserIdentity(user.getId(), user.getCart() == null ? null : user.getCart().getId(), Set.of());
+    }
+}
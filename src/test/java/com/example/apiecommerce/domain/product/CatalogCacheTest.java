@@ -0,0 +1,170 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.product.CatalogCache.CatalogQuery;
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CatalogCacheTest {
+
+    private CatalogCache catalogCache;
+
+    @BeforeEach
+    void init() {
+        catalogCache = new CatalogCache(true, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void shouldEvictOnlyQueriesContainingChangedProduct() {
+        //given
+        CatalogQuery firstPage = CatalogQuery.productPage(1, 2, "productName", "asc");
+        CatalogQuery secondPage = CatalogQuery.productPage(2, 2, "productName", "asc");
+        AtomicInteger firstPageLoads = new AtomicInteger();
+        AtomicInteger secondPageLoads = new AtomicInteger();
+        catalogCache.query(firstPage, counting(firstPageLoads, products(1L, 2L)));
+        catalogCache.query(secondPage, counting(secondPageLoads, products(3L, 4L)));
+
+        //when
+        catalogCache.evictProductQuantity(3L);
+        catalogCache.query(firstPage, counting(firstPageLoads, products(1L, 2L)));
+        catalogCache.query(secondPage, counting(secondPageLoads, products(3L, 4L)));
+
+        //then
+        assertEquals(1, firstPageLoads.get());
+        assertEquals(2, secondPageLoads.get());
+    }
+
+    @Test
+    void shouldEvictQueriesSortedByQuantityOnAnyQuantityChange() {
+        //given
+        CatalogQuery byQuantity = CatalogQuery.productPage(1, 2, "productQuantity", "desc");
+        AtomicInteger loads = new AtomicInteger();
+        catalogCache.query(byQuantity, counting(loads, products(1L, 2L)));
+
+        //when
+        catalogCache.evictProductQuantity(7L);
+        catalogCache.query(byQuantity, counting(loads, products(1L, 2L)));
+
+        //then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldKeepCategoriesWhenProductChanges() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        catalogCache.query(CatalogQuery.categories(), counting(loads, List.of("Piwo")));
+
+        //when
+        catalogCache.evictProduct(1L);
+        catalogCache.query(CatalogQuery.categories(), counting(loads, List.of("Piwo")));
+
+        //then
+        assertEquals(1, loads.get());
+        assertEquals(0.5, catalogCache.queryStats().hitRate());
+    }
+
+    @Test
+    void shouldTreatCategoryNameAndSortDirectionCaseInsensitively() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        catalogCache.query(CatalogQuery.categoryProductPage("Piwo", 1, 10, "id", "asc"), counting(loads, products(1L)));
+
+        //when
+        catalogCache.query(CatalogQuery.categoryProductPage("PIWO", 1, 10, "id", "ASC"), counting(loads, products(1L)));
+
+        //then
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldLoadMissesInReadOnlyTransactionAndServeHitsWithoutOne() {
+        //given
+        PlatformTransactionManager transactionManagerMock = mock(PlatformTransactionManager.class);
+        when(transactionManagerMock.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CatalogCache transactionalCache = new CatalogCache(transactionManagerMock, true, 100, Duration.ofMinutes(5));
+        AtomicInteger loads = new AtomicInteger();
+        transactionalCache.query(CatalogQuery.categories(), counting(loads, List.of("Piwo")));
+
+        //when
+        transactionalCache.query(CatalogQuery.categories(), counting(loads, List.of("Piwo")));
+
+        //then
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManagerMock).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldLetOtherThreadsEvictProductWhileItIsLoading() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Optional<ProductDto>> evictingLoader = () -> {
+            loads.incrementAndGet();
+            CompletableFuture.runAsync(() -> catalogCache.evictProductQuantity(1L)).orTimeout(5, TimeUnit.SECONDS).join();
+            return Optional.of(products(1L).get(0));
+        };
+
+        //when
+        Optional<ProductDto> loaded = catalogCache.product(1L, evictingLoader);
+        catalogCache.product(1L, counting(loads, Optional.of(products(1L).get(0))));
+
+        //then
+        assertEquals(1L, loaded.orElseThrow().getId());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldRethrowLoaderFailureAndLoadAgainOnNextRequest() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Optional<ProductDto>> failingLoader = () -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("Database unavailable");
+        };
+
+        //when
+        IllegalStateException exc = assertThrows(IllegalStateException.class, () -> catalogCache.product(1L, failingLoader));
+        Optional<ProductDto> loaded = catalogCache.product(1L, counting(loads, Optional.of(products(1L).get(0))));
+
+        //then
+        assertEquals("Database unavailable", exc.getMessage());
+        assertEquals(1L, loaded.orElseThrow().getId());
+        assertEquals(2, loads.get());
+    }
+
+    private static <T> Supplier<T> counting(AtomicInteger loads, T value) {
+        return () -> {
+            loads.incrementAndGet();
+            return value;
+        };
+    }
+
+    private static List<ProductDto> products(Long... ids) {
+        return Arrays.stream(ids)
+                .map(id -> {
+                    ProductDto productDto = new ProductDto();
+                    productDto.setId(id);
+                    return productDto;
+                })
+                .toList();
+    }
+}
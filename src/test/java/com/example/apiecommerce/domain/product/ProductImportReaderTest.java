@@ -0,0 +1,120 @@
+package com.example.apiecommerce.domain.product;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductImportReaderTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void shouldReadQuotedCsvFields() throws IOException {
+        //given
+        String csv = "productName,productPrice,description,productQuantity,categoryId\n" +
+                "Pilsner,8.8,\"Jasne, czeskie piwo\",20,1\n" +
+                "\"Porter \"\"Bałtycki\"\"\",12.5,\"Ciemne\nmocne piwo\",5,1\n";
+
+        //when
+        List<ProductImportReader.ImportRow> rows = readAll(ProductImportFormat.CSV, csv, 1000);
+
+        //then
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("Jasne, czeskie piwo", rows.get(0).product().getDescription());
+        assertEquals(8.8, rows.get(0).product().getProductPrice());
+        assertEquals(3, rows.get(1).line());
+        assertEquals("Porter \"Bałtycki\"", rows.get(1).product().getProductName());
+        assertEquals("Ciemne\nmocne piwo", rows.get(1).product().getDescription());
+        assertEquals(5L, rows.get(1).product().getProductQuantity());
+    }
+
+    @Test
+    void shouldReportInvalidCsvRowsAndContinue() throws IOException {
+        //given
+        String csv = "id,productName,productPrice,description,productQuantity,categoryName\r\n" +
+                "1,Pilsner,abc,Piwo,20,Piwo\r\n" +
+                "\r\n" +
+                "2,IPA,10.5,Piwo\r\n" +
+                ",Cydr,9.9,Jabłkowy,7,Cydr\r\n";
+
+        //when
+        List<ProductImportReader.ImportRow> rows = readAll(ProductImportFormat.CSV, csv, 1000);
+
+        //then
+        assertEquals(3, rows.size());
+        assertEquals("Invalid value for productPrice: abc", rows.get(0).error());
+        assertEquals(4, rows.get(1).line());
+        assertEquals("Expected 6 columns but found 4", rows.get(1).error());
+        assertNull(rows.get(2).error());
+        assertNull(rows.get(2).product().getId());
+        assertEquals("Cydr", rows.get(2).product().getCategoryName());
+    }
+
+    @Test
+    void shouldSkipRowsLongerThanLimit() throws IOException {
+        //given
+        String csv = "productName,productPrice,description,productQuantity,categoryId\n" +
+                "Pilsner,8.8,\"" + "x".repeat(500) + "\n,still quoted\",20,1\n" +
+                "IPA,10.5,Piwo,15,1\n";
+
+        //when
+        List<ProductImportReader.ImportRow> rows = readAll(ProductImportFormat.CSV, csv, 100);
+
+        //then
+        assertEquals(2, rows.size());
+        assertEquals("Row is longer than 100 characters", rows.get(0).error());
+        assertEquals("IPA", rows.get(1).product().getProductName());
+        assertEquals(4, rows.get(1).line());
+    }
+
+    @Test
+    void shouldRejectCsvWithoutRequiredColumns() {
+        //given
+        String csv = "productName,description,productQuantity,categoryId\nPilsner,Piwo,20,1\n";
+
+        //when
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
+                () -> readAll(ProductImportFormat.CSV, csv, 1000));
+
+        //then
+        assertEquals("Missing CSV column: productPrice", exc.getMessage());
+    }
+
+    @Test
+    void shouldReadNdjsonRows() throws IOException {
+        //given
+        String ndjson = """
+                {"id":1,"productName":"Pilsner","productPrice":8.8,"description":"Piwo","productQuantity":20,"categoryId":1}
+                {"productName":"IPA",
+                null
+                {"productName":"Cydr","productPrice":9.9,"description":"Jabłkowy","productQuantity":7,"categoryName":"Cydr"}""";
+
+        //when
+        List<ProductImportReader.ImportRow> rows = readAll(ProductImportFormat.NDJSON, ndjson, 1000);
+
+        //then
+        assertEquals(4, rows.size());
+        assertEquals(1L, rows.get(0).product().getId());
+        assertTrue(rows.get(1).error().startsWith("Invalid JSON"));
+        assertEquals("Row is not a JSON object", rows.get(2).error());
+        assertEquals(4, rows.get(3).line());
+        assertEquals("Cydr", rows.get(3).product().getCategoryName());
+    }
+
+    private List<ProductImportReader.ImportRow> readAll(ProductImportFormat format, String input, int maxRowLength) throws IOException {
+        ProductImportReader reader = new ProductImportReader(format, new StringReader(input), objectMapper, maxRowLength);
+        List<ProductImportReader.ImportRow> rows = new ArrayList<>();
+        ProductImportReader.ImportRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
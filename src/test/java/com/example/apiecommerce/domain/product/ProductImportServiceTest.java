@@ -0,0 +1,82 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.product.dto.ProductImportReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"product-import.batch-size=2", "product-import.max-reported-errors=2"})
+@Transactional
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldInsertAndUpdateProductsInBatches() throws IOException {
+        //given
+        long productsBefore = countProducts();
+        String csv = """
+                id,productName,productPrice,description,productQuantity,categoryId,categoryName
+                ,Cydr jabłkowy,9.9,Musujący cydr,30,,Wino
+                ,Cydr gruszkowy,10.9,Cydr z gruszek,25,2,
+                1,Pilsner Urquell,9.5,"Klasyczne, czeskie piwo",40,1,
+                ,Miód pitny,45,Trójniak,12,3,
+                """;
+
+        //when
+        ProductImportReport report = productImportService.importProducts(new StringReader(csv), ProductImportFormat.CSV);
+
+        //then
+        assertEquals(4, report.getProcessedRows());
+        assertEquals(3, report.getInsertedRows());
+        assertEquals(1, report.getUpdatedRows());
+        assertEquals(0, report.getFailedRows());
+        assertEquals(productsBefore + 3, countProducts());
+        Map<String, Object> pilsner = jdbcTemplate.queryForMap("SELECT product_name, product_quantity, version FROM product WHERE id = 1");
+        assertEquals("Pilsner Urquell", pilsner.get("PRODUCT_NAME"));
+        assertEquals(40L, ((Number) pilsner.get("PRODUCT_QUANTITY")).longValue());
+        assertEquals(1L, ((Number) pilsner.get("VERSION")).longValue());
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT category_id FROM product WHERE product_name = 'Cydr jabłkowy'", Long.class));
+    }
+
+    @Test
+    void shouldReportRejectedRowsWithoutStoppingImport() throws IOException {
+        //given
+        long productsBefore = countProducts();
+        String ndjson = """
+                {"productName":"Cydr","productPrice":-1,"description":"Jabłkowy","productQuantity":7,"categoryId":1}
+                {"id":999,"productName":"Nieistniejący","productPrice":9.9,"description":"Brak","productQuantity":7,"categoryId":1}
+                {"productName":"Porter","productPrice":12,"description":"Ciemne piwo","productQuantity":7,"categoryName":"Piwo"}
+                {"productName":"Stout","productPrice":11,"description":"Ciemne piwo","productQuantity":9,"categoryId":1}
+                """;
+
+        //when
+        ProductImportReport report = productImportService.importProducts(new StringReader(ndjson), ProductImportFormat.NDJSON);
+
+        //then
+        assertEquals(4, report.getProcessedRows());
+        assertEquals(1, report.getInsertedRows());
+        assertEquals(3, report.getFailedRows());
+        assertTrue(report.isErrorsTruncated());
+        assertEquals(2, report.getErrors().size());
+        assertEquals(new ProductImportReport.RowError(1, "productPrice: must be greater than 0"), report.getErrors().get(0));
+        assertEquals(new ProductImportReport.RowError(3, "Category name Piwo is ambiguous, use categoryId"), report.getErrors().get(1));
+        assertEquals(productsBefore + 1, countProducts());
+    }
+
+    private long countProducts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product", Long.class);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.category.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepositoryMock;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private final Category beer = new Category(1L, "Piwo");
+    private final Category vodka = new Category(2L, "Alkohole mocne");
+
+    @BeforeEach
+    void init(){
+        productSearchIndex = new ProductSearchIndex(productRepositoryMock);
+        productSearchIndex.index(product(1L, "Pilsner", 8.80, "Klasyczne czeskie piwo", beer));
+        productSearchIndex.index(product(2L, "IPA", 10.50, "Piwo górnej fermentacji", beer));
+        productSearchIndex.index(product(3L, "Żubrówka Biała", 35.00, "Wódka żytnia", vodka));
+        productSearchIndex.index(product(4L, "Porter", 12.00, "Ciemne, mocne", beer));
+    }
+
+    @Test
+    void shouldFindProductsByNameDescriptionAndCategory() {
+        //when
+        Page<Long> result = productSearchIndex.search("piwo", PageRequest.of(0, 10, Sort.by("productName")));
+
+        //then
+        assertEquals(List.of(2L, 1L, 4L), result.getContent());
+        assertEquals(3L, result.getTotalElements());
+    }
+
+    @Test
+    void shouldFoldPolishDiacritics() {
+        //when
+        Page<Long> withoutDiacritics = productSearchIndex.search("zubrowka", PageRequest.of(0, 10, Sort.by("id")));
+        Page<Long> withDiacritics = productSearchIndex.search("ŻUBRÓWKA", PageRequest.of(0, 10, Sort.by("id")));
+
+        //then
+        assertEquals(List.of(3L), withoutDiacritics.getContent());
+        assertEquals(List.of(3L), withDiacritics.getContent());
+    }
+
+    @Test
+    void shouldMatchTokenPrefixesAndRequireAllTokens() {
+        //when
+        Page<Long> prefix = productSearchIndex.search("ferm", PageRequest.of(0, 10, Sort.by("id")));
+        Page<Long> allTokens = productSearchIndex.search("piwo czeskie", PageRequest.of(0, 10, Sort.by("id")));
+
+        //then
+        assertEquals(List.of(2L), prefix.getContent());
+        assertEquals(List.of(1L), allTokens.getContent());
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        //given
+        productSearchIndex.index(product(5L, "Piwo Jasne", 7.00, "Lager", beer));
+
+        //when
+        Page<Long> result = productSearchIndex.search("piwo", PageRequest.of(0, 10, Sort.by(ProductSearchIndex.RELEVANCE)));
+
+        //then
+        assertEquals(5L, result.getContent().get(0));
+    }
+
+    @Test
+    void shouldPageAndSortDescending() {
+        //when
+        Page<Long> result = productSearchIndex.search("piwo", PageRequest.of(1, 2, Sort.by("productPrice").descending()));
+
+        //then
+        assertEquals(List.of(1L), result.getContent());
+        assertEquals(3L, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+    }
+
+    @Test
+    void shouldApplyUpdatesAndDeletes() {
+        //when
+        productSearchIndex.index(product(4L, "Stout", 12.00, "Ciemne, mocne", beer));
+        productSearchIndex.delete(1L);
+
+        //then
+        assertTrue(productSearchIndex.search("porter", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(4L), productSearchIndex.search("stout", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of(2L, 4L), productSearchIndex.search("piwo", PageRequest.of(0, 10, Sort.by("id"))).getContent());
+    }
+
+    @Test
+    void shouldReindexRenamedCategory() {
+        //when
+        productSearchIndex.renameCategory(2L, "Gorzałka");
+
+        //then
+        assertTrue(productSearchIndex.search("alkohole", PageRequest.of(0, 10)).getContent().isEmpty());
+        assertEquals(List.of(3L), productSearchIndex.search("gorzalka", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    void shouldReturnEmptyPageForBlankText() {
+        assertTrue(productSearchIndex.search("  ", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(productSearchIndex.search(null, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void shouldThrowExceptionForUnknownSortField() {
+        assertThrows(IllegalArgumentException.class, () ->
+                productSearchIndex.search("piwo", PageRequest.of(0, 10, Sort.by("unknown"))));
+    }
+
+    @Test
+    void shouldRebuildIndexFromRepository() {
+        //given
+        Product product = product(10L, "Merlot", 40.00, "Aksamitne czerwone wino", new Category(3L, "Wino"));
+        Mockito.when(productRepositoryMock.findAll(Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(List.of(product)));
+
+        //when
+        productSearchIndex.rebuild();
+
+        //then
+        assertTrue(productSearchIndex.search("piwo", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(10L), productSearchIndex.search("wino", PageRequest.of(0, 10)).getContent());
+    }
+
+    private Product product(long id, String name, double price, String description, Category category) {
+        return new Product(id, name, price, description, LocalDateTime.now(), 10L, category);
+    }
+}
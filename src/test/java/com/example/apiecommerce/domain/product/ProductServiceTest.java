@@ -3,7 +3,10 @@ package com.example.apiecommerce.domain.product;
 import com.example.apiecommerce.domain.DateTimeProvider;
 import com.example.apiecommerce.domain.category.Category;
 import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.inventory.DatabaseInventoryEngine;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
 import com.example.apiecommerce.domain.product.dto.ProductDto;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,10 +19,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -41,11 +48,23 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepositoryMock;
 
+    @Mock
+    private ProductSearchIndex productSearchIndexMock;
+
+    @Mock
+    private InventoryEngine inventoryEngineMock;
+
+    @Mock
+    private EntityManager entityManagerMock;
+
+    private CatalogCache catalogCache;
+
     private ProductService productService;
 
     @BeforeEach
     void init(){
-        productService = new ProductService(productRepositoryMock, categoryRepositoryMock, productDtoMapperMock, dateTimeProviderMock);
+        catalogCache = new CatalogCache(true, 100, Duration.ofMinutes(5));
+        productService = new ProductService(productRepositoryMock, categoryRepositoryMock, productDtoMapperMock, dateTimeProviderMock, productSearchIndexMock, catalogCache, inventoryEngineMock, entityManagerMock);
     }
 
     @Test
@@ -93,6 +112,7 @@ class ProductServiceTest {
         assertEquals(1L, productCaptorValue.getCategory().getId());
         assertEquals("Piwo", productCaptorValue.getCategory().getCategoryName());
         assertEquals(now, productCaptorValue.getCreationDate());
+        Mockito.verify(productSearchIndexMock).index(product);
     }
 
     @Test
@@ -410,6 +430,8 @@ class ProductServiceTest {
 
         //then
         Mockito.verify(productRepositoryMock, Mockito.times(1)).deleteById(Mockito.eq(existingProductId));
+        Mockito.verify(productSearchIndexMock).delete(existingProductId);
+        Mockito.verify(inventoryEngineMock).productDeleted(existingProductId);
     }
 
     @Test
@@ -431,10 +453,10 @@ class ProductServiceTest {
         //given
         ProductDto productDto = new ProductDto();
         Long nonExistingProductId = 1L;
-        Mockito.when(productRepositoryMock.findById(nonExistingProductId)).thenReturn(Optional.empty());
+        Mockito.when(productRepositoryMock.findByIdForUpdate(nonExistingProductId)).thenReturn(Optional.empty());
 
         //when
-        Optional<ProductDto> result = productService.replaceProduct(nonExistingProductId, productDto);
+        Optional<ProductDto> result = productService.replaceProduct(nonExistingProductId, productDto, null);
 
         //then
         assertTrue(result.isEmpty());
@@ -469,12 +491,12 @@ class ProductServiceTest {
 
         Product product = new Product(1L, "Zloty bazant", 6.60, "Klasyczne slowackie piwo", now2, 10L, category);
 
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product1));
+        Mockito.when(productRepositoryMock.findByIdForUpdate(1L)).thenReturn(Optional.of(product1));
         Mockito.when(categoryRepositoryMock.findById(1L)).thenReturn(Optional.of(category));
         Mockito.when(productDtoMapperMock.map(product)).thenReturn(productDto);
 
         //when
-        Optional<ProductDto> result = productService.replaceProduct(1L, productDto);
+        Optional<ProductDto> result = productService.replaceProduct(1L, productDto, null);
 
         //then
         assertTrue(result.isPresent());
@@ -485,6 +507,7 @@ class ProductServiceTest {
         assertEquals("Klasyczne slowackie piwo", resultProductDto.getDescription());
         assertEquals(1L, resultProductDto.getCategoryId());
         assertEquals("Piwo", resultProductDto.getCategoryName());
+        Mockito.verify(inventoryEngineMock).quantityReplaced(1L, 20L, 10L);
     }
 
     @Test
@@ -501,12 +524,12 @@ class ProductServiceTest {
         existingProduct.setId(1L);
         existingProduct.setProductName("Pilsner urquell");
 
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(existingProduct));
+        Mockito.when(productRepositoryMock.findByIdForUpdate(1L)).thenReturn(Optional.of(existingProduct));
         Mockito.when(categoryRepositoryMock.findById(2L)).thenReturn(Optional.empty());
 
         //when
         //then
-        EntityNotFoundException exc = assertThrows(EntityNotFoundException.class, () -> productService.replaceProduct(1L, productDto));
+        EntityNotFoundException exc = assertThrows(EntityNotFoundException.class, () -> productService.replaceProduct(1L, productDto, null));
         assertEquals("Category not found", exc.getMessage());
     }
 
@@ -516,10 +539,10 @@ class ProductServiceTest {
         ProductDto productDto = new ProductDto();
         productDto.setProductName("Zloty bazant");
 
-        Mockito.when(productRepositoryMock.findById(99L)).thenReturn(Optional.empty());
+        Mockito.when(productRepositoryMock.findByIdForUpdate(99L)).thenReturn(Optional.empty());
 
         //when
-        Optional<ProductDto> result = productService.replaceProduct(99L, productDto);
+        Optional<ProductDto> result = productService.replaceProduct(99L, productDto, null);
 
         //then
         assertTrue(result.isEmpty());
@@ -527,176 +550,129 @@ class ProductServiceTest {
     }
 
     @Test
-    void shouldReturnEmptyOptionalWhenCountQuantityNotExistProduct() {
-        //given
-        Long nonExistingProductId = 1L;
-        Mockito.when(productRepositoryMock.existsById(nonExistingProductId)).thenReturn(false);
-
-        //when
-        Optional<Long> result = productService.countQuantityOfProduct(nonExistingProductId);
-
-        //then
-        Mockito.verify(productRepositoryMock, Mockito.times(1)).existsById(nonExistingProductId);
-        assertTrue(result.isEmpty());
-    }
-
-    @Test
-    void shouldReturnQuantityOfProduct() {
+    void shouldReplaceProductWhenExpectedVersionMatches() {
         //given
         Category category = new Category();
         category.setId(1L);
         category.setCategoryName("Piwo");
 
-        Product product = new Product();
-        product.setId(1L);
-        product.setProductName("Pilsner urquell");
-        product.setProductPrice(8.60);
-        product.setDescription("Klasyczne czeskie piwo");
-        product.setProductQuantity(20L);
-        LocalDateTime now = LocalDateTime.now();
-        product.setCategory(category);
-        product.setCreationDate(now);
-
-        Mockito.when(productRepositoryMock.existsById(1L)).thenReturn(true);
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
-
-        //when
-        Long result = productService.countQuantityOfProduct(1L).orElseThrow();
-
-        //then
-        Mockito.verify(productRepositoryMock, Mockito.times(1)).existsById(1L);
-        Mockito.verify(productRepositoryMock, Mockito.times(1)).findById(1L);
-        assertEquals(result, 20L);
-    }
+        Product existingProduct = new Product(1L, "Pilsner urquell", 8.60, "Klasyczne czeskie piwo", LocalDateTime.now(), 20L, category);
+        existingProduct.setVersion(3L);
 
-    @Test
-    void shouldReturnZeroQuantityOfProduct() {
-        //given
-        Product product = new Product();
-        product.setId(1L);
-        product.setProductQuantity(0L);
+        ProductDto productDto = new ProductDto();
+        productDto.setProductName("Zloty bazant");
+        productDto.setProductPrice(6.60);
+        productDto.setDescription("Klasyczne slowackie piwo");
+        productDto.setProductQuantity(10L);
+        productDto.setCategoryId(1L);
 
-        Mockito.when(productRepositoryMock.existsById(1L)).thenReturn(true);
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
+        Mockito.when(productRepositoryMock.findByIdForUpdate(1L)).thenReturn(Optional.of(existingProduct));
+        Mockito.when(categoryRepositoryMock.findById(1L)).thenReturn(Optional.of(category));
+        Mockito.when(productDtoMapperMock.map(existingProduct)).thenReturn(productDto);
 
         //when
-        Long result = productService.countQuantityOfProduct(1L).orElseThrow();
+        Optional<ProductDto> result = productService.replaceProduct(1L, productDto, 3L);
 
         //then
-        assertEquals(0L, result);
+        assertTrue(result.isPresent());
+        assertEquals("Zloty bazant", existingProduct.getProductName());
+        Mockito.verify(productRepositoryMock).flush();
     }
 
     @Test
-    void shouldReduceProductQuantityInDbByOne() {
+    void shouldRejectReplaceWhenProductVersionChanged() {
         //given
-        Product product = new Product();
-        product.setId(1L);
-        product.setProductQuantity(5L);
+        Product existingProduct = new Product();
+        existingProduct.setId(1L);
+        existingProduct.setProductName("Pilsner urquell");
+        existingProduct.setVersion(4L);
 
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
+        ProductDto productDto = new ProductDto();
+        productDto.setProductName("Zloty bazant");
+        productDto.setCategoryId(1L);
+
+        Mockito.when(productRepositoryMock.findByIdForUpdate(1L)).thenReturn(Optional.of(existingProduct));
 
         //when
-        productService.reduceProductQuantityInDbByOne(1L);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productService.replaceProduct(1L, productDto, 3L));
 
         //then
-        Mockito.verify(productRepositoryMock, Mockito.times(1)).findById(1L);
-        assertEquals(4L, product.getProductQuantity());
+        assertEquals("Pilsner urquell", existingProduct.getProductName());
+        Mockito.verifyNoInteractions(inventoryEngineMock, categoryRepositoryMock, productSearchIndexMock);
+        Mockito.verify(productRepositoryMock, Mockito.never()).flush();
     }
 
     @Test
-    void shouldThrowExceptionWhenNotEnoughProductQuantityAndTryReduceQuantityByOne() {
+    void shouldFindProductVersion() {
         //given
-        Product product = new Product();
-        product.setId(1L);
-        product.setProductQuantity(0L);
-
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
+        Mockito.when(productRepositoryMock.findVersionById(1L)).thenReturn(Optional.of(7L));
 
         //when
+        Optional<Long> result = productService.findProductVersion(1L);
+
         //then
-        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () -> productService.reduceProductQuantityInDbByOne(1L));
-        assertEquals("Product is unavailable", exc.getMessage());
-        Mockito.verify(productRepositoryMock, Mockito.never()).save(Mockito.any());
+        assertEquals(Optional.of(7L), result);
+        Mockito.verify(productRepositoryMock, Mockito.never()).findById(Mockito.anyLong());
     }
 
     @Test
-    void shouldIncreaseProductQuantityInDbByOne() {
+    void shouldReturnEmptyOptionalWhenCountQuantityNotExistProduct() {
         //given
-        Product product = new Product();
-        product.setId(1L);
-        product.setProductQuantity(5L);
-
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
+        Long nonExistingProductId = 1L;
+        Mockito.when(productRepositoryMock.existsById(nonExistingProductId)).thenReturn(false);
 
         //when
-        productService.increaseProductQuantityInDbByOne(1L);
+        Optional<Long> result = productService.countQuantityOfProduct(nonExistingProductId);
 
         //then
-        Mockito.verify(productRepositoryMock, Mockito.times(1)).findById(1L);
-        assertEquals(6L, product.getProductQuantity());
+        Mockito.verify(productRepositoryMock, Mockito.times(1)).existsById(nonExistingProductId);
+        assertTrue(result.isEmpty());
     }
 
     @Test
-    void shouldUpdateProductQuantityByMinus5() {
+    void shouldReturnQuantityOfProduct() {
         //given
+        Category category = new Category();
+        category.setId(1L);
+        category.setCategoryName("Piwo");
+
         Product product = new Product();
         product.setId(1L);
-        product.setProductQuantity(5L);
+        product.setProductName("Pilsner urquell");
+        product.setProductPrice(8.60);
+        product.setDescription("Klasyczne czeskie piwo");
+        product.setProductQuantity(20L);
+        LocalDateTime now = LocalDateTime.now();
+        product.setCategory(category);
+        product.setCreationDate(now);
 
+        Mockito.when(productRepositoryMock.existsById(1L)).thenReturn(true);
         Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
 
         //when
-        productService.updateProductQuantityInDb(1L, 5);
+        Long result = productService.countQuantityOfProduct(1L).orElseThrow();
 
         //then
+        Mockito.verify(productRepositoryMock, Mockito.times(1)).existsById(1L);
         Mockito.verify(productRepositoryMock, Mockito.times(1)).findById(1L);
-        assertEquals(0L, product.getProductQuantity());
-    }
-
-    @Test
-    void shouldThrowExceptionWhenProductQuantityNotEnoughToUpdate() {
-        //given
-        Product product = new Product();
-        product.setId(1L);
-        product.setProductQuantity(5L);
-
-        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
-
-        //when & then
-        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () ->
-                productService.updateProductQuantityInDb(1L, 6)
-        );
-        assertEquals("Not enough quantity in stock", exc.getMessage());
-        Mockito.verify(productRepositoryMock, Mockito.never()).save(Mockito.any());
-    }
-
-    @Test
-    void shouldThrowExceptionWhenProductNotFound() {
-        //given
-        Mockito.when(productRepositoryMock.findById(99L)).thenReturn(Optional.empty());
-
-        //when & then
-        EntityNotFoundException exc = assertThrows(EntityNotFoundException.class, () ->
-                productService.updateProductQuantityInDb(99L, 5));
-        assertEquals("Product not found", exc.getMessage());
-
-        Mockito.verify(productRepositoryMock, Mockito.never()).save(Mockito.any());
+        assertEquals(result, 20L);
     }
 
     @Test
-    void shouldDoNothingWhenQuantityToChangeIsZero() {
+    void shouldReturnZeroQuantityOfProduct() {
         //given
         Product product = new Product();
         product.setId(1L);
-        product.setProductQuantity(5L);
+        product.setProductQuantity(0L);
 
+        Mockito.when(productRepositoryMock.existsById(1L)).thenReturn(true);
         Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
 
         //when
-        productService.updateProductQuantityInDb(1L, 0);
+        Long result = productService.countQuantityOfProduct(1L).orElseThrow();
 
         //then
-        Mockito.verify(productRepositoryMock, Mockito.never()).save(Mockito.any());
+        assertEquals(0L, result);
     }
 
     @Test
@@ -726,15 +702,10 @@ class ProductServiceTest {
         LocalDateTime now2 = LocalDateTime.now();
         product2.setCreationDate(now2);
 
-        List<Product> productsList = new ArrayList<>();
-        productsList.add(product1);
-        productsList.add(product2);
-        productsList.sort(Comparator.comparing(Product::getProductPrice));
-        PageImpl<Product> page = new PageImpl<>(productsList);
-
         String searchText = "piwo";
 
-        Mockito.when(productRepositoryMock.findProductsBySearchText(Mockito.eq(searchText), Mockito.any(Pageable.class))).thenReturn(page);
+        Mockito.when(productSearchIndexMock.search(Mockito.eq(searchText), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(List.of(2L, 1L)));
+        Mockito.when(productRepositoryMock.findAllById(List.of(2L, 1L))).thenReturn(List.of(product1, product2));
 
         Mockito.when(productDtoMapperMock.map(product1)).thenReturn(new ProductDto(1L, "Pilsner urquell", 8.60, "Klasyczne czeskie piwo", now, 20L, 1L, "Piwo"));
         Mockito.when(productDtoMapperMock.map(product2)).thenReturn(new ProductDto(2L, "Zloty bazant", 6.60, "Klasyczne slowackie piwo", now2, 10L, 1L, "Piwo"));
@@ -756,12 +727,9 @@ class ProductServiceTest {
     @Test
     void shouldFindZeroProductsByGivenTextPaginated() {
         //given
-        List<Product> productsList = new ArrayList<>();
-        PageImpl<Product> page = new PageImpl<>(productsList);
-
         String searchText = "piwo";
 
-        Mockito.when(productRepositoryMock.findProductsBySearchText(Mockito.eq(searchText), Mockito.any(Pageable.class))).thenReturn(page);
+        Mockito.when(productSearchIndexMock.search(Mockito.eq(searchText), Mockito.any(Pageable.class))).thenReturn(Page.empty());
 
         int pageNumber = 1;
         int pageSize = 3;
@@ -791,9 +759,9 @@ class ProductServiceTest {
             productsList.add(product);
         }
 
-        PageImpl<Product> page = new PageImpl<>(productsList.subList(0, 3));
-
-        Mockito.when(productRepositoryMock.findProductsBySearchText(Mockito.anyString(), Mockito.any(Pageable.class))).thenReturn(page);
+        Mockito.when(productSearchIndexMock.search(Mockito.anyString(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> new PageImpl<>(List.of(1L, 2L, 3L), invocation.getArgument(1), 10));
+        Mockito.when(productRepositoryMock.findAllById(List.of(1L, 2L, 3L))).thenReturn(productsList.subList(0, 3));
         Mockito.when(productDtoMapperMock.map(Mockito.any(Product.class))).thenAnswer(invocation -> {
             Product p = invocation.getArgument(0);
             return new ProductDto(p.getId(), p.getProductName(), p.getProductPrice(), p.getDescription(), p.getCreationDate(), p.getProductQuantity(), 1L, "Piwo");
@@ -809,6 +777,7 @@ class ProductServiceTest {
 
         //then
         assertThat(productsResultPaginated.getContent().size(), is(3));
+        assertThat(productsResultPaginated.getTotalElements(), is(10L));
     }
 
 
@@ -828,8 +797,7 @@ class ProductServiceTest {
 
     @Test
     void shouldReturnEmptyPageWhenSearchTextIsNull() {
-        Page<Product> emptyPage = Page.empty();
-        Mockito.when(productRepositoryMock.findProductsBySearchText(Mockito.isNull(), Mockito.any(Pageable.class))).thenReturn(emptyPage);
+        Mockito.when(productSearchIndexMock.search(Mockito.isNull(), Mockito.any(Pageable.class))).thenReturn(Page.empty());
 
         Page<ProductDto> result = productService.findProductsByTextPaginated(null, 1, 3, "productPrice", "ASC");
 
@@ -861,12 +829,10 @@ class ProductServiceTest {
         product2.setCategory(category);
         product2.setCreationDate(LocalDateTime.now());
 
-        List<Product> productsList = List.of(product1, product2);
-        PageImpl<Product> page = new PageImpl<>(productsList);
-
         String searchText = "piwo";
 
-        Mockito.when(productRepositoryMock.findProductsBySearchText(Mockito.eq(searchText), Mockito.any(Pageable.class))).thenReturn(page);
+        Mockito.when(productSearchIndexMock.search(Mockito.eq(searchText), Mockito.any(Pageable.class))).thenReturn(new PageImpl<>(List.of(1L, 2L)));
+        Mockito.when(productRepositoryMock.findAllById(List.of(1L, 2L))).thenReturn(List.of(product2, product1));
         Mockito.when(productDtoMapperMock.map(product1)).thenReturn(new ProductDto(1L, "Pilsner urquell", 8.60, "Klasyczne czeskie piwo", product1.getCreationDate(), 20L, 1L, "Piwo"));
         Mockito.when(productDtoMapperMock.map(product2)).thenReturn(new ProductDto(2L, "Zloty bazant", 6.60, "Klasyczne slowackie piwo", product2.getCreationDate(), 10L, 1L, "Piwo"));
 
@@ -883,4 +849,99 @@ class ProductServiceTest {
         assertThat(productsResultPaginated.getContent().get(0).getProductName(), is("Pilsner urquell"));
         assertThat(productsResultPaginated.getContent().get(1).getProductName(), is("Zloty bazant"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldThrowExceptionWhenScrollingByNotAllowedSortField() {
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class, () ->
+                productService.findAllProductsAfter(null, 3, "description", "ASC"));
+        assertEquals("Invalid sort field: description", exc.getMessage());
+        Mockito.verifyNoInteractions(productRepositoryMock);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenScrollingWithInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () ->
+                productService.findAllProductsAfter("bm90LWpzb24", 3, "productName", "ASC"));
+        Mockito.verifyNoInteractions(productRepositoryMock);
+    }
+
+    @Test
+    void shouldServeRepeatedProductLookupFromCatalogCache() {
+        //given
+        Product product = new Product();
+        product.setId(1L);
+        ProductDto productDto = new ProductDto();
+        productDto.setId(1L);
+        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
+        Mockito.when(productDtoMapperMock.map(product)).thenReturn(productDto);
+
+        //when
+        productService.findProductById(1L);
+        Optional<ProductDto> cached = productService.findProductById(1L);
+
+        //then
+        assertThat(cached.orElseThrow().getId(), is(1L));
+        Mockito.verify(productRepositoryMock, Mockito.times(1)).findById(1L);
+        assertThat(catalogCache.productStats().hitCount(), is(1L));
+    }
+
+    @Test
+    void shouldReloadProductAfterInventoryEngineChangesQuantity() {
+        //given
+        InventoryEngine inventoryEngine = new DatabaseInventoryEngine(productRepositoryMock, productSearchIndexMock, catalogCache,
+                Mockito.mock(JdbcTemplate.class));
+        Product product = new Product();
+        product.setId(1L);
+        Mockito.when(productRepositoryMock.findById(1L)).thenReturn(Optional.of(product));
+        Mockito.when(productDtoMapperMock.map(product)).thenReturn(new ProductDto());
+        Mockito.when(productRepositoryMock.lockAllByIdInOrder(Set.of(1L))).thenReturn(List.of(1L));
+        productService.findProductById(1L);
+
+        //when
+        inventoryEngine.restock(Map.of(1L, 1L));
+        productService.findProductById(1L);
+
+        //then
+        Mockito.verify(productRepositoryMock, Mockito.times(2)).findById(1L);
+    }
+
+    @Test
+    void shouldNotCacheProductsWhenCatalogCacheIsDisabled() {
+        //given
+        productService = new ProductService(productRepositoryMock, categoryRepositoryMock, productDtoMapperMock, dateTimeProviderMock,
+                productSearchIndexMock, new CatalogCache(false, 100, Duration.ofMinutes(5)), inventoryEngineMock, entityManagerMock);
+        Mockito.when(productRepositoryMock.findAll()).thenReturn(List.of());
+
+        //when
+        productService.findAllProducts();
+        productService.findAllProducts();
+
+        //then
+        Mockito.verify(productRepositoryMock, Mockito.times(2)).findAll();
+    }
+
+    @Test
+    void shouldExportProductsOneByOneAndDetachThem() {
+        //given
+        Product first = new Product();
+        first.setId(1L);
+        Product second = new Product();
+        second.setId(2L);
+        ProductDto firstDto = new ProductDto();
+        firstDto.setId(1L);
+        ProductDto secondDto = new ProductDto();
+        secondDto.setId(2L);
+        Mockito.when(productRepositoryMock.streamAllBy()).thenReturn(Stream.of(first, second));
+        Mockito.when(productDtoMapperMock.map(first)).thenReturn(firstDto);
+        Mockito.when(productDtoMapperMock.map(second)).thenReturn(secondDto);
+        List<ProductDto> exported = new ArrayList<>();
+
+        //when
+        productService.exportAllProducts(exported::add);
+
+        //then
+        assertThat(exported, contains(firstDto, secondDto));
+        Mockito.verify(entityManagerMock).detach(first);
+        Mockito.verify(entityManagerMock).detach(second);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.apiecommerce.domain.product;
+
+import com.example.apiecommerce.domain.cart.Cart;
+import com.example.apiecommerce.domain.cart.CartRepository;
+import com.example.apiecommerce.domain.cartItem.CartItem;
+import com.example.apiecommerce.domain.cartItem.CartItemRepository;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.example.apiecommerce.domain.reservation.StockReservationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductStockConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final long INITIAL_QUANTITY = 150L;
+    private static final long CART_QUANTITY = 10L;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Product product;
+
+    private final List<Long> cartIds = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        product = productRepository.save(new Product(null, "Hot SKU", 9.99, "Stress test product", LocalDateTime.now(),
+                INITIAL_QUANTITY, categoryRepository.findById(1L).orElseThrow()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartIds.forEach(cartItemRepository::deleteAllByCart_Id);
+        cartRepository.deleteAllById(cartIds);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    void shouldNotOversellWhenManyCartsCheckOutConcurrently() throws Exception {
+        //given
+        for (int i = 0; i < THREADS; i++) {
+            cartIds.add(cartWithProduct(CART_QUANTITY));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (long cartId : cartIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    stockReservationService.checkout(cartId, Map.of(product.getId(), CART_QUANTITY));
+                    sold.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(INITIAL_QUANTITY / CART_QUANTITY, sold.get());
+        assertEquals(THREADS - INITIAL_QUANTITY / CART_QUANTITY, rejected.get());
+        assertEquals(0L, productRepository.findById(product.getId()).orElseThrow().getProductQuantity());
+    }
+
+    @Test
+    void shouldKeepQuantityConsistentWhenRestockingConcurrently() throws Exception {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                    transactionTemplate.executeWithoutResult(status -> inventoryEngine.restock(Map.of(product.getId(), 2L)));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(INITIAL_QUANTITY + 2L * THREADS * ATTEMPTS_PER_THREAD,
+                productRepository.findById(product.getId()).orElseThrow().getProductQuantity());
+    }
+
+    @Test
+    void shouldReplaceProductWithoutIfMatchWhileCartsCheckOut() throws Exception {
+        //given
+        for (int i = 0; i < THREADS; i++) {
+            cartIds.add(cartWithProduct(1L));
+        }
+        ProductDto productDto = new ProductDto(null, "Renamed Hot SKU", 19.99, "Replaced during checkout", null,
+                INITIAL_QUANTITY, 1L, null);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (long cartId : cartIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                    try {
+                        stockReservationService.checkout(cartId, Map.of(product.getId(), 1L));
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> replacements = executor.submit(() -> {
+            start.await();
+            for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+                productService.replaceProduct(product.getId(), productDto, null);
+            }
+            return null;
+        });
+        start.countDown();
+        replacements.get(60, TimeUnit.SECONDS);
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        Product replaced = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Renamed Hot SKU", replaced.getProductName());
+        assertTrue(replaced.getProductQuantity() <= INITIAL_QUANTITY);
+    }
+
+    private long cartWithProduct(long quantity) {
+        Cart cart = new Cart();
+        cart.setCreationDate(LocalDateTime.now());
+        Cart savedCart = cartRepository.save(cart);
+        CartItem cartItem = new CartItem();
+        cartItem.setCart(savedCart);
+        cartItem.setProduct(product);
+        cartItem.setCartItemQuantity(quantity);
+        cartItemRepository.save(cartItem);
+        return savedCart.getId();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.apiecommerce.domain.reservation;
+
+import com.example.apiecommerce.domain.cart.Cart;
+import com.example.apiecommerce.domain.cart.CartRepository;
+import com.example.apiecommerce.domain.category.CategoryRepository;
+import com.example.apiecommerce.domain.product.Product;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class StockReservationConcurrencyTest {
+    private static final int CARTS = 16;
+    private static final int ATTEMPTS_PER_CART = 5;
+    private static final long INITIAL_QUANTITY = 40L;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationSweeper stockReservationSweeper;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long productId;
+
+    private final List<Long> cartIds = new ArrayList<>();
+
+    @BeforeEach
+    void init() {
+        Product product = new Product(null, "Reserved SKU", 9.99, "Reservation test product", LocalDateTime.now(),
+                INITIAL_QUANTITY, categoryRepository.findById(1L).orElseThrow());
+        productId = productRepository.save(product).getId();
+        for (int i = 0; i < CARTS; i++) {
+            Cart cart = new Cart();
+            cart.setCreationDate(LocalDateTime.now());
+            cartIds.add(cartRepository.save(cart).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartRepository.deleteAllById(cartIds);
+        productRepository.deleteById(productId);
+    }
+
+    @Test
+    void shouldNotReserveMoreThanStockWhenManyCartsReserveConcurrently() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(CARTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        //when
+        for (long cartId : cartIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int quantity = 1; quantity <= ATTEMPTS_PER_CART; quantity++) {
+                    try {
+                        stockReservationService.adjustReservation(cartId, productId, quantity);
+                        reserved.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //then
+        long reservedQuantity = 0;
+        for (StockReservation reservation : stockReservationRepository.findAll()) {
+            if (reservation.getProductId() == productId) {
+                reservedQuantity += reservation.getQuantity();
+            }
+        }
+        assertTrue(reservedQuantity <= INITIAL_QUANTITY, "reserved " + reservedQuantity + " of " + INITIAL_QUANTITY);
+        assertEquals(CARTS * ATTEMPTS_PER_CART, reserved.get() + rejected.get());
+        assertTrue(rejected.get() > 0);
+        assertEquals(INITIAL_QUANTITY, productRepository.findById(productId).orElseThrow().getProductQuantity());
+    }
+
+    @Test
+    void shouldMakeStockAvailableAgainWhenReservationExpires() {
+        //given
+        long firstCartId = cartIds.get(0);
+        long secondCartId = cartIds.get(1);
+        stockReservationService.adjustReservation(firstCartId, productId, INITIAL_QUANTITY);
+        assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.adjustReservation(secondCartId, productId, 1));
+        StockReservation reservation = findReservation(firstCartId);
+        reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        stockReservationRepository.save(reservation);
+
+        //when
+        stockReservationSweeper.sweep();
+
+        //then
+        assertTrue(stockReservationRepository.findById(reservation.getId()).isEmpty());
+        stockReservationService.adjustReservation(secondCartId, productId, 1);
+        assertEquals(1L, findReservation(secondCartId).getQuantity());
+        assertEquals(INITIAL_QUANTITY, productRepository.findById(productId).orElseThrow().getProductQuantity());
+    }
+
+    @Test
+    void shouldReserveWhileAnotherTransactionHoldsTheProductRowLock() throws Exception {
+        //given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch reserved = new CountDownLatch(1);
+        Future<?> lockHolder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            productRepository.findByIdForUpdate(productId).orElseThrow();
+            locked.countDown();
+            try {
+                reserved.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+        //when
+        try {
+            stockReservationService.adjustReservation(cartIds.get(0), productId, 2);
+        } finally {
+            reserved.countDown();
+        }
+        lockHolder.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        //then
+        assertEquals(2L, findReservation(cartIds.get(0)).getQuantity());
+    }
+
+    @Test
+    void shouldHoldStockForCartLinesCreatedBeforeReservations() {
+        //given
+        long seededCartId = 7L;
+        Map<Long, Long> heldByProduct = new HashMap<>();
+
+        //when
+        for (StockReservation reservation : stockReservationRepository.findAll()) {
+            if (reservation.getCartId() == seededCartId) {
+                heldByProduct.put(reservation.getProductId(), reservation.getQuantity());
+                assertTrue(reservation.getExpiresAt().isAfter(LocalDateTime.now()));
+            }
+        }
+
+        //then
+        assertEquals(Map.of(18L, 1L, 20L, 3L), heldByProduct);
+    }
+
+    private StockReservation findReservation(long cartId) {
+        for (StockReservation reservation : stockReservationRepository.findAll()) {
+            if (reservation.getCartId() == cartId && reservation.getProductId() == productId) {
+                return reservation;
+            }
+        }
+        throw new AssertionError("No reservation for cart " + cartId);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.apiecommerce.domain.reservation;
+
+import com.example.apiecommerce.domain.DateTimeProvider;
+import com.example.apiecommerce.domain.cartItem.CartItemRepository;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+    private static final Duration TTL = Duration.ofMinutes(15);
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private StockReservationRepository stockReservationRepositoryMock;
+
+    @Mock
+    private CartItemRepository cartItemRepositoryMock;
+
+    @Mock
+    private InventoryEngine inventoryEngineMock;
+
+    @Mock
+    private DateTimeProvider dateTimeProviderMock;
+
+    private StockReservationService stockReservationService;
+
+    @BeforeEach
+    void setUp() {
+        stockReservationService = new StockReservationService(stockReservationRepositoryMock, cartItemRepositoryMock,
+                inventoryEngineMock, dateTimeProviderMock, TTL);
+    }
+
+    @Test
+    void shouldCreateReservationWhenCartTakesProductForTheFirstTime() {
+        //given
+        Mockito.when(cartItemRepositoryMock.sumQuantityByCartIdAndProductId(1L, 5L)).thenReturn(0L);
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdAndProductId(1L, 5L)).thenReturn(Optional.empty());
+        Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(NOW);
+
+        //when
+        stockReservationService.adjustReservation(1L, 5L, 1);
+
+        //then
+        Mockito.verify(inventoryEngineMock).reserve(5L, 1L, 0L, 1L, NOW);
+        ArgumentCaptor<StockReservation> reservationCaptor = ArgumentCaptor.forClass(StockReservation.class);
+        Mockito.verify(stockReservationRepositoryMock).save(reservationCaptor.capture());
+        StockReservation reservation = reservationCaptor.getValue();
+        assertEquals(1L, reservation.getCartId());
+        assertEquals(5L, reservation.getProductId());
+        assertEquals(1L, reservation.getQuantity());
+        assertEquals(NOW.plus(TTL), reservation.getExpiresAt());
+        Mockito.verify(stockReservationRepositoryMock).extendActiveReservations(1L, NOW, NOW.plus(TTL));
+    }
+
+    @Test
+    void shouldReserveWholeCartQuantityWhenIncreasingExistingLine() {
+        //given
+        StockReservation reservation = new StockReservation(1L, 5L, 3L, NOW.plusMinutes(1));
+        Mockito.when(cartItemRepositoryMock.sumQuantityByCartIdAndProductId(1L, 5L)).thenReturn(3L);
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdAndProductId(1L, 5L)).thenReturn(Optional.of(reservation));
+        Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(NOW);
+
+        //when
+        stockReservationService.adjustReservation(1L, 5L, 2);
+
+        //then
+        InOrder inOrder = Mockito.inOrder(inventoryEngineMock, stockReservationRepositoryMock);
+        inOrder.verify(stockReservationRepositoryMock).findForUpdateByCartIdAndProductId(1L, 5L);
+        inOrder.verify(inventoryEngineMock).reserve(5L, 1L, 3L, 5L, NOW);
+        assertEquals(5L, reservation.getQuantity());
+        assertEquals(NOW.plus(TTL), reservation.getExpiresAt());
+        Mockito.verify(stockReservationRepositoryMock, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void shouldNotChangeReservationWhenEngineRejectsIt() {
+        //given
+        StockReservation reservation = new StockReservation(1L, 5L, 1L, NOW.plusMinutes(1));
+        Mockito.when(cartItemRepositoryMock.sumQuantityByCartIdAndProductId(1L, 5L)).thenReturn(1L);
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdAndProductId(1L, 5L)).thenReturn(Optional.of(reservation));
+        Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(NOW);
+        Mockito.doThrow(new IllegalArgumentException("Not enough quantity in stock"))
+                .when(inventoryEngineMock).reserve(5L, 1L, 1L, 2L, NOW);
+
+        //when
+        IllegalArgumentException exc = assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.adjustReservation(1L, 5L, 1));
+
+        //then
+        assertEquals("Not enough quantity in stock", exc.getMessage());
+        assertEquals(1L, reservation.getQuantity());
+        Mockito.verify(stockReservationRepositoryMock, Mockito.never()).save(Mockito.any());
+        Mockito.verify(stockReservationRepositoryMock, Mockito.never()).extendActiveReservations(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void shouldShrinkReservationAndReleaseDifference() {
+        //given
+        StockReservation reservation = new StockReservation(1L, 5L, 4L, NOW.plusMinutes(1));
+        Mockito.when(cartItemRepositoryMock.sumQuantityByCartIdAndProductId(1L, 5L)).thenReturn(4L);
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdAndProductId(1L, 5L)).thenReturn(Optional.of(reservation));
+
+        //when
+        stockReservationService.adjustReservation(1L, 5L, -1);
+
+        //then
+        Mockito.verify(inventoryEngineMock).release(5L, 1L);
+        Mockito.verify(inventoryEngineMock, Mockito.never()).reserve(Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(), Mockito.anyLong(), Mockito.any());
+        assertEquals(3L, reservation.getQuantity());
+    }
+
+    @Test
+    void shouldDeleteReservationWhenCartNoLongerHoldsProduct() {
+        //given
+        StockReservation reservation = new StockReservation(1L, 5L, 2L, NOW.plusMinutes(1));
+        Mockito.when(cartItemRepositoryMock.sumQuantityByCartIdAndProductId(1L, 5L)).thenReturn(2L);
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdAndProductId(1L, 5L)).thenReturn(Optional.of(reservation));
+
+        //when
+        stockReservationService.adjustReservation(1L, 5L, -2);
+
+        //then
+        Mockito.verify(inventoryEngineMock).release(5L, 2L);
+        Mockito.verify(stockReservationRepositoryMock).delete(reservation);
+    }
+
+    @Test
+    void shouldSellCartProductsAndDropReservationsOnCheckout() {
+        //given
+        Map<Long, Long> quantities = Map.of(5L, 2L, 7L, 1L);
+        Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(NOW);
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdOrderById(1L))
+                .thenReturn(List.of(new StockReservation(1L, 5L, 2L, NOW.plusMinutes(1))));
+
+        //when
+        stockReservationService.checkout(1L, quantities);
+
+        //then
+        InOrder inOrder = Mockito.inOrder(inventoryEngineMock, stockReservationRepositoryMock);
+        inOrder.verify(inventoryEngineMock).sell(1L, quantities, Map.of(5L, 2L), NOW);
+        inOrder.verify(stockReservationRepositoryMock).deleteAllByCartId(1L);
+    }
+
+    @Test
+    void shouldReleaseEveryReservationOfClearedCart() {
+        //given
+        Mockito.when(stockReservationRepositoryMock.findForUpdateByCartIdOrderById(1L)).thenReturn(List.of(
+                new StockReservation(1L, 5L, 2L, NOW), new StockReservation(1L, 7L, 1L, NOW)));
+
+        //when
+        stockReservationService.releaseCart(1L);
+
+        //then
+        Mockito.verify(inventoryEngineMock).release(5L, 2L);
+        Mockito.verify(inventoryEngineMock).release(7L, 1L);
+        Mockito.verify(stockReservationRepositoryMock).deleteAllByCartId(1L);
+    }
+
+    @Test
+    void shouldReleaseExpiredReservationsInBatch() {
+        //given
+        StockReservation first = new StockReservation(1L, 5L, 2L, NOW.minusMinutes(1));
+        first.setId(4L);
+        StockReservation second = new StockReservation(2L, 5L, 1L, NOW.minusMinutes(1));
+        second.setId(8L);
+        Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(NOW);
+        Mockito.when(stockReservationRepositoryMock.findExpiredForUpdate(NOW, Limit.of(3))).thenReturn(List.of(first, second));
+
+        //when
+        int released = stockReservationService.releaseExpired(3);
+
+        //then
+        assertEquals(2, released);
+        Mockito.verify(inventoryEngineMock).release(5L, 2L);
+        Mockito.verify(inventoryEngineMock).release(5L, 1L);
+        Mockito.verify(stockReservationRepositoryMock).deleteAllByIdIn(List.of(4L, 8L));
+    }
+
+    @Test
+    void shouldNotDeleteAnythingWhenNoReservationExpired() {
+        //given
+        Mockito.when(dateTimeProviderMock.getCurrentTime()).thenReturn(NOW);
+        Mockito.when(stockReservationRepositoryMock.findExpiredForUpdate(NOW, Limit.of(3))).thenReturn(List.of());
+
+        //when
+        int released = stockReservationService.releaseExpired(3);
+
+        //then
+        assertEquals(0, released);
+        Mockito.verify(stockReservationRepositoryMock, Mockito.never()).deleteAllByIdIn(Mockito.anyList());
+        Mockito.verifyNoInteractions(inventoryEngineMock);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.apiecommerce.domain.user;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentityServiceTest {
+
+    @Mock
+    private UserRepository userRepositoryMock;
+
+    private UserIdentityService userIdentityService;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityService = new UserIdentityService(userRepositoryMock, 100, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldResolveIdentityWithAllRoles() {
+        //given
+        Mockito.when(userRepositoryMock.findIdentityRowsByEmail("test@mail.com"))
+                .thenReturn(List.of(row(1L, 2L, "USER"), row(1L, 2L, "ADMIN")));
+
+        //when
+        UserIdentity userIdentity = userIdentityService.findByEmail("test@mail.com").orElseThrow();
+
+        //then
+        assertEquals(1L, userIdentity.userId());
+        assertEquals(2L, userIdentity.cartId());
+        assertEquals(Set.of("USER", "ADMIN"), userIdentity.roles());
+    }
+
+    @Test
+    void shouldQueryRepositoryOnceForRepeatedLookups() {
+        //given
+        Mockito.when(userRepositoryMock.findIdentityRowsByEmail("test@mail.com")).thenReturn(List.of(row(1L, null, "USER")));
+
+        //when
+        userIdentityService.findByEmail("test@mail.com");
+        Optional<UserIdentity> userIdentity = userIdentityService.findByEmail("test@mail.com");
+
+        //then
+        assertFalse(userIdentity.orElseThrow().hasCart());
+        Mockito.verify(userRepositoryMock, Mockito.times(1)).findIdentityRowsByEmail("test@mail.com");
+        assertEquals(1, userIdentityService.stats().hitCount());
+    }
+
+    @Test
+    void shouldReturnEmptyOptionalWhenUserDoesNotExist() {
+        //given
+        Mockito.when(userRepositoryMock.findIdentityRowsByEmail("notExist@mail.com")).thenReturn(List.of());
+
+        //when
+        Optional<UserIdentity> userIdentity = userIdentityService.findByEmail("notExist@mail.com");
+
+        //then
+        assertTrue(userIdentity.isEmpty());
+    }
+
+    @Test
+    void shouldReloadIdentityAfterEvictionWithinRequest() {
+        //given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Mockito.when(userRepositoryMock.findIdentityRowsByEmail("test@mail.com"))
+                .thenReturn(List.of(row(1L, null, "USER")))
+                .thenReturn(List.of(row(1L, 5L, "USER")));
+        userIdentityService.findByEmail("test@mail.com");
+
+        //when
+        userIdentityService.evict("test@mail.com");
+        UserIdentity userIdentity = userIdentityService.findByEmail("test@mail.com").orElseThrow();
+
+        //then
+        assertEquals(5L, userIdentity.cartId());
+        Mockito.verify(userRepositoryMock, Mockito.times(2)).findIdentityRowsByEmail("test@mail.com");
+    }
+
+    private static UserIdentityRow row(Long userId, Long cartId, String roleName) {
+        return new UserIdentityRow() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getCartId() {
+                return cartId;
+            }
+
+            @Override
+            public String getRoleName() {
+                return roleName;
+            }
+        };
+    }
+}
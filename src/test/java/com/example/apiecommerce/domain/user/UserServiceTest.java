@@ -58,13 +58,16 @@ class UserServiceTest {
     @Mock
     private UserConfirmationRegistrationDtoMapper userConfirmationRegistrationDtoMapperMock;
 
+    @Mock
+    private UserIdentityService userIdentityServiceMock;
+
     private UserService userService;
 
     private static final String DEFAULT_USER_ROLE = "USER";
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepositoryMock, userRoleRepositoryMock, dateTimeProviderMock, passwordEncoderMock, userRegistrationDtoMapperMock, addressDtoMapperMock, orderDtoMapperMock, addressRepositoryMock, orderRepositoryMock, userConfirmationRegistrationDtoMapperMock);
+        userService = new UserService(userRepositoryMock, userRoleRepositoryMock, dateTimeProviderMock, passwordEncoderMock, userRegistrationDtoMapperMock, addressDtoMapperMock, orderDtoMapperMock, addressRepositoryMock, orderRepositoryMock, userConfirmationRegistrationDtoMapperMock, userIdentityServiceMock);
     }
 
     @Test
@@ -228,6 +231,7 @@ class UserServiceTest {
         assertEquals("Grzyb", user.getLastName());
         assertEquals("500123456", user.getPhoneNumber());
         Mockito.verify(userRepositoryMock, Mockito.times(1)).findByEmail("test@mail.com");
+        Mockito.verify(userIdentityServiceMock).evict("test@mail.com");
     }
 
     @Test
@@ -306,6 +310,7 @@ class UserServiceTest {
         //given
         User user = new User();
         user.setId(1L);
+        user.setEmail("test@mail.com");
 
         Address address = new Address();
         address.setId(1L);
@@ -338,6 +343,7 @@ class UserServiceTest {
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
         Mockito.verify(userRepositoryMock).delete(userCaptor.capture());
         assertEquals(user, userCaptor.getValue());
+        Mockito.verify(userIdentityServiceMock).evict("test@mail.com");
     }
 
     @Test
@@ -406,7 +412,8 @@ class UserServiceTest {
         addressDto2.setUserId(1L);
         addressDto2.setId(2L);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(addressRepositoryMock.findAllByUserIdAndActive(1L, true)).thenReturn(List.of(address1, address2));
         Mockito.when(addressDtoMapperMock.map(address1)).thenReturn(addressDto1);
         Mockito.when(addressDtoMapperMock.map(address2)).thenReturn(addressDto2);
 
@@ -441,7 +448,8 @@ class UserServiceTest {
         addressDto1.setUserId(1L);
         addressDto1.setId(1L);
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(addressRepositoryMock.findAllByUserIdAndActive(1L, true)).thenReturn(List.of(address1));
         Mockito.when(addressDtoMapperMock.map(address1)).thenReturn(addressDto1);
 
         //when
@@ -460,7 +468,8 @@ class UserServiceTest {
         user.setEmail("test@mail.com");
         user.setAddresses(Collections.emptySet());
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(addressRepositoryMock.findAllByUserIdAndActive(1L, true)).thenReturn(List.of());
 
         //when
         List<AddressDto> allActiveUserAddressesResult = userService.findAllActiveUserAddresses("test@mail.com");
@@ -488,7 +497,8 @@ class UserServiceTest {
 
         user.setAddresses(Set.of(address1, address2));
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(addressRepositoryMock.findAllByUserIdAndActive(1L, true)).thenReturn(List.of());
 
         //when
         List<AddressDto> allActiveUserAddressesResult = userService.findAllActiveUserAddresses("test@mail.com");
@@ -500,7 +510,7 @@ class UserServiceTest {
     @Test
     void shouldReturnEmptyListWhenUserDoesNotExist() {
         //given
-        Mockito.when(userRepositoryMock.findByEmail("nonexistent@mail.com")).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("nonexistent@mail.com")).thenReturn(Optional.empty());
 
         //when
         List<AddressDto> allActiveUserAddressesResult = userService.findAllActiveUserAddresses("nonexistent@mail.com");
@@ -524,8 +534,7 @@ class UserServiceTest {
         order2.setId(2L);
         order2.setUser(user);
 
-        user.setOrders(Set.of(order1, order2));
-
+        
         OrderFullDto orderFullDto1 = new OrderFullDto();
         orderFullDto1.setId(1L);
         orderFullDto1.setUserEmail("test@mail.com");
@@ -534,7 +543,8 @@ class UserServiceTest {
         orderFullDto2.setId(2L);
         orderFullDto2.setUserEmail("test@mail.com");
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(orderRepositoryMock.findAllByUserId(1L)).thenReturn(List.of(order1, order2));
         Mockito.when(orderDtoMapperMock.map(order1)).thenReturn(orderFullDto1);
         Mockito.when(orderDtoMapperMock.map(order2)).thenReturn(orderFullDto2);
 
@@ -549,7 +559,7 @@ class UserServiceTest {
     @Test
     void shouldReturnEmptyListWhenTryFindAllOrderAndUserDoesNotExist() {
         //given
-        Mockito.when(userRepositoryMock.findByEmail("nonexistent@mail.com")).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("nonexistent@mail.com")).thenReturn(Optional.empty());
 
         //when
         List<OrderFullDto> allUserOrdersResult = userService.findAllUserOrders("nonexistent@mail.com");
@@ -569,13 +579,13 @@ class UserServiceTest {
         order1.setId(1L);
         order1.setUser(user);
 
-        user.setOrders(Set.of(order1));
-
+        
         OrderFullDto orderFullDto1 = new OrderFullDto();
         orderFullDto1.setId(1L);
         orderFullDto1.setUserEmail("test@mail.com");
 
-        Mockito.when(userRepositoryMock.findByEmail("test@mail.com")).thenReturn(Optional.of(user));
+        Mockito.when(userIdentityServiceMock.findByEmail("test@mail.com")).thenReturn(Optional.of(identityOf(user)));
+        Mockito.when(orderRepositoryMock.findAllByUserId(1L)).thenReturn(List.of(order1));
         Mockito.when(orderDtoMapperMock.map(order1)).thenReturn(orderFullDto1);
 
         //when
@@ -589,7 +599,7 @@ class UserServiceTest {
     @Test
     void shouldNotInvokeMapperWhenUserDoesNotExist() {
         //given
-        Mockito.when(userRepositoryMock.findByEmail("nonexistent@mail.com")).thenReturn(Optional.empty());
+        Mockito.when(userIdentityServiceMock.findByEmail("nonexistent@mail.com")).thenReturn(Optional.empty());
 
         //when
         List<OrderFullDto> allUserOrdersResult = userService.findAllUserOrders("nonexistent@mail.com");
@@ -598,4 +608,8 @@ class UserServiceTest {
         assertTrue(allUserOrdersResult.isEmpty());
         Mockito.verifyNoInteractions(orderDtoMapperMock);
     }
-}
\ No newline at end of file
+
+    private static UserIdentity identityOf(User user) {
+        return new UserIdentity(user.getId(), user.getCart() == null ? null : user.getCart().getId(), Set.of());
+    }
+}
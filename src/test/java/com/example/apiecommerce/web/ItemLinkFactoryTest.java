@@ -0,0 +1,88 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.product.dto.ProductDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class ItemLinkFactoryTest {
+    private final ItemLinkFactory itemLinkFactory = new ItemLinkFactory();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldBuildSameSelfLinksAsControllerMethodLinks() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/shop/api/v1/products/page/2");
+        request.setScheme("https");
+        request.setServerName("shop.example.com");
+        request.setServerPort(8443);
+        request.setContextPath("/shop");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        List<ProductDto> products = List.of(product(7L), product(12L));
+
+        //when
+        List<EntityModel<ProductDto>> models = itemLinkFactory.toModels(products, ProductController.class, ProductDto::getId);
+
+        //then
+        assertEquals("https://shop.example.com:8443/shop/api/v1/products/7", models.get(0).getRequiredLink("self").getHref());
+        assertEquals(rendered(products.stream().map(ItemLinkFactoryTest::methodLinked).toList()), rendered(models));
+    }
+
+    @Test
+    void shouldBuildSamePagedModelAsControllerMethodLinks() {
+        //given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(
+                new MockHttpServletRequest("GET", "/api/v1/products/page/2")));
+        PagedResourcesAssembler<ProductDto> pagedResourcesAssembler =
+                new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        Page<ProductDto> page = new PageImpl<>(List.of(product(3L), product(4L)), PageRequest.of(1, 2), 9);
+
+        //when
+        PagedModel<EntityModel<ProductDto>> pagedModel = itemLinkFactory.toPagedModel(pagedResourcesAssembler, page,
+                ProductController.class, ProductDto::getId);
+
+        //then
+        PagedModel<EntityModel<ProductDto>> expected = pagedResourcesAssembler.toModel(page, ItemLinkFactoryTest::methodLinked);
+        assertEquals(expected.getMetadata(), pagedModel.getMetadata());
+        assertEquals(expected.getLinks().toString(), pagedModel.getLinks().toString());
+        assertEquals(rendered(expected.getContent()), rendered(pagedModel.getContent()));
+    }
+
+    private static EntityModel<ProductDto> methodLinked(ProductDto productDto) {
+        return EntityModel.of(productDto,
+                linkTo(methodOn(ProductController.class).getProductById(productDto.getId(), null)).withSelfRel());
+    }
+
+    private static List<String> rendered(Collection<EntityModel<ProductDto>> models) {
+        return models.stream()
+                .map(model -> model.getContent().getId() + " " + model.getLinks())
+                .toList();
+    }
+
+    private static ProductDto product(long id) {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(id);
+        productDto.setProductName("Produkt " + id);
+        return productDto;
+    }
+}
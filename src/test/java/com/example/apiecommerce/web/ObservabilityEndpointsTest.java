@@ -0,0 +1,120 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.config.JwtService;
+import com.example.apiecommerce.domain.config.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+class ObservabilityEndpointsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Test
+    void shouldExposeHealthWithoutAuthentication() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRejectMetricsForAnonymousAndRegularUsers() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(user("user@mail.com").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldPublishRequestHistogramsPerHandlerMethod() throws Exception {
+        //given
+        mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk());
+
+        //when
+        //then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("handler=\"ProductController#getProductById\"")))
+                .andExpect(content().string(containsString("http_server_requests_sql_statements_bucket{method=\"GET\",uri=\"/api/v1/products/{id}\",le=")))
+                .andExpect(content().string(containsString("http_server_requests_connections_seconds_count{method=\"GET\",uri=\"/api/v1/products/{id}\"}")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"catalog.products\",result=\"hit\"}")));
+    }
+
+    @Test
+    void shouldKeepCacheMetersLiveAfterGarbageCollection() {
+        //given
+        String token = jwtService.createSignedJwt("user@mail.com", List.of("ROLE_USER"));
+        verifiedTokenCache.authenticate(token);
+        double hitsBefore = verifiedTokenHits();
+        System.gc();
+        System.gc();
+
+        //when
+        verifiedTokenCache.authenticate(token);
+
+        //then
+        assertEquals(hitsBefore + 1, verifiedTokenHits());
+        double hitRatio = meterRegistry.get("cache.hit.ratio")
+                .tag("cache", "jwt.verified-tokens")
+                .gauge()
+                .value();
+        assertFalse(Double.isNaN(hitRatio));
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldCountSqlStatementsPerRequest() throws Exception {
+        //when
+        mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk());
+
+        //then
+        double statements = meterRegistry.get("http.server.requests.sql")
+                .tag("uri", "/api/v1/products/{id}")
+                .summary()
+                .max();
+        assertTrue(statements >= 1);
+    }
+
+    private double verifiedTokenHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens")
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
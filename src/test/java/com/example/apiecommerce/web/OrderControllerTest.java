@@ -1,10 +1,13 @@
 package com.example.apiecommerce.web;
 
 
+import com.example.apiecommerce.domain.order.Order;
 import com.example.apiecommerce.domain.order.OrderRepository;
 import com.example.apiecommerce.domain.order.OrderStatus;
+import com.example.apiecommerce.domain.order.PaymentStatus;
 import com.example.apiecommerce.domain.order.dto.OrderDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,8 +15,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -277,6 +287,84 @@ class OrderControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldAdminScrollAllOrdersWithCursor() throws Exception {
+        //given & when
+        MvcResult firstSlice = mockMvc.perform(get("/api/v1/orders/scroll")
+                        .param("pageSize", "2")
+                        .param("sortField", "orderDate")
+                        .param("sortDirection", "ASC")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.content[1].id").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+        String nextCursor = JsonPath.read(firstSlice.getResponse().getContentAsString(), "$.nextCursor");
+
+        //then
+        mockMvc.perform(get("/api/v1/orders/scroll")
+                        .param("after", nextCursor)
+                        .param("pageSize", "2")
+                        .param("sortField", "orderDate")
+                        .param("sortDirection", "ASC")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(3))
+                .andExpect(jsonPath("$.content[1].id").value(4));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldScrollAcrossOrdersWhoseDateWasNullInBothDirections() throws Exception {
+        //given
+        long firstBackfilledId = orderRepository.save(orderPlacedAt(LocalDateTime.of(1970, 1, 1, 0, 0))).getId();
+        long secondBackfilledId = orderRepository.save(orderPlacedAt(LocalDateTime.of(1970, 1, 1, 0, 0))).getId();
+        long orderCount = orderRepository.count();
+
+        //when
+        List<Long> ascending = scrollOrderIds("ASC");
+        List<Long> descending = scrollOrderIds("DESC");
+
+        //then
+        assertEquals(orderCount, ascending.size());
+        assertEquals(orderCount, new HashSet<>(ascending).size());
+        assertEquals(List.of(firstBackfilledId, secondBackfilledId), ascending.subList(0, 2));
+        assertEquals(orderCount, descending.size());
+        assertEquals(orderCount, new HashSet<>(descending).size());
+        assertEquals(List.of(secondBackfilledId, firstBackfilledId), descending.subList(descending.size() - 2, descending.size()));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldReturnBadRequestWhenCursorDoesNotMatchSortField() throws Exception {
+        //given
+        MvcResult firstSlice = mockMvc.perform(get("/api/v1/orders/scroll")
+                        .param("pageSize", "2")
+                        .param("sortField", "orderDate")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        String nextCursor = JsonPath.read(firstSlice.getResponse().getContentAsString(), "$.nextCursor");
+
+        //when & then
+        mockMvc.perform(get("/api/v1/orders/scroll")
+                        .param("after", nextCursor)
+                        .param("sortField", "orderTotalPrice")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldFailed_whenUserScrollAllOrdersAndIsNotAuthorized() throws Exception {
+        //given & when & then
+        mockMvc.perform(get("/api/v1/orders/scroll")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "user@mail.com", roles = "USER")
     void shouldFailed_whenUserGetAllOrdersPaginatedAndIsNotAuthorized() throws Exception {
@@ -459,4 +547,37 @@ class OrderControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Order not found"));
     }
-}
\ No newline at end of file
+
+    private Order orderPlacedAt(LocalDateTime orderDate) {
+        Order existingOrder = orderRepository.findById(1L).orElseThrow();
+        Order order = new Order();
+        order.setTotalPrice(10.0);
+        order.setOrderDate(orderDate);
+        order.setOrderStatus(OrderStatus.NEW);
+        order.setPaymentStatus(PaymentStatus.PENDING);
+        order.setUser(existingOrder.getUser());
+        order.setAddress(existingOrder.getAddress());
+        order.setDelivery(existingOrder.getDelivery());
+        return order;
+    }
+
+    private List<Long> scrollOrderIds(String sortDirection) throws Exception {
+        List<Long> orderIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult slice = mockMvc.perform(get("/api/v1/orders/scroll")
+                            .param("after", cursor)
+                            .param("pageSize", "1")
+                            .param("sortField", "orderDate")
+                            .param("sortDirection", sortDirection)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            String body = slice.getResponse().getContentAsString();
+            List<Number> ids = JsonPath.read(body, "$.content[*].id");
+            ids.forEach(id -> orderIds.add(id.longValue()));
+            cursor = JsonPath.read(body, "$.nextCursor");
+        } while (cursor != null);
+        return orderIds;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.order.Order;
+import com.example.apiecommerce.domain.order.OrderRepository;
+import com.example.apiecommerce.domain.orderItem.OrderItem;
+import com.example.apiecommerce.domain.orderItem.OrderItemRepository;
+import com.example.apiecommerce.domain.product.ProductRepository;
+import com.example.apiecommerce.domain.user.User;
+import com.example.apiecommerce.domain.user.UserIdentityService;
+import com.example.apiecommerce.domain.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@AutoConfigureMockMvc
+@Transactional
+class OrderEndpointStatementCountTest {
+    private static final String USER_MAIL = "user@mail.com";
+    private static final String ADMIN_MAIL = "admin@mail.com";
+    private static final long USER_ORDER_ID = 2L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserIdentityService userIdentityService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @WithMockUser(username = USER_MAIL, roles = "USER")
+    void shouldLoadUserOrdersWithOneStatementRegardlessOfOrderCount() throws Exception {
+        //given
+        StatementCounts singleOrderStatements = countStatements(get("/api/v1/users/orders"));
+        assignAllOrdersToUser();
+        addOrderItems(USER_ORDER_ID, 10);
+
+        //when
+        StatementCounts allOrdersStatements = countStatements(get("/api/v1/users/orders"));
+
+        //then
+        assertEquals(new StatementCounts(2, 1), singleOrderStatements);
+        assertEquals(new StatementCounts(2, 1), allOrdersStatements);
+    }
+
+    @Test
+    @WithMockUser(username = USER_MAIL, roles = "USER")
+    void shouldLoadOrderFullViewWithOneStatement() throws Exception {
+        //given
+        addOrderItems(USER_ORDER_ID, 15);
+
+        //when
+        StatementCounts statements = countStatements(get("/api/v1/orders/{id}", USER_ORDER_ID));
+
+        //then
+        assertEquals(new StatementCounts(2, 1), statements);
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_MAIL, roles = "ADMIN")
+    void shouldLoadOrderSummaryPageWithContentAndCountStatementsOnly() throws Exception {
+        //when
+        StatementCounts statements = countStatements(get("/api/v1/orders/page").param("pageSize", "2"));
+
+        //then
+        assertEquals(new StatementCounts(2, 2), statements);
+    }
+
+    @Test
+    @WithMockUser(username = ADMIN_MAIL, roles = "ADMIN")
+    void shouldLoadOrderSummaryWindowWithOneStatement() throws Exception {
+        //when
+        StatementCounts statements = countStatements(get("/api/v1/orders/scroll").param("pageSize", "2"));
+
+        //then
+        assertEquals(new StatementCounts(1, 1), statements);
+    }
+
+    private StatementCounts countStatements(RequestBuilder request) throws Exception {
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        userIdentityService.evict(USER_MAIL);
+        userIdentityService.evict(ADMIN_MAIL);
+        long cold = measure(request);
+        long warm = measure(request);
+        return new StatementCounts(cold, warm);
+    }
+
+    private long measure(RequestBuilder request) throws Exception {
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assignAllOrdersToUser() {
+        User user = userRepository.findByEmail(USER_MAIL).orElseThrow();
+        orderRepository.findAll().forEach(order -> order.setUser(user));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void addOrderItems(long orderId, int items) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        for (long productId = 1; productId <= items; productId++) {
+            OrderItem orderItem = new OrderItem();
+            orderItem.setOrderItemQuantity(1L);
+            orderItem.setOrder(order);
+            orderItem.setProduct(productRepository.findById(productId).orElseThrow());
+            orderItemRepository.save(orderItem);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private record StatementCounts(long cold, long warm) {
+    }
+}
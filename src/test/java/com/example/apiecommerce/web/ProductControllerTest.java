@@ -1,27 +1,41 @@
 package com.example.apiecommerce.web;
 
 import com.example.apiecommerce.domain.category.Category;
+import com.example.apiecommerce.domain.inventory.InventoryEngine;
+import com.example.apiecommerce.domain.product.Product;
 import com.example.apiecommerce.domain.product.ProductRepository;
 import com.example.apiecommerce.domain.product.dto.ProductDto;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
@@ -38,6 +52,9 @@ class ProductControllerTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private InventoryEngine inventoryEngine;
+
 
     @Test
     @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
@@ -156,6 +173,32 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$._embedded.productDtoes[0]._links.self.href").value("http://localhost/api/v1/products/1"));
     }
 
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldStreamAllProductsAsNdjson() throws Exception {
+        //given
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/products/export")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        //then
+        String[] lines = mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(20);
+        ProductDto first = objectMapper.readValue(lines[0], ProductDto.class);
+        ProductDto last = objectMapper.readValue(lines[19], ProductDto.class);
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(first.getProductName()).isEqualTo("Pilsner");
+        assertThat(first.getCategoryName()).isNotBlank();
+        assertThat(last.getDescription()).isEqualTo("Elegancki szampan o owocowym aromacie.");
+    }
+
     @Test
     void shouldFailWhenUserIsNotAuthenticated() throws Exception {
         //given & when & then
@@ -305,7 +348,7 @@ class ProductControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.productName").value("Pilsner"))
                 .andExpect(jsonPath("$.productPrice").value(8.8))
-                .andExpect(jsonPath("$.productQuantity").value(20));
+                .andExpect(jsonPath("$.productQuantity").value(22));
     }
 
     @Test
@@ -453,6 +496,149 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldReturnNotModifiedWhenProductVersionMatches() throws Exception {
+        //given
+        long productId = 1L;
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", productId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        //when & then
+        mockMvc.perform(get("/api/v1/products/{id}", productId)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldReturnProductWhenStockChangedSinceETag() throws Exception {
+        //given
+        long productId = 1L;
+        inventoryEngine.restock(Map.of(productId, 2L));
+
+        //when & then
+        mockMvc.perform(get("/api/v1/products/{id}", productId)
+                        .header("If-None-Match", "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.productQuantity").value(24));
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldReturnNotModifiedWhenProductPageUnchanged() throws Exception {
+        //given
+        String eTag = mockMvc.perform(get("/api/v1/products/page/{pageNo}", 1)
+                        .param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(eTag).isNotBlank();
+
+        //when & then
+        mockMvc.perform(get("/api/v1/products/page/{pageNo}", 1)
+                        .param("pageSize", "2")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/products/page/{pageNo}", 2)
+                        .param("pageSize", "2")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldReplaceProductWhenIfMatchIsCurrent() throws Exception {
+        //given
+        long productId = 1L;
+        ProductDto productDto = new ProductDto();
+        productDto.setProductName("Super piwo");
+        productDto.setProductPrice(5.50);
+        productDto.setDescription("Super dobre piwo");
+        productDto.setProductQuantity(100L);
+        productDto.setCategoryId(1L);
+
+        //when & then
+        mockMvc.perform(put("/api/v1/products/{id}", productId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.productName").value("Super piwo"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldRejectReplaceWhenIfMatchIsStale() throws Exception {
+        //given
+        long productId = 1L;
+        ProductDto productDto = new ProductDto();
+        productDto.setProductName("Super piwo");
+        productDto.setProductPrice(5.50);
+        productDto.setDescription("Super dobre piwo");
+        productDto.setProductQuantity(100L);
+        productDto.setCategoryId(1L);
+        inventoryEngine.restock(Map.of(productId, 1L));
+
+        //when
+        mockMvc.perform(put("/api/v1/products/{id}", productId)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(productDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("The resource has been modified, fetch the current version and try again"));
+
+        //then
+        assertThat(productRepository.findById(productId).orElseThrow().getProductName()).isEqualTo("Pilsner");
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldAdminImportProductsFromCsv() throws Exception {
+        //given
+        String csv = """
+                productName,productPrice,description,productQuantity,categoryId
+                Cydr jabłkowy,9.9,Musujący cydr,30,2
+                Cydr,0,Bez ceny,30,2
+                """;
+
+        //when & then
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType("text/csv;charset=UTF-8")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processedRows").value(2))
+                .andExpect(jsonPath("$.insertedRows").value(1))
+                .andExpect(jsonPath("$.failedRows").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("productPrice: must be greater than 0"));
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = "ADMIN")
+    void shouldRejectImportWithInvalidCsvHeader() throws Exception {
+        //when & then
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType("text/csv")
+                        .content("productName,price\nPilsner,8.8\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown CSV column: price"));
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldFailImportingProductsWithoutAuthorization() throws Exception {
+        //when & then
+        mockMvc.perform(post("/api/v1/products/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}\n"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "user@mail.com", roles = "USER")
     void shouldGetProductQuantity() throws Exception {
@@ -464,7 +650,7 @@ class ProductControllerTest {
         mockMvc.perform(get("/api/v1/products/{id}/quantity", productId)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").value("20"));
+                .andExpect(jsonPath("$").value("22"));
     }
 
     @Test
@@ -549,4 +735,120 @@ class ProductControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldScrollAllProductsWithCursor() throws Exception {
+        //given & when
+        MvcResult firstSlice = mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("pageSize", "2")
+                        .param("sortField", "productName")
+                        .param("sortDirection", "ASC")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productDtoes.length()").value(2))
+                .andExpect(jsonPath("$._embedded.productDtoes[0].productName").value("Burbon Jack Daniels"))
+                .andExpect(jsonPath("$._embedded.productDtoes[1].productName").value("Burbon Jim Beam"))
+                .andExpect(jsonPath("$._embedded.productDtoes[0]._links.self.href").value("http://localhost/api/v1/products/9"))
+                .andExpect(jsonPath("$._links.next.href").isNotEmpty())
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andReturn();
+        String nextHref = objectMapper.readTree(firstSlice.getResponse().getContentAsString())
+                .at("/_links/next/href").asText();
+
+        //then
+        mockMvc.perform(get(nextHref)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productDtoes[0].productName").value("Cabernet Sauvignon"))
+                .andExpect(jsonPath("$._embedded.productDtoes[1].productName").value("Chardonnay"));
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldScrollProductsFromCategoryToTheLastSlice() throws Exception {
+        //given & when & then
+        MvcResult firstSlice = mockMvc.perform(get("/api/v1/products/scroll/category")
+                        .param("categoryName", "piwo")
+                        .param("pageSize", "2")
+                        .param("sortField", "productPrice")
+                        .param("sortDirection", "DESC")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productDtoes[0].productName").value("Porter"))
+                .andExpect(jsonPath("$._embedded.productDtoes[1].productName").value("IPA"))
+                .andReturn();
+        String nextHref = objectMapper.readTree(firstSlice.getResponse().getContentAsString())
+                .at("/_links/next/href").asText();
+
+        mockMvc.perform(get(nextHref)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.productDtoes.length()").value(1))
+                .andExpect(jsonPath("$._embedded.productDtoes[0].productName").value("Pilsner"))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldReturnBadRequestForInvalidCursor() throws Exception {
+        //given & when & then
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("after", "not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user@mail.com", roles = "USER")
+    void shouldScrollAcrossProductsWhoseSortKeysWereNullInBothDirections() throws Exception {
+        //given
+        Category category = productRepository.findById(1L).orElseThrow().getCategory();
+        LocalDateTime backfilledDate = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long firstBackfilledId = productRepository.save(new Product(null, "", 1.99, "Legacy product", backfilledDate, 1L, category)).getId();
+        long secondBackfilledId = productRepository.save(new Product(null, "", 2.99, "Legacy product", backfilledDate, 1L, category)).getId();
+        long productCount = productRepository.count();
+
+        for (String sortField : List.of("productName", "creationDate")) {
+            //when
+            List<Long> ascending = scrollProductIds(sortField, "ASC");
+            List<Long> descending = scrollProductIds(sortField, "DESC");
+
+            //then
+            assertEquals(productCount, ascending.size());
+            assertEquals(productCount, new HashSet<>(ascending).size());
+            assertEquals(List.of(firstBackfilledId, secondBackfilledId), ascending.subList(0, 2));
+            assertEquals(productCount, descending.size());
+            assertEquals(productCount, new HashSet<>(descending).size());
+            assertEquals(List.of(secondBackfilledId, firstBackfilledId), descending.subList(descending.size() - 2, descending.size()));
+        }
+    }
+
+    @Test
+    void shouldRejectProductWithoutScrollSortKeys() {
+        //given
+        Category category = productRepository.findById(1L).orElseThrow().getCategory();
+
+        //when & then
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            productRepository.save(new Product(null, null, 1.99, "Legacy product", null, 1L, category));
+            productRepository.flush();
+        });
+    }
+
+    private List<Long> scrollProductIds(String sortField, String sortDirection) throws Exception {
+        List<Long> productIds = new ArrayList<>();
+        String href = "/api/v1/products/scroll?pageSize=1&sortField=" + sortField + "&sortDirection=" + sortDirection;
+        while (href != null) {
+            MvcResult slice = mockMvc.perform(get(href)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode body = objectMapper.readTree(slice.getResponse().getContentAsString());
+            body.at("/_embedded/productDtoes").forEach(product -> productIds.add(product.get("id").asLong()));
+            JsonNode next = body.at("/_links/next/href");
+            href = next.isMissingNode() ? null : next.asText();
+        }
+        return productIds;
+    }
+}
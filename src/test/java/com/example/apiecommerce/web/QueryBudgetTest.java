@@ -0,0 +1,129 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.datagen.DataGenerator;
+import com.example.apiecommerce.domain.datagen.DataGeneratorSettings;
+import com.example.apiecommerce.domain.product.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.MOCK, properties = "catalog-cache.enabled=false")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+    private static final RequestPostProcessor ADMIN = user("admin@mail.com").roles("ADMIN");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RequestPostProcessor customer;
+    private long customerOrderId;
+    private long customerCartItemId;
+
+    @BeforeAll
+    void generateData(@Autowired DataSource dataSource,
+                      @Autowired PlatformTransactionManager transactionManager,
+                      @Autowired PasswordEncoder passwordEncoder,
+                      @Autowired ConfigurableApplicationContext applicationContext,
+                      @Autowired ProductSearchIndex productSearchIndex) {
+        DataGeneratorSettings settings = new DataGeneratorSettings(10, 500, 20, 400, 5, 8, 0.02, 0.8, 100, 11L, "Loadtest123!", false);
+        new DataGenerator(dataSource, transactionManager, passwordEncoder, settings, applicationContext).generate();
+        productSearchIndex.rebuild();
+        String email = jdbcTemplate.queryForObject("SELECT u.email FROM users u JOIN orders o ON o.user_id = u.id " +
+                "WHERE u.email LIKE '%@load.test' GROUP BY u.email ORDER BY COUNT(*) DESC, u.email LIMIT 1", String.class);
+        customer = user(email).roles("USER");
+        customerOrderId = jdbcTemplate.queryForObject("SELECT o.id FROM orders o JOIN users u ON u.id = o.user_id " +
+                "JOIN order_item oi ON oi.order_id = o.id WHERE u.email = ? GROUP BY o.id ORDER BY COUNT(*) DESC, o.id LIMIT 1",
+                Long.class, email);
+        jdbcTemplate.update("INSERT INTO cart_item (id, cart_item_quantity, cart_id, product_id) " +
+                "SELECT NEXT VALUE FOR cart_item_seq, 1, u.cart_id, p.id FROM users u, product p WHERE u.email = ? AND p.id > 100 AND p.id <= 110", email);
+        customerCartItemId = jdbcTemplate.queryForObject("SELECT MAX(ci.id) FROM cart_item ci JOIN users u ON u.cart_id = ci.cart_id " +
+                "WHERE u.email = ?", Long.class, email);
+    }
+
+    @Test
+    void userOrdersShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/users/orders").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void orderDetailsShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/{id}", customerOrderId).with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void adminOrderPagesShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/page").param("pageSize", "50").with(ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+        mockMvc.perform(get("/api/v1/orders/scroll").param("pageSize", "50").with(ADMIN))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(1));
+    }
+
+    @Test
+    void cartDetailsShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/carts").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(3));
+        mockMvc.perform(get("/api/v1/cartItems/{id}", customerCartItemId).with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void userAddressesShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/users/addresses").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void productPagesShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/products/page/{pageNo}", 2).param("pageSize", "50").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(3));
+        mockMvc.perform(get("/api/v1/products/page/{pageNo}/category", 1).param("pageSize", "50")
+                        .param("categoryName", "Wino 1").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(4));
+        mockMvc.perform(get("/api/v1/products/scroll").param("pageSize", "50").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+        mockMvc.perform(get("/api/v1/products/search").param("searchText", "wino").param("pageSize", "50").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void productAndCategoryLookupsShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", 100).with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(1));
+        mockMvc.perform(get("/api/v1/categories").with(customer))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(1));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.apiecommerce.web;
+
+import com.example.apiecommerce.domain.config.SqlStatementMetricsFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    static ResultMatcher atMost(int maximumStatements) {
+        return result -> {
+            int statements = statements(result);
+            assertTrue(statements <= maximumStatements, () -> "%s %s executed %d SQL statements, budget is %d".formatted(
+                    result.getRequest().getMethod(), result.getRequest().getRequestURI(), statements, maximumStatements));
+        };
+    }
+
+    static int statements(MvcResult result) {
+        Object statements = result.getRequest().getAttribute(SqlStatementMetricsFilter.STATEMENT_COUNT_ATTRIBUTE);
+        assertNotNull(statements, "SQL statements were not counted, the request did not pass SqlStatementMetricsFilter");
+        return (int) statements;
+    }
+}